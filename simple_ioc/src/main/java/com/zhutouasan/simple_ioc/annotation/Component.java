@@ -0,0 +1,28 @@
+package com.zhutouasan.simple_ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @desc： 标记需要容器管理的类，由simple_ioc_processor在编译期写入组件索引，启动时不扫描classpath
+ *          beanId默认为类名首字母小写，例如UserService -> userService
+ * @author: zhutouasan
+ * @date： 2026/10/17 00:40
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Component {
+
+    // beanId，为空时使用类名首字母小写
+    String value() default "";
+
+    // 作用域，为空时使用容器的默认作用域
+    String scope() default "";
+
+    // 是否延迟初始化
+    boolean lazyInit() default false;
+}
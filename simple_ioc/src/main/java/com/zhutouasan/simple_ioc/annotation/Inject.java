@@ -0,0 +1,20 @@
+package com.zhutouasan.simple_ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @desc： 标记注入点
+ *          构造器：每个参数注入一个bean，beanId为参数名，可以用@Named指定，一个类只能有一个@Inject构造器；
+ *          setter：按属性名注入，例如setUserDao注入userDao，与xml中的property相同
+ * @author: zhutouasan
+ * @date： 2026/10/17 00:41
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.CONSTRUCTOR, ElementType.METHOD})
+public @interface Inject {
+}
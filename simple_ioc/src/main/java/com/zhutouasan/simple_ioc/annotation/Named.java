@@ -0,0 +1,20 @@
+package com.zhutouasan.simple_ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @desc： 指定@Inject构造器参数注入的beanId
+ * @author: zhutouasan
+ * @date： 2026/10/17 00:42
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.PARAMETER)
+public @interface Named {
+
+    String value();
+}
@@ -0,0 +1,126 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @desc： 类的反射元数据，每个Class只解析一次并全局缓存，供所有容器共享
+ *          缓存保存在ClassValue中，随Class一起回收，不会让用过容器的类加载器无法卸载
+ *          包含按属性名索引的setter（含父类继承的）以及按参数个数索引的构造器
+ * @author: zhutouasan
+ * @date： 2026/10/16 10:12
+ */
+public final class BeanClassMetadata {
+
+    // 每个Class的元数据，所有容器共用；不能用以Class为key的Map，强引用会让类加载器无法回收
+    private static final ClassValue<BeanClassMetadata> CACHE = new ClassValue<BeanClassMetadata>() {
+        @Override
+        protected BeanClassMetadata computeValue(Class<?> type) {
+            return new BeanClassMetadata(type);
+        }
+    };
+
+    private final Class<?> beanClass;
+
+    // setter方法名 -> setter，例如 setUserDao -> setUserDao(UserDao)
+    private final Map<String, Method> setters;
+
+    // 构造器参数个数 -> 构造器，同参数个数取第一个声明的构造器
+    private final Map<Integer, Constructor<?>> constructors;
+
+    private BeanClassMetadata(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        this.setters = resolveSetters(beanClass);
+        this.constructors = resolveConstructors(beanClass);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取类的元数据，不存在时解析并放入缓存
+     * @Date 2026/10/16 10:15
+     * @param beanClass
+     * @Return {@link BeanClassMetadata}
+     **/
+    public static BeanClassMetadata forClass(Class<?> beanClass) {
+        return CACHE.get(beanClass);
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  根据属性名获取setter，没有对应setter时返回null
+     * @Date 2026/10/16 10:16
+     * @param propertyName
+     * @Return {@link Method}
+     **/
+    public Method getSetter(String propertyName) {
+        return this.setters.get(setterName(propertyName));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  属性名转换成setter方法名，userDao -> setUserDao
+     * @Date 2026/10/16 10:18
+     * @param propertyName
+     * @Return {@link String}
+     **/
+    public static String setterName(String propertyName) {
+        return "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  根据参数个数获取构造器，没有时返回null
+     * @Date 2026/10/16 10:17
+     * @param parameterCount
+     * @Return {@link Constructor}
+     **/
+    public Constructor<?> getConstructor(int parameterCount) {
+        return this.constructors.get(parameterCount);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  从当前类一直向上遍历父类，收集所有单参数的setXxx方法，子类覆盖的方法优先
+     * @Date 2026/10/16 10:20
+     * @param beanClass
+     * @Return {@link Map}
+     **/
+    private static Map<String, Method> resolveSetters(Class<?> beanClass) {
+        Map<String, Method> result = new HashMap<>();
+        for (Class<?> current = beanClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                String name = method.getName();
+                if (name.length() <= 3 || !name.startsWith("set") || method.getParameterCount() != 1
+                        || Modifier.isStatic(method.getModifiers()) || method.isBridge()) {
+                    continue;
+                }
+
+                if (!result.containsKey(name)) {
+                    ReflectionUtils.makeAccessible(method);
+                    result.put(name, method);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<Integer, Constructor<?>> resolveConstructors(Class<?> beanClass) {
+        Map<Integer, Constructor<?>> result = new HashMap<>();
+        for (Constructor<?> constructor : beanClass.getDeclaredConstructors()) {
+            if (!result.containsKey(constructor.getParameterCount())) {
+                ReflectionUtils.makeAccessible(constructor);
+                result.put(constructor.getParameterCount(), constructor);
+            }
+        }
+        return result;
+    }
+}
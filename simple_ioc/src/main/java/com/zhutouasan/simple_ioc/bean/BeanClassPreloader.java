@@ -0,0 +1,90 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * @desc： 在后台线程提前加载bean的类，同时缓存它的BeanClassMetadata
+ *          解析配置时每得到一个BeanDefinition就提交一次，同一个类只加载一次，类加载与解析、创建其他bean同时进行；
+ *          创建bean时通过loadClass取结果，还没有加载完就等待，没有提交过的类直接在当前线程加载；
+ *          加载失败的原因保存下来，在创建用到这个类的bean时连同beanId一起抛出；
+ *          只加载和链接，不执行static块：延迟初始化的bean、prototype以及构建类型索引用到的类都会被预加载，
+ *          static块仍然在第一次创建实例时由创建它的线程执行，与不预加载时相同
+ * @author: zhutouasan
+ * @date： 2026/10/17 01:00
+ */
+public final class BeanClassPreloader {
+
+    private final ClassLoader classLoader;
+
+    private final Executor executor;
+
+    // 类名 -> 加载结果
+    private final Map<String, CompletableFuture<Class<?>>> classes = new ConcurrentHashMap<>(256);
+
+    public BeanClassPreloader(ClassLoader classLoader, Executor executor) {
+        this.classLoader = classLoader;
+        this.executor = executor;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  提交后台加载，已经提交过的类直接返回
+     * @Date 2026/10/17 01:02
+     * @param beanDefinition
+     * @Return
+     **/
+    public void preload(BeanDefinition beanDefinition) {
+        String className = beanDefinition.getBeanClassName();
+        if (className == null) {
+            return;
+        }
+        CompletableFuture<Class<?>> future = new CompletableFuture<>();
+        if (this.classes.putIfAbsent(className, future) != null) {
+            return;
+        }
+
+        this.executor.execute(() -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader previous = thread.getContextClassLoader();
+            thread.setContextClassLoader(this.classLoader);
+            try {
+                Class<?> beanClass = Class.forName(className, false, this.classLoader);
+                BeanClassMetadata.forClass(beanClass);
+                future.complete(beanClass);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                thread.setContextClassLoader(previous);
+            }
+        });
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取bean的类，后台加载失败时抛出的异常中包含类名、beanId和原始异常（例如NoClassDefFoundError）
+     * @Date 2026/10/17 01:05
+     * @param beanDefinition
+     * @Return {@link Class}
+     **/
+    public Class<?> loadClass(BeanDefinition beanDefinition) throws ClassNotFoundException {
+        String className = beanDefinition.getBeanClassName();
+        CompletableFuture<Class<?>> future = className == null ? null : this.classes.get(className);
+        if (future == null) {
+            return this.classLoader.loadClass(className);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new ClassNotFoundException("could not load class " + className + " for bean '"
+                    + beanDefinition.getId() + "': " + e.getCause(), e.getCause());
+        }
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+}
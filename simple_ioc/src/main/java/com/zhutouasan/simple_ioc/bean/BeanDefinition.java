@@ -2,40 +2,295 @@ package com.zhutouasan.simple_ioc.bean;
 
 import lombok.*;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.UnaryOperator;
 
 /**
  * @desc： 类的基本结构，用来描述需要ioc容器管理的对象
+ *          加载完成后由容器调用freeze()冻结：依赖列表换成不可变的数组，字符串换成共享的实例，之后所有setter抛出异常
+ *          setter都是手写的，修改前检查是否已经冻结，不由lombok生成
  * @author: zhutouasan
  * @date： 2023/7/6 12:13
  */
-@Data
-@ToString
-@Setter
 @Getter
+@ToString
+@EqualsAndHashCode
 public class BeanDefinition {
 
+    // 整个容器只有一个实例
+    public static final String SCOPE_SINGLETON = "singleton";
+
+    // 每次获取都创建新的实例
+    public static final String SCOPE_PROTOTYPE = "prototype";
+
+    // 从有上限的对象池中借出，用完后归还
+    public static final String SCOPE_POOLED = "pooled";
+
+    // 每个线程一个实例，线程调用destroyThreadScopedBeans时销毁
+    public static final String SCOPE_THREAD = "thread";
+
+    // 每个TaskScope一个实例，TaskScope关闭时销毁
+    public static final String SCOPE_TASK = "task";
+
+    private static final AtomicReferenceFieldUpdater<BeanDefinition, InjectionPlan> INJECTION_PLAN =
+            AtomicReferenceFieldUpdater.newUpdater(BeanDefinition.class, InjectionPlan.class, "injectionPlan");
+
     // 对象名
     private String id;
 
     // 类路径
     private String beanClassName;
 
-    // 存放Bean所有属性的名称，用于获取Bean
-    private final List<String> propertyNames = new ArrayList<>();
+    // 存放Bean所有属性的名称，用于获取Bean，冻结后不可修改
+    private List<String> propertyNames = new ArrayList<>();
+
+    // 存放Bean构造器所需属性的参数，冻结后不可修改
+    private List<String> constructorArguments = new ArrayList<>();
+
+    // 配置了value的属性名，与propertyValues一一对应，不是bean的依赖
+    private List<String> valuePropertyNames = new ArrayList<>();
+
+    // 属性的字面值，编译注入计划时按setter的参数类型转换
+    private List<String> propertyValues = new ArrayList<>();
+
+    // 作用域，singleton/prototype/pooled/thread/task
+    private String scope = SCOPE_SINGLETON;
+
+    // pooled作用域下池中最多保留的空闲对象数，0表示使用默认值
+    private int poolSize;
+
+    // 延迟初始化，只对ClassPathXmlApplicationContext中的单例有效，启动时不创建，第一次使用时才创建
+    private boolean lazyInit;
+
+    // 注入属性之后调用的无参方法，为null时不调用
+    private String initMethodName;
+
+    // 启动时init-method在startupPool上与其他bean的init-method同时执行，只对ClassPathXmlApplicationContext启动时创建的单例有效
+    private boolean asyncInit;
+
+    // 容器关闭（或thread/task作用域结束）时调用的无参方法，为null时bean实现了AutoCloseable则调用close
+    private String destroyMethodName;
+
+    // 编译后的注入计划，第一次创建Bean时生成，之后所有创建都复用
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile InjectionPlan injectionPlan;
 
-    // 存放Bean构造器所需属性的参数
-    private final List<String> constructorArguments = new LinkedList<>();
+    // 冻结后不再修改；freeze最后写入，其他线程看到true时也能看到冻结后的字段
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile boolean frozen;
 
     public BeanDefinition(String id, String beanClassName) {
         this.id = id;
         this.beanClassName = beanClassName;
     }
 
+    /**
+     * @Auther zhutouasan
+     * @Desc  冻结BeanDefinition：依赖列表换成数组实现的不可变列表（空列表共享同一个实例），
+     *        id、类名、依赖名和方法名换成interner返回的实例，作用域换成常量，重复调用没有效果
+     * @Date 2026/10/17 03:30
+     * @param interner 返回相同内容的共享字符串，通常由注册表在所有BeanDefinition之间共享
+     * @Return
+     **/
+    public void freeze(UnaryOperator<String> interner) {
+        if (this.frozen) {
+            return;
+        }
+        this.id = interner.apply(this.id);
+        this.beanClassName = interner.apply(this.beanClassName);
+        this.propertyNames = freezeList(this.propertyNames, interner);
+        this.constructorArguments = freezeList(this.constructorArguments, interner);
+        this.valuePropertyNames = freezeList(this.valuePropertyNames, interner);
+        this.propertyValues = freezeList(this.propertyValues, interner);
+        this.scope = canonicalScope(this.scope);
+        this.initMethodName = this.initMethodName == null ? null : interner.apply(this.initMethodName);
+        this.destroyMethodName = this.destroyMethodName == null ? null : interner.apply(this.destroyMethodName);
+        this.frozen = true;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  添加一个字面值属性
+     * @Date 2026/10/17 04:10
+     * @param propertyName 属性名
+     * @param value 字面值，按setter的参数类型转换（见ValueConverterRegistry）
+     * @Return
+     **/
+    public void addPropertyValue(String propertyName, String value) {
+        checkNotFrozen();
+        this.valuePropertyNames.add(propertyName);
+        this.propertyValues.add(value);
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public void setId(String id) {
+        checkNotFrozen();
+        this.id = id;
+    }
+
+    public void setBeanClassName(String beanClassName) {
+        checkNotFrozen();
+        this.beanClassName = beanClassName;
+    }
+
+    public void setPoolSize(int poolSize) {
+        checkNotFrozen();
+        this.poolSize = poolSize;
+    }
+
+    public void setLazyInit(boolean lazyInit) {
+        checkNotFrozen();
+        this.lazyInit = lazyInit;
+    }
+
+    public void setInitMethodName(String initMethodName) {
+        checkNotFrozen();
+        this.initMethodName = initMethodName;
+    }
+
+    public void setAsyncInit(boolean asyncInit) {
+        checkNotFrozen();
+        this.asyncInit = asyncInit;
+    }
+
+    public void setDestroyMethodName(String destroyMethodName) {
+        checkNotFrozen();
+        this.destroyMethodName = destroyMethodName;
+    }
+
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("bean definition '" + this.id + "' is frozen and can no longer be modified");
+        }
+    }
+
     public boolean hasConstructorArgumentValues() {
         return !this.constructorArguments.isEmpty();
     }
 
+    /**
+     * @Auther zhutouasan
+     * @Desc  设置作用域，只接受singleton/prototype/pooled/thread/task
+     * @Date 2026/10/16 19:05
+     * @param scope
+     * @Return
+     **/
+    public void setScope(String scope) {
+        checkNotFrozen();
+        if (!isKnownScope(scope)) {
+            throw new IllegalArgumentException("unknown scope '" + scope + "' for bean " + this.id);
+        }
+        this.scope = scope;
+    }
+
+    public boolean isSingleton() {
+        return SCOPE_SINGLETON.equals(this.scope);
+    }
+
+    public boolean isPrototype() {
+        return SCOPE_PROTOTYPE.equals(this.scope);
+    }
+
+    public boolean isPooled() {
+        return SCOPE_POOLED.equals(this.scope);
+    }
+
+    public boolean isThreadScoped() {
+        return SCOPE_THREAD.equals(this.scope);
+    }
+
+    public boolean isTaskScoped() {
+        return SCOPE_TASK.equals(this.scope);
+    }
+
+    public static boolean isKnownScope(String scope) {
+        return SCOPE_SINGLETON.equals(scope) || SCOPE_PROTOTYPE.equals(scope) || SCOPE_POOLED.equals(scope)
+                || SCOPE_THREAD.equals(scope) || SCOPE_TASK.equals(scope);
+    }
+
+    private static String canonicalScope(String scope) {
+        for (String known : new String[]{SCOPE_SINGLETON, SCOPE_PROTOTYPE, SCOPE_POOLED, SCOPE_THREAD, SCOPE_TASK}) {
+            if (known.equals(scope)) {
+                return known;
+            }
+        }
+        return scope;
+    }
+
+    private static List<String> freezeList(List<String> values, UnaryOperator<String> interner) {
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String[] elements = new String[values.size()];
+        int i = 0;
+        for (String value : values) {
+            elements[i++] = interner.apply(value);
+        }
+        return new FrozenList(elements);
+    }
+
+    /**
+     * @desc： 冻结后的依赖列表，只有一个数组引用，比Arrays.asList再包一层unmodifiableList少一个对象
+     */
+    private static final class FrozenList extends AbstractList<String> implements RandomAccess {
+
+        private final String[] elements;
+
+        private FrozenList(String[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public String get(int index) {
+            return this.elements[index];
+        }
+
+        @Override
+        public int size() {
+            return this.elements.length;
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取注入计划，第一次调用时编译，多线程同时编译只会保留第一个结果
+     *        不加锁，虚拟线程在这里不会固定到载体线程上
+     * @Date 2026/10/16 10:45
+     * @param classLoader 加载beanClassName使用的类加载器
+     * @Return {@link InjectionPlan}
+     **/
+    public InjectionPlan resolveInjectionPlan(ClassLoader classLoader) throws ClassNotFoundException {
+        InjectionPlan plan = this.injectionPlan;
+        return plan != null ? plan : publishInjectionPlan(InjectionPlan.compile(this, classLoader));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取注入计划，类从后台预加载的结果中获取
+     * @Date 2026/10/17 01:10
+     * @param preloader
+     * @Return {@link InjectionPlan}
+     **/
+    public InjectionPlan resolveInjectionPlan(BeanClassPreloader preloader) throws ClassNotFoundException {
+        InjectionPlan plan = this.injectionPlan;
+        return plan != null ? plan : publishInjectionPlan(InjectionPlan.compile(this, preloader.loadClass(this)));
+    }
+
+    // 同时编译的线程中只有第一个设置成功，其他线程丢弃自己的结果，所有线程使用同一个计划
+    private InjectionPlan publishInjectionPlan(InjectionPlan plan) {
+        return INJECTION_PLAN.compareAndSet(this, null, plan) ? plan : this.injectionPlan;
+    }
+
 }
\ No newline at end of file
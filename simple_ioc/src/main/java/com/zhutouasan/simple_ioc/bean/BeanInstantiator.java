@@ -0,0 +1,22 @@
+package com.zhutouasan.simple_ioc.bean;
+
+/**
+ * @desc： 由实例化策略编译出的Bean构造器访问器
+ * @author: zhutouasan
+ * @date： 2026/10/16 11:20
+ */
+@FunctionalInterface
+public interface BeanInstantiator {
+
+    // 无参构造器使用的空参数数组
+    Object[] NO_ARGS = new Object[0];
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  使用构造器参数创建Bean实例
+     * @Date 2026/10/16 11:21
+     * @param args 构造器参数，无参构造时为空数组
+     * @Return {@link Object}
+     **/
+    Object instantiate(Object[] args) throws Exception;
+}
@@ -0,0 +1,320 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @desc： BeanDefinition编译后的不可变注入计划
+ *          在第一次创建Bean时解析出实例化用的构造器、每个属性对应的setter以及依赖顺序，
+ *          之后每次创建Bean直接按计划执行，不再遍历getDeclaredMethods()和拼接setter名；
+ *          字面值属性在编译时就按setter的参数类型转换好（见ValueConverterRegistry），
+ *          基本类型在这里装箱一次，之后每次注入由编译好的setter访问器直接拆箱，不再解析字符串，也不再装箱
+ * @author: zhutouasan
+ * @date： 2026/10/16 10:30
+ */
+public final class InjectionPlan {
+
+    private final Class<?> beanClass;
+
+    // 实例化使用的构造器，无参构造或与constructor-arg个数相同的构造器
+    private final Constructor<?> constructor;
+
+    // 构造器参数对应的beanId，顺序与构造器参数一致
+    private final String[] constructorArguments;
+
+    // 构造器的参数类型，编译时复制一次，之后每次创建Bean不再调用getParameterTypes()
+    private final Class<?>[] constructorParameterTypes;
+
+    // 存在setter的属性名，与setters一一对应
+    private final String[] propertyNames;
+
+    private final Method[] setters;
+
+    // setter的参数类型，与setters一一对应
+    private final Class<?>[] propertyTypes;
+
+    // 字面值属性名、setter和转换后的值，三者一一对应
+    private final String[] valuePropertyNames;
+
+    private final Method[] valueSetters;
+
+    private final Object[] values;
+
+    // 创建该Bean需要先获取的beanId，构造器参数在前，属性在后，去重
+    private final String[] dependencies;
+
+    // init-method对应的无参方法，没有配置时为null
+    private final Method initMethod;
+
+    // destroy-method对应的无参方法，没有配置时为null
+    private final Method destroyMethod;
+
+    // 按实例化策略编译后的访问器，单槽缓存，同一个容器始终使用同一个策略
+    private volatile CompiledAccessors compiledAccessors;
+
+    private InjectionPlan(Class<?> beanClass, Constructor<?> constructor, String[] constructorArguments,
+                          String[] propertyNames, Method[] setters, String[] valuePropertyNames, Method[] valueSetters,
+                          Object[] values, String[] dependencies, Method initMethod, Method destroyMethod) {
+        this.beanClass = beanClass;
+        this.constructor = constructor;
+        this.constructorArguments = constructorArguments;
+        this.constructorParameterTypes = constructor.getParameterTypes();
+        this.propertyNames = propertyNames;
+        this.setters = setters;
+        this.propertyTypes = new Class<?>[setters.length];
+        for (int i = 0; i < setters.length; i++) {
+            this.propertyTypes[i] = setters[i].getParameterTypes()[0];
+        }
+        this.valuePropertyNames = valuePropertyNames;
+        this.valueSetters = valueSetters;
+        this.values = values;
+        this.dependencies = dependencies;
+        this.initMethod = initMethod;
+        this.destroyMethod = destroyMethod;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  将BeanDefinition编译成注入计划，类的反射信息从BeanClassMetadata的缓存中获取
+     * @Date 2026/10/16 10:36
+     * @param beanDefinition
+     * @param classLoader 加载beanClassName使用的类加载器
+     * @Return {@link InjectionPlan}
+     **/
+    public static InjectionPlan compile(BeanDefinition beanDefinition, ClassLoader classLoader) throws ClassNotFoundException {
+        return compile(beanDefinition, classLoader.loadClass(beanDefinition.getBeanClassName()));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  使用已经加载好的类编译注入计划
+     * @Date 2026/10/17 01:08
+     * @param beanDefinition
+     * @param beanClass beanClassName对应的类
+     * @Return {@link InjectionPlan}
+     **/
+    public static InjectionPlan compile(BeanDefinition beanDefinition, Class<?> beanClass) {
+        BeanClassMetadata metadata = BeanClassMetadata.forClass(beanClass);
+
+        String[] constructorArguments = beanDefinition.getConstructorArguments().toArray(new String[0]);
+        Constructor<?> constructor = metadata.getConstructor(constructorArguments.length);
+        if (constructor == null) {
+            throw new IllegalStateException("no constructor with " + constructorArguments.length
+                    + " parameters found in " + beanClass.getName() + " for bean " + beanDefinition.getId());
+        }
+
+        // 只保留存在setter的属性，没有setter的属性与原来一样直接忽略
+        List<String> propertyNames = new ArrayList<>(beanDefinition.getPropertyNames().size());
+        List<Method> setters = new ArrayList<>(beanDefinition.getPropertyNames().size());
+        for (String propertyName : beanDefinition.getPropertyNames()) {
+            Method setter = metadata.getSetter(propertyName);
+            if (setter != null) {
+                propertyNames.add(propertyName);
+                setters.add(setter);
+            }
+        }
+
+        // 字面值在这里转换一次，setter不存在或者值无法转换时立即报告
+        int valueCount = beanDefinition.getValuePropertyNames().size();
+        String[] valuePropertyNames = beanDefinition.getValuePropertyNames().toArray(new String[0]);
+        Method[] valueSetters = new Method[valueCount];
+        Object[] values = new Object[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            valueSetters[i] = metadata.getSetter(valuePropertyNames[i]);
+            if (valueSetters[i] == null) {
+                throw new IllegalStateException("no setter for property '" + valuePropertyNames[i] + "' found in "
+                        + beanClass.getName() + " for bean " + beanDefinition.getId());
+            }
+            values[i] = convertValue(beanDefinition, valuePropertyNames[i], beanDefinition.getPropertyValues().get(i), valueSetters[i]);
+        }
+
+        Set<String> dependencies = new LinkedHashSet<>(constructorArguments.length + propertyNames.size());
+        for (String argument : constructorArguments) {
+            dependencies.add(argument);
+        }
+        dependencies.addAll(propertyNames);
+
+        Method initMethod = lifecycleMethod(beanDefinition, beanClass, "init-method", beanDefinition.getInitMethodName());
+        Method destroyMethod = lifecycleMethod(beanDefinition, beanClass, "destroy-method", beanDefinition.getDestroyMethodName());
+
+        return new InjectionPlan(beanClass, constructor, constructorArguments, propertyNames.toArray(new String[0]),
+                setters.toArray(new Method[0]), valuePropertyNames, valueSetters, values, dependencies.toArray(new String[0]),
+                initMethod, destroyMethod);
+    }
+
+    private static Object convertValue(BeanDefinition beanDefinition, String propertyName, String text, Method setter) {
+        Type type = setter.getGenericParameterTypes()[0];
+        try {
+            return ValueConverterRegistry.getDefault().convert(text, type);
+        } catch (Exception e) {
+            throw new IllegalStateException("cannot convert value '" + text + "' of property '" + propertyName + "' to "
+                    + type.getTypeName() + " for bean " + beanDefinition.getId() + ": " + e, e);
+        }
+    }
+
+    // 没有配置时返回null，配置了但找不到时抛出异常
+    private static Method lifecycleMethod(BeanDefinition beanDefinition, Class<?> beanClass, String kind, String methodName) {
+        if (methodName == null) {
+            return null;
+        }
+        Method method = findNoArgMethod(beanClass, methodName);
+        if (method == null) {
+            throw new IllegalStateException("no " + kind + " " + methodName + "() without parameters found in "
+                    + beanClass.getName() + " for bean " + beanDefinition.getId());
+        }
+        return method;
+    }
+
+    // 在类和所有父类中查找无参方法，可以不是public
+    private static Method findNoArgMethod(Class<?> beanClass, String methodName) {
+        for (Class<?> type = beanClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            try {
+                Method method = type.getDeclaredMethod(methodName);
+                method.setAccessible(true);
+                return method;
+            } catch (NoSuchMethodException e) {
+                // 继续查找父类
+            }
+        }
+        return null;
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    public Constructor<?> getConstructor() {
+        return constructor;
+    }
+
+    public int getConstructorArgumentCount() {
+        return constructorArguments.length;
+    }
+
+    public String getConstructorArgument(int index) {
+        return constructorArguments[index];
+    }
+
+    public Class<?> getConstructorParameterType(int index) {
+        return constructorParameterTypes[index];
+    }
+
+    public int getPropertyCount() {
+        return propertyNames.length;
+    }
+
+    public String getPropertyName(int index) {
+        return propertyNames[index];
+    }
+
+    public Method getSetter(int index) {
+        return setters[index];
+    }
+
+    public Class<?> getPropertyType(int index) {
+        return propertyTypes[index];
+    }
+
+    public int getValuePropertyCount() {
+        return valuePropertyNames.length;
+    }
+
+    public String getValuePropertyName(int index) {
+        return valuePropertyNames[index];
+    }
+
+    public Method getValueSetter(int index) {
+        return valueSetters[index];
+    }
+
+    // 转换后的值，集合不可修改，可以注入到多个实例
+    public Object getValue(int index) {
+        return values[index];
+    }
+
+    public String[] getDependencies() {
+        return dependencies.clone();
+    }
+
+    public Method getInitMethod() {
+        return initMethod;
+    }
+
+    public Method getDestroyMethod() {
+        return destroyMethod;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取按指定策略编译好的构造器访问器
+     * @Date 2026/10/16 12:05
+     * @param strategy 容器使用的实例化策略
+     * @Return {@link BeanInstantiator}
+     **/
+    public BeanInstantiator getInstantiator(InstantiationStrategy strategy) {
+        return compiledAccessors(strategy).instantiator;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取按指定策略编译好的第index个setter访问器
+     * @Date 2026/10/16 12:06
+     * @param strategy 容器使用的实例化策略
+     * @param index 属性下标，与getPropertyName(index)对应
+     * @Return {@link PropertyInjector}
+     **/
+    public PropertyInjector getInjector(InstantiationStrategy strategy, int index) {
+        return compiledAccessors(strategy).injectors[index];
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取按指定策略编译好的第index个字面值属性的setter访问器
+     * @Date 2026/10/17 04:35
+     * @param strategy 容器使用的实例化策略
+     * @param index 字面值属性下标，与getValuePropertyName(index)对应
+     * @Return {@link PropertyInjector}
+     **/
+    public PropertyInjector getValueInjector(InstantiationStrategy strategy, int index) {
+        return compiledAccessors(strategy).valueInjectors[index];
+    }
+
+    private CompiledAccessors compiledAccessors(InstantiationStrategy strategy) {
+        CompiledAccessors accessors = this.compiledAccessors;
+        if (accessors == null || accessors.strategy != strategy) {
+            // 并发编译时结果等价，后写入的覆盖先写入的即可
+            accessors = new CompiledAccessors(strategy, this);
+            this.compiledAccessors = accessors;
+        }
+        return accessors;
+    }
+
+    private static final class CompiledAccessors {
+
+        private final InstantiationStrategy strategy;
+
+        private final BeanInstantiator instantiator;
+
+        private final PropertyInjector[] injectors;
+
+        private final PropertyInjector[] valueInjectors;
+
+        private CompiledAccessors(InstantiationStrategy strategy, InjectionPlan plan) {
+            this.strategy = strategy;
+            this.instantiator = strategy.createInstantiator(plan.constructor);
+            this.injectors = new PropertyInjector[plan.setters.length];
+            for (int i = 0; i < plan.setters.length; i++) {
+                this.injectors[i] = strategy.createInjector(plan.setters[i]);
+            }
+            this.valueInjectors = new PropertyInjector[plan.valueSetters.length];
+            for (int i = 0; i < plan.valueSetters.length; i++) {
+                this.valueInjectors[i] = strategy.createInjector(plan.valueSetters[i]);
+            }
+        }
+    }
+}
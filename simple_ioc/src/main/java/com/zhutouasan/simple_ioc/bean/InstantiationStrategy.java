@@ -0,0 +1,31 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * @desc： 实例化策略，把注入计划中的构造器和setter编译成可直接调用的访问器
+ *          每个容器可以选择自己的策略，编译结果缓存在InjectionPlan中
+ * @author: zhutouasan
+ * @date： 2026/10/16 11:25
+ */
+public interface InstantiationStrategy {
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  将构造器编译成实例化访问器
+     * @Date 2026/10/16 11:26
+     * @param constructor
+     * @Return {@link BeanInstantiator}
+     **/
+    BeanInstantiator createInstantiator(Constructor<?> constructor);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  将setter编译成注入访问器
+     * @Date 2026/10/16 11:27
+     * @param setter
+     * @Return {@link PropertyInjector}
+     **/
+    PropertyInjector createInjector(Method setter);
+}
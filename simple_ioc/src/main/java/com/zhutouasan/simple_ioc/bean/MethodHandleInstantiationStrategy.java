@@ -0,0 +1,162 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * @desc： 基于MethodHandle的实例化策略
+ *          公共类的公共setter通过LambdaMetafactory直接生成PropertyInjector，每个setter一个实现类，
+ *          inject内部只调用这一个setter，调用点保持单态，JIT可以直接内联；
+ *          构造器和其余setter绑定到各自的MethodHandleInstantiator/MethodHandleInjector，转换成固定签名后用invokeExact调用；
+ *          无法访问或无法生成lambda时退回到反射策略
+ * @author: zhutouasan
+ * @date： 2026/10/16 11:40
+ */
+public class MethodHandleInstantiationStrategy implements InstantiationStrategy {
+
+    public static final MethodHandleInstantiationStrategy INSTANCE = new MethodHandleInstantiationStrategy();
+
+    private static final MethodType INJECT_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private final InstantiationStrategy fallback = ReflectiveInstantiationStrategy.INSTANCE;
+
+    @Override
+    public BeanInstantiator createInstantiator(Constructor<?> constructor) {
+        MethodHandle handle;
+        try {
+            ReflectionUtils.makeAccessible(constructor);
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException ex) {
+            return fallback.createInstantiator(constructor);
+        }
+        // 把(A, B, ...)T转换成(Object[])Object，调用时使用invokeExact避免额外的类型适配
+        return new MethodHandleInstantiator(handle.asSpreader(Object[].class, constructor.getParameterCount()).asType(SPREAD_TYPE));
+    }
+
+    @Override
+    public PropertyInjector createInjector(Method setter) {
+        MethodHandle handle;
+        try {
+            ReflectionUtils.makeAccessible(setter);
+            handle = lookup.unreflect(setter);
+        } catch (IllegalAccessException ex) {
+            return fallback.createInjector(setter);
+        }
+        if (isLambdaAccessible(setter.getDeclaringClass(), setter.getModifiers())) {
+            try {
+                return createLambdaInjector(handle);
+            } catch (LambdaConversionException ex) {
+                // 生成失败时使用invokeExact
+            }
+        }
+        return new MethodHandleInjector(handle.asType(INJECT_TYPE));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  直接以PropertyInjector为目标接口生成lambda，不经过BiConsumer等通用接口的适配
+     * @Date 2026/10/16 11:48
+     * @param handle setter的MethodHandle
+     * @Return {@link PropertyInjector}
+     **/
+    private PropertyInjector createLambdaInjector(MethodHandle handle) throws LambdaConversionException {
+        // 基本类型参数在instantiatedMethodType中使用包装类型，由LambdaMetafactory负责拆箱
+        MethodType instantiatedType = handle.type().wrap().changeReturnType(void.class);
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "inject",
+                MethodType.methodType(PropertyInjector.class), INJECT_TYPE, handle, instantiatedType);
+        try {
+            return (PropertyInjector) callSite.getTarget().invokeExact();
+        } catch (Throwable ex) {
+            // 不捕获参数的lambda工厂只返回同一个实例，不会抛出异常
+            throw rethrowUnchecked(ex);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  生成的lambda类定义在当前类的类加载器中，只有公共成员并且目标类对当前类加载器可见时才能使用
+     * @Date 2026/10/16 11:52
+     * @param declaringClass
+     * @param modifiers
+     * @Return {@link boolean}
+     **/
+    private boolean isLambdaAccessible(Class<?> declaringClass, int modifiers) {
+        if (!Modifier.isPublic(modifiers) || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(declaringClass.getName(), false, getClass().getClassLoader()) == declaringClass;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private static Exception rethrow(Throwable ex) {
+        if (ex instanceof Exception) {
+            return (Exception) ex;
+        }
+        throw rethrowUnchecked(ex);
+    }
+
+    private static RuntimeException rethrowUnchecked(Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            return (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new UndeclaredThrowableException(ex);
+    }
+
+    // 绑定单个构造器的访问器，handle为final字段
+    private static final class MethodHandleInstantiator implements BeanInstantiator {
+
+        private final MethodHandle handle;
+
+        MethodHandleInstantiator(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object instantiate(Object[] args) throws Exception {
+            try {
+                return (Object) this.handle.invokeExact(args);
+            } catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+    }
+
+    // 绑定单个setter的访问器，用于无法生成lambda的setter
+    private static final class MethodHandleInjector implements PropertyInjector {
+
+        private final MethodHandle handle;
+
+        MethodHandleInjector(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void inject(Object bean, Object value) throws Exception {
+            try {
+                this.handle.invokeExact(bean, value);
+            } catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+    }
+}
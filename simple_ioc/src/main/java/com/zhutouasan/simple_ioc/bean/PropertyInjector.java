@@ -0,0 +1,20 @@
+package com.zhutouasan.simple_ioc.bean;
+
+/**
+ * @desc： 由实例化策略编译出的setter访问器
+ * @author: zhutouasan
+ * @date： 2026/10/16 11:22
+ */
+@FunctionalInterface
+public interface PropertyInjector {
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  调用setter给bean注入属性
+     * @Date 2026/10/16 11:23
+     * @param bean 被注入的对象
+     * @param value 属性值
+     * @Return
+     **/
+    void inject(Object bean, Object value) throws Exception;
+}
@@ -0,0 +1,29 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * @desc： 基于反射的实例化策略，通过Constructor.newInstance和Method.invoke创建和注入Bean
+ *          兼容性最好，也是MethodHandle策略无法编译时的兜底方案
+ * @author: zhutouasan
+ * @date： 2026/10/16 11:30
+ */
+public class ReflectiveInstantiationStrategy implements InstantiationStrategy {
+
+    public static final ReflectiveInstantiationStrategy INSTANCE = new ReflectiveInstantiationStrategy();
+
+    @Override
+    public BeanInstantiator createInstantiator(Constructor<?> constructor) {
+        ReflectionUtils.makeAccessible(constructor);
+        return constructor::newInstance;
+    }
+
+    @Override
+    public PropertyInjector createInjector(Method setter) {
+        ReflectionUtils.makeAccessible(setter);
+        return setter::invoke;
+    }
+}
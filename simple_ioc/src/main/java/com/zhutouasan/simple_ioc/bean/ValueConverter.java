@@ -0,0 +1,19 @@
+package com.zhutouasan.simple_ioc.bean;
+
+/**
+ * @desc： 把xml中的字面值转换成属性类型，注册到ValueConverterRegistry
+ * @author: zhutouasan
+ * @date： 2026/10/17 04:15
+ */
+@FunctionalInterface
+public interface ValueConverter<T> {
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  转换字面值，格式不正确时抛出异常
+     * @Date 2026/10/17 04:16
+     * @param text xml中value属性的内容
+     * @Return {@link T}
+     **/
+    T convert(String text) throws Exception;
+}
@@ -0,0 +1,181 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @desc： 字面值转换器的注册表，按属性类型查找转换器
+ *          内置基本类型和它们的包装类、String、BigDecimal、BigInteger、Duration，枚举按常量名转换，
+ *          List、Set、Collection按逗号拆分后逐个转换元素，元素类型取泛型参数，没有泛型参数时为String；
+ *          集合转换后不可修改，同一个值会注入到所有prototype实例中
+ *          转换只在编译注入计划时执行一次，之后每次创建bean直接注入转换结果，不再解析字符串
+ * @author: zhutouasan
+ * @date： 2026/10/17 04:20
+ */
+public final class ValueConverterRegistry {
+
+    private static final ValueConverterRegistry DEFAULT = new ValueConverterRegistry();
+
+    // 500ms、30s、5m这样的时长，没有单位时为毫秒
+    private static final Pattern SIMPLE_DURATION = Pattern.compile("(-?\\d+)\\s*(ns|us|ms|s|m|h|d)?");
+
+    private final Map<Class<?>, ValueConverter<?>> converters = new ConcurrentHashMap<>(32);
+
+    public ValueConverterRegistry() {
+        register(String.class, text -> text);
+        register(boolean.class, ValueConverterRegistry::parseBoolean);
+        register(Boolean.class, ValueConverterRegistry::parseBoolean);
+        register(char.class, ValueConverterRegistry::parseChar);
+        register(Character.class, ValueConverterRegistry::parseChar);
+        register(byte.class, text -> Byte.valueOf(text.trim()));
+        register(Byte.class, text -> Byte.valueOf(text.trim()));
+        register(short.class, text -> Short.valueOf(text.trim()));
+        register(Short.class, text -> Short.valueOf(text.trim()));
+        register(int.class, text -> Integer.valueOf(text.trim()));
+        register(Integer.class, text -> Integer.valueOf(text.trim()));
+        register(long.class, text -> Long.valueOf(text.trim()));
+        register(Long.class, text -> Long.valueOf(text.trim()));
+        register(float.class, text -> Float.valueOf(text.trim()));
+        register(Float.class, text -> Float.valueOf(text.trim()));
+        register(double.class, text -> Double.valueOf(text.trim()));
+        register(Double.class, text -> Double.valueOf(text.trim()));
+        register(BigDecimal.class, text -> new BigDecimal(text.trim()));
+        register(BigInteger.class, text -> new BigInteger(text.trim()));
+        register(Duration.class, ValueConverterRegistry::parseDuration);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  容器编译注入计划时使用的注册表，注册在这里的转换器对之后编译的注入计划有效
+     * @Date 2026/10/17 04:22
+     * @Return {@link ValueConverterRegistry}
+     **/
+    public static ValueConverterRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  注册type的转换器，替换已有的转换器
+     * @Date 2026/10/17 04:23
+     * @param type 属性类型
+     * @param converter
+     * @Return
+     **/
+    public <T> void register(Class<T> type, ValueConverter<? extends T> converter) {
+        this.converters.put(type, converter);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  把字面值转换成targetType
+     * @Date 2026/10/17 04:25
+     * @param text 字面值
+     * @param targetType setter的参数类型，可以带泛型参数
+     * @Return {@link Object} 基本类型返回包装类
+     **/
+    public Object convert(String text, Type targetType) throws Exception {
+        Class<?> rawType = rawType(targetType);
+        ValueConverter<?> converter = this.converters.get(rawType);
+        if (converter != null) {
+            return converter.convert(text);
+        }
+        if (rawType.isEnum()) {
+            return enumConstant(rawType, text.trim());
+        }
+        if (rawType == List.class || rawType == Collection.class || rawType == Set.class) {
+            Type elementType = targetType instanceof ParameterizedType
+                    ? ((ParameterizedType) targetType).getActualTypeArguments()[0] : String.class;
+            List<Object> elements = new ArrayList<>();
+            if (!text.trim().isEmpty()) {
+                for (String element : text.split(",")) {
+                    elements.add(convert(element.trim(), elementType));
+                }
+            }
+            return rawType == Set.class ? Collections.unmodifiableSet(new LinkedHashSet<>(elements))
+                    : Collections.unmodifiableList(elements);
+        }
+        throw new IllegalArgumentException("no converter registered for " + targetType.getTypeName());
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        // List<? extends Number>这样的元素类型取上界
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        throw new IllegalArgumentException("cannot convert values to " + type.getTypeName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumConstant(Class<?> enumType, String name) {
+        return Enum.valueOf((Class) enumType, name);
+    }
+
+    // 只接受true和false，不像Boolean.parseBoolean那样把拼错的值当成false
+    private static Boolean parseBoolean(String text) {
+        String value = text.trim();
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("'" + text + "' is neither true nor false");
+    }
+
+    private static Character parseChar(String text) {
+        if (text.length() != 1) {
+            throw new IllegalArgumentException("'" + text + "' is not a single character");
+        }
+        return text.charAt(0);
+    }
+
+    // 支持ISO-8601格式（PT30S）和500ms、30s、5m、1h、2d这样的简写
+    private static Duration parseDuration(String text) {
+        String value = text.trim();
+        Matcher matcher = SIMPLE_DURATION.matcher(value);
+        if (!matcher.matches()) {
+            return Duration.parse(value);
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit == null || "ms".equals(unit)) {
+            return Duration.ofMillis(amount);
+        }
+        switch (unit) {
+            case "ns":
+                return Duration.ofNanos(amount);
+            case "us":
+                return Duration.of(amount, ChronoUnit.MICROS);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            default:
+                return Duration.ofDays(amount);
+        }
+    }
+}
@@ -1,78 +1,77 @@
 package com.zhutouasan.simple_ioc.core;
 
 import com.zhutouasan.simple_ioc.bean.BeanDefinition;
-import org.dom4j.Attribute;
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
-import org.dom4j.Element;
-import org.dom4j.io.SAXReader;
-import org.springframework.util.StringUtils;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Constructor;
+import com.zhutouasan.simple_ioc.bean.BeanInstantiator;
+import com.zhutouasan.simple_ioc.bean.InjectionPlan;
+import com.zhutouasan.simple_ioc.bean.InstantiationStrategy;
+import com.zhutouasan.simple_ioc.bean.MethodHandleInstantiationStrategy;
+import com.zhutouasan.simple_ioc.core.BeanLifecycleRecorder.Phase;
+
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @desc： spring ioc容器，用来创建类，管理类与类之间的关系
+ *          bean默认为prototype，每次获取都创建新的对象图；
+ *          scope="singleton"的bean只创建一次并被所有对象图共享，
+ *          scope="pooled"的bean从对象池借出，使用完后通过returnBean归还，
+ *          scope="thread"的bean每个线程一个，scope="task"的bean每个openTaskScope()打开的任务一个；
+ *          配置了init-method时注入属性后立即调用，池化的bean只在创建时调用一次，async-init在这里没有作用；
+ *          close()按依赖的相反顺序销毁单例并销毁对象池中的空闲对象，prototype不由容器管理，不会被销毁
  * @author: zhutouasan
  * @date： 2023/7/6 15:33
  */
-public class BeanContainer {
+public class BeanContainer extends DefaultSingletonBeanRegistry implements AutoCloseable {
+
+    // 没有配置pool-size时对象池保留的空闲对象数
+    private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
 
     // 使用Map存放所有的BeanDefinition, String为类路径classpapth。
     // ConcurrentHashMap保证线程安全
-    private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>(64);
+    // 加载完成后冻结，之后只读
+    private final Map<String, BeanDefinition> beanDefinitionMap;
+
+    // 记录getBean和bean创建过程的事件，默认不记录
+    private static final BeanLifecycleRecorder RECORDER = BeanLifecycleRecorder.CURRENT;
+
+    // 实例化策略，默认使用MethodHandle，无法编译时退回反射
+    private final InstantiationStrategy instantiationStrategy;
+
+    // pooled作用域的对象池，beanId -> 对象池
+    private final Map<String, BeanPool> beanPools = new ConcurrentHashMap<>(16);
+
+    private final AtomicBoolean closed = new AtomicBoolean();
 
-    public BeanContainer(String configFile) {
-        loadBeanDefinitions(configFile);
+    public BeanContainer(String... configLocations) {
+        this(configLocations, MethodHandleInstantiationStrategy.INSTANCE);
+    }
+
+    public BeanContainer(String configFile, InstantiationStrategy instantiationStrategy) {
+        this(new String[]{configFile}, instantiationStrategy);
+    }
+
+    public BeanContainer(String[] configLocations, InstantiationStrategy instantiationStrategy) {
+        this.instantiationStrategy = instantiationStrategy;
+        Map<String, BeanDefinition> definitions = new ConcurrentHashMap<>(64);
+        loadBeanDefinitions(configLocations, definitions);
+        this.beanDefinitionMap = FrozenBeanDefinitionRegistry.freeze(definitions);
+        registerCycles(BeanDependencyGraph.build(this.beanDefinitionMap));
     }
 
     /**
          * @Auther zhutouasan
          * @Desc 将xml文件中对bean的描述，转换成具体的对象并存放到beanDefinitionMap
          * @Date 2023/7/6 16:27
-         * @param configFile xml文件的路径
+         * @param configLocations xml文件的路径或通配符
          * @Return
     **/
-    private void loadBeanDefinitions(String configFile) {
-        InputStream inputStream = null;
-        try {
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            inputStream = classLoader.getResourceAsStream(configFile);
-
-            SAXReader reader = new SAXReader();
-            Document doc = reader.read(inputStream);
-            // <beans>
-            Element root = doc.getRootElement();
-            Iterator<Element> iterator = root.elementIterator();
-
-            // 实例化容器中的类
-            while (iterator.hasNext()) {
-                Element next = iterator.next();
-                String id = next.attributeValue("id");
-                String beanClassName = next.attributeValue("class");
-                BeanDefinition beanDefinition = new BeanDefinition(id, beanClassName);
-                parseConstructorArgElement(next, beanDefinition);
-                parsePropertyElement(next, beanDefinition);
-                this.beanDefinitionMap.put(id, beanDefinition);
-            }
-        } catch (DocumentException e) {
-            e.printStackTrace();
-        } finally {
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
+    private void loadBeanDefinitions(String[] configLocations, Map<String, BeanDefinition> beanDefinitionMap) {
+        new XmlBeanDefinitionReader(BeanDefinition.SCOPE_PROTOTYPE, true).loadBeanDefinitions(configLocations, beanDefinitionMap);
     }
 
     /**
@@ -83,56 +82,153 @@ public class BeanContainer {
      * @Return {@link Object}
      **/
     public Object getBean(String beanId) {
+        Object event = RECORDER.begin(Phase.GET_BEAN);
         BeanDefinition beanDefinition = this.getBeanDefinition(beanId);
 
-        // 实例化bean
-        Object bean = createBeanInstance(beanDefinition);
-        // 给bean赋值
-        populateBean(beanDefinition, bean);
+        // 单例只创建一次，之后直接返回
+        Object bean = beanDefinition.isSingleton() ? this.getSingleton(beanId) : null;
+        boolean cacheHit = bean != null;
+        if (!cacheHit) {
+            bean = doGetBean(beanDefinition);
+        }
 
+        if (event != null) {
+            RECORDER.commit(event, beanId, beanDefinition.getBeanClassName(), cacheHit);
+        }
         return bean;
     }
 
     /**
-         * @Auther zhutouasan
-         * @Desc  获取bean的所有属性名
-         * @Date 2023/7/7 15:08
-         * @param beanElem 标签信息
-            @param beanDefinition 定义类信息
-         * @Return
-    **/
-    public void parsePropertyElement(Element beanElem, BeanDefinition beanDefinition) {
-        Iterator<Element> iterator = beanElem.elementIterator("property");
-        while (iterator.hasNext()) {
-            Element next = iterator.next();
-            String propertyName = next.attributeValue("name");
-            if (!StringUtils.hasLength(propertyName)) {
-                return;
-            }
+     * @Auther zhutouasan
+     * @Desc  单例缓存中没有时获取bean，单例只由一个线程创建，pooled从对象池借出，thread/task按线程或任务缓存，prototype直接创建
+     * @Date 2026/10/16 23:00
+     * @param beanDefinition
+     * @Return {@link Object}
+     **/
+    private Object doGetBean(BeanDefinition beanDefinition) {
+        if (this.closed.get()) {
+            throw new BeansException("bean container has been closed");
+        }
+        if (beanDefinition.isSingleton()) {
+            return this.getSingleton(beanDefinition.getId(), () -> createBean(beanDefinition));
+        }
+
+        // 池化的bean从对象池借出，使用完后需要调用returnBean归还
+        if (beanDefinition.isPooled()) {
+            return getBeanPool(beanDefinition).borrow();
+        }
 
-            beanDefinition.getPropertyNames().add(propertyName);
+        // thread和task作用域在当前线程或当前任务中只创建一次
+        if (beanDefinition.isThreadScoped() || beanDefinition.isTaskScoped()) {
+            return this.getScopedBean(beanDefinition, () -> createBean(beanDefinition));
         }
+
+        return createBean(beanDefinition);
     }
 
     /**
-         * @Auther zhutouasan
-         * @Desc  获取构造方法的参数名
-         * @Date 2023/7/7 12:24
-         * @param beanElem 标签信息
-            @param beanDefinition 类信息类
-         * @Return
-    **/
-    public void parseConstructorArgElement(Element beanElem, BeanDefinition beanDefinition) {
-        Iterator<Element> iterator = beanElem.elementIterator("constructor-arg");
-        while (iterator.hasNext()) {
-            Element next = iterator.next();
-            String argumentName = next.attributeValue("ref");
-            if (!StringUtils.hasLength(argumentName)) {
-                return;
+     * @Auther zhutouasan
+     * @Desc  归还从对象池借出的bean，池已满或容器已关闭时销毁，销毁失败时抛出异常；
+     *        不是借出中的对象（没有借出过或重复归还）时抛出异常
+     * @Date 2026/10/16 19:50
+     * @param beanId
+     * @param bean getBean借出的对象
+     * @Return
+     **/
+    public void returnBean(String beanId, Object bean) {
+        BeanPool beanPool = this.beanPools.get(beanId);
+        if (beanPool == null) {
+            throw new BeansException("bean '" + beanId + "' is not pooled or has never been borrowed");
+        }
+        if (this.closed.get()) {
+            beanPool.release(bean);
+            destroyBean(getBeanDefinition(beanId), beanId, bean);
+        } else if (!beanPool.giveBack(bean)) {
+            destroyBean(getBeanDefinition(beanId), beanId, bean);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  关闭容器：按依赖的相反顺序销毁单例，再销毁对象池中的空闲对象，之后getBean抛出异常；
+     *        关闭后归还的池化对象直接销毁；销毁失败和超时在全部销毁结束后一起抛出
+     * @Date 2026/10/17 02:55
+     * @Return
+     **/
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        List<Throwable> failures = new ArrayList<>();
+        int destroyed = 0;
+        try {
+            destroyed = destroySingletons(this.beanDefinitionMap, ForkJoinPool.commonPool(), failures);
+        } finally {
+            for (BeanPool beanPool : this.beanPools.values()) {
+                BeanDefinition beanDefinition = getBeanDefinition(beanPool.getBeanId());
+                for (Object bean : beanPool.drain()) {
+                    destroyBean(beanDefinition, bean, failures);
+                }
             }
+        }
+        throwDestroyFailures("failed to destroy " + failures.size() + " beans, " + destroyed
+                + " singletons were destroyed", failures);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取pooled作用域bean的对象池，第一次获取时创建
+     * @Date 2026/10/16 19:52
+     * @param beanDefinition
+     * @Return {@link BeanPool}
+     **/
+    public BeanPool getBeanPool(BeanDefinition beanDefinition) {
+        BeanPool beanPool = this.beanPools.get(beanDefinition.getId());
+        if (beanPool == null) {
+            int poolSize = beanDefinition.getPoolSize() > 0 ? beanDefinition.getPoolSize() : DEFAULT_POOL_SIZE;
+            beanPool = this.beanPools.computeIfAbsent(beanDefinition.getId(),
+                    beanId -> new BeanPool(beanId, poolSize, () -> createBean(beanDefinition)));
+        }
+        return beanPool;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  创建bean并注入依赖
+     * @Date 2026/10/16 19:55
+     * @param beanDefinition
+     * @Return {@link Object}
+     **/
+    private Object createBean(BeanDefinition beanDefinition) {
+
+        // 实例化bean
+        Object bean = createBeanInstance(beanDefinition);
+        // 单例提前暴露还没有赋值的bean，解决setter循环依赖
+        if (bean != null && beanDefinition.isSingleton()) {
+            this.addEarlySingleton(beanDefinition.getId(), bean);
+        }
+        // 给bean赋值
+        populateBean(beanDefinition, bean);
+        // 注入完成后调用init-method
+        invokeInitMethod(beanDefinition, bean);
+
+        return bean;
+    }
 
-            beanDefinition.getConstructorArguments().add(argumentName);
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取要注入的依赖，池化的bean必须显式借出和归还，不能注入到其他bean中
+     * @Date 2026/10/16 19:58
+     * @param beanId
+     * @Return {@link Object}
+     **/
+    private Object getDependency(String beanId) {
+        BeanDefinition beanDefinition = this.getBeanDefinition(beanId);
+        if (beanDefinition != null && beanDefinition.isPooled()) {
+            throw new BeansException("pooled bean '" + beanId + "' cannot be injected, borrow it with getBean and give it back with returnBean");
         }
+        return getBean(beanId);
     }
 
     /**
@@ -162,21 +258,25 @@ public class BeanContainer {
             // 使用setter创建对象
         } else {
             ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            String className = beanDefinition.getBeanClassName();
 
+            Object event = RECORDER.begin(Phase.CREATE_BEAN_INSTANCE);
             try {
-                // 通过类加载器，根据classPath得到类对象
+                // 通过类加载器，根据classPath得到类对象，编译成注入计划后缓存
                 // 直接通过类加载器加载的类，只有将.class文件加载到jvm中，不会执行static中的内容
                 // Class.forName的到的类是已经初始化完成
-                Class<?> clazz = classLoader.loadClass(className);
+                InjectionPlan plan = beanDefinition.resolveInjectionPlan(classLoader);
 
-                // 通过类对象利用反射创建Bean实例
-                return clazz.newInstance();
+                // 通过实例化策略编译好的无参构造器创建Bean实例
+                return plan.getInstantiator(this.instantiationStrategy).instantiate(BeanInstantiator.NO_ARGS);
+            } catch (BeansException e) {
+                throw e;
             } catch (Exception e) {
-                e.printStackTrace();
+                throw new BeansException("failed to instantiate bean '" + beanDefinition.getId() + "'", e);
+            } finally {
+                if (event != null) {
+                    RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+                }
             }
-
-            return null;
         }
     }
 
@@ -189,35 +289,25 @@ public class BeanContainer {
     **/
     private Object autowireConstructor(final BeanDefinition beanDefinition) {
 
-        // 代表最终匹配的Constructor对象
-        Constructor<?> constructor = null;
-        // 代表将依赖注入的对象
-        Object[] args = null;
-
+        Object event = RECORDER.begin(Phase.AUTOWIRE_CONSTRUCTOR);
         try {
-            Class<?> clazz = Thread.currentThread().getContextClassLoader().loadClass(beanDefinition.getBeanClassName());
-
-            // 通过反射回去当前类的所有Constructor对象
-            Constructor<?>[] constructors = clazz.getDeclaredConstructors();
-            for (int i = 0; i < constructors.length; i++) {
-                Class<?>[] parameterTypes = constructors[i].getParameterTypes();
-                if (parameterTypes.length != beanDefinition.getConstructorArguments().size()) {
-                    continue;
-                }
+            // 注入计划中已经匹配好参数数量相同的构造器
+            InjectionPlan plan = beanDefinition.resolveInjectionPlan(Thread.currentThread().getContextClassLoader());
 
-                // 参数数量与扫描到的构造器参数数量相同
-                // 设置构造方法参数实例
-                args = new Object[parameterTypes.length];
-                valuesMatchTypes(beanDefinition.getConstructorArguments(), args);
-                constructor = constructors[i];
-                break;
-            }
+            // 设置构造方法参数实例
+            Object[] args = new Object[plan.getConstructorArgumentCount()];
+            valuesMatchTypes(plan, args);
 
             // 使用带有参数的构造方法对象实现实例化Bean
-            return constructor.newInstance(args);
+            return plan.getInstantiator(this.instantiationStrategy).instantiate(args);
+        } catch (BeansException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+            throw new BeansException("failed to instantiate bean '" + beanDefinition.getId() + "'", e);
+        } finally {
+            if (event != null) {
+                RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+            }
         }
     }
 
@@ -225,13 +315,13 @@ public class BeanContainer {
          * @Auther zhutouasan
          * @Desc  给每个属性赋值
          * @Date 2023/7/7 17:22
-         * @param constructorArgs 构造器参数
+         * @param plan 注入计划
             @param args 实参
          * @Return
     **/
-    private void valuesMatchTypes(List<String> constructorArgs, Object[] args) {
-        for (int i = 0; i < constructorArgs.size(); i++) {
-            Object argBean = getBean(constructorArgs.get(i));
+    private void valuesMatchTypes(InjectionPlan plan, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            Object argBean = getDependency(plan.getConstructorArgument(i));
             args[i] = argBean;
         }
     }
@@ -244,43 +334,29 @@ public class BeanContainer {
     **/
     public void populateBean(BeanDefinition beanDefinition, Object bean) {
 
-        // 获取bean的变量名
-        List<String> propertyNames = beanDefinition.getPropertyNames();
-
+        Object event = RECORDER.begin(Phase.POPULATE_BEAN);
         try {
-            // 通过反射获取当前类所有的方法信息（使用Method）
-            Method[] methods = bean.getClass().getDeclaredMethods();
-
-            // 配对
-            for (String propertyName : propertyNames) {
-                for (Method method : methods) {
-                    if (method.getName().equals("set" + upperCaseFirstChar(propertyName))) {
+            // 注入计划中已经按属性名配对好setter，直接按顺序注入
+            InjectionPlan plan = beanDefinition.resolveInjectionPlan(Thread.currentThread().getContextClassLoader());
+            for (int i = 0; i < plan.getPropertyCount(); i++) {
 
-                        // 获得方法参数实例
-                        Object properyBean = getBean(propertyName);
+                // 获得方法参数实例
+                Object propertyBean = getDependency(plan.getPropertyName(i));
 
-                        // 通过反射执行调用setter()方法
-                        method.invoke(bean, properyBean);
-                        break;
-                    }
-                }
+                // 通过实例化策略编译好的访问器调用setter()方法
+                plan.getInjector(this.instantiationStrategy, i).inject(bean, propertyBean);
             }
+            // 字面值属性
+            injectPropertyValues(beanDefinition, plan, this.instantiationStrategy, bean);
+        } catch (BeansException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
+            throw new BeansException("failed to populate bean '" + beanDefinition.getId() + "'", e);
+        } finally {
+            if (event != null) {
+                RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+            }
         }
     }
 
-    /**
-         * @Auther zhutouasan
-         * @Desc  将字符串第一个字符大写
-         * @Date 2023/7/7 17:48
-         * @param propertyName
-         * @Return {@link String}
-    **/
-    private String upperCaseFirstChar(String propertyName) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(propertyName.substring(0, 1).toUpperCase());
-        sb.append(propertyName.substring(1));
-        return sb.toString();
-    }
 }
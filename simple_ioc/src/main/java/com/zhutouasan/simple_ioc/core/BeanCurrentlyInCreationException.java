@@ -0,0 +1,13 @@
+package com.zhutouasan.simple_ioc.core;
+
+/**
+ * @desc： 获取的bean正在创建中，说明bean之间存在无法解决的循环依赖
+ * @author: zhutouasan
+ * @date： 2026/10/16 17:06
+ */
+public class BeanCurrentlyInCreationException extends BeansException {
+
+    public BeanCurrentlyInCreationException(String beanId, String message) {
+        super("error creating bean '" + beanId + "': " + message);
+    }
+}
@@ -0,0 +1,303 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * @desc： 解析后的BeanDefinition的二进制快照，用于短生命周期的JVM跳过xml解析
+ *          文件头记录源xml的长度和CRC32，源文件变化后快照自动失效；
+ *          字符串（类名、beanId）只存一次，bean中保存字符串表的下标；
+ *          读取时通过内存映射访问文件，整个payload另有CRC32校验，损坏或版本不符的快照直接忽略
+ *
+ *          格式（大端）：
+ *          magic(int) version(int) sourceLength(long) sourceCrc(int) payloadLength(int) payloadCrc(int)
+ *          payload: stringCount(int) [length(int) utf8]... beanCount(int)
+ *                   [id(int) class(int) scope(byte) lazyInit(byte) poolSize(int) initMethod(int) asyncInit(byte) destroyMethod(int)
+ *                    argCount(int) [arg(int)]... propertyCount(int) [name(int)]... valueCount(int) [name(int) value(int)]...]...
+ *                   importCount(int) [resource(int)]...
+ * @author: zhutouasan
+ * @date： 2026/10/16 21:00
+ */
+public final class BeanDefinitionSnapshot {
+
+    // 设置该系统属性后，容器把快照保存在这个目录中
+    public static final String SNAPSHOT_DIRECTORY_PROPERTY = "simple_ioc.snapshot.dir";
+
+    private static final int MAGIC = 0x53494F43;
+
+    private static final int VERSION = 6;
+
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 4 + 4 + 4;
+
+    private static final String[] SCOPES = {
+            BeanDefinition.SCOPE_SINGLETON, BeanDefinition.SCOPE_PROTOTYPE, BeanDefinition.SCOPE_POOLED,
+            BeanDefinition.SCOPE_THREAD, BeanDefinition.SCOPE_TASK
+    };
+
+    private BeanDefinitionSnapshot() {
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  系统属性中配置的快照目录，没有配置时为null，表示不使用快照
+     * @Date 2026/10/16 21:02
+     * @Return {@link Path}
+     **/
+    public static Path defaultDirectory() {
+        String directory = System.getProperty(SNAPSHOT_DIRECTORY_PROPERTY);
+        return directory == null || directory.isEmpty() ? null : Paths.get(directory);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  读取快照，文件不存在、损坏或与源xml不一致时返回false，beanDefinitionMap不会被修改
+     * @Date 2026/10/16 21:06
+     * @param file 快照文件
+     * @param sourceLength 源xml的字节数
+     * @param sourceCrc 源xml的CRC32
+     * @param beanDefinitionMap
+     * @Return {@link boolean}
+     **/
+    public static boolean read(Path file, long sourceLength, int sourceCrc, Map<String, BeanDefinition> beanDefinitionMap) throws IOException {
+        return read(file, sourceLength, sourceCrc, beanDefinitionMap, new ArrayList<>());
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  读取快照，同时读取xml中import的resource，失败时两个集合都不会被修改
+     * @Date 2026/10/17 00:05
+     * @param file 快照文件
+     * @param sourceLength 源xml的字节数
+     * @param sourceCrc 源xml的CRC32
+     * @param beanDefinitionMap
+     * @param imports
+     * @Return {@link boolean}
+     **/
+    public static boolean read(Path file, long sourceLength, int sourceCrc, Map<String, BeanDefinition> beanDefinitionMap,
+                               List<String> imports) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+                return false;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getLong() != sourceLength || buffer.getInt() != sourceCrc) {
+            return false;
+        }
+        int payloadLength = buffer.getInt();
+        int payloadCrc = buffer.getInt();
+        if (payloadLength != buffer.remaining()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != payloadCrc) {
+            return false;
+        }
+
+        try {
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int beanCount = buffer.getInt();
+            // 保持写入时的顺序，与直接解析xml得到的注册顺序相同
+            Map<String, BeanDefinition> beans = new LinkedHashMap<>(beanCount * 2);
+            for (int i = 0; i < beanCount; i++) {
+                BeanDefinition beanDefinition = new BeanDefinition(strings[buffer.getInt()], string(strings, buffer.getInt()));
+                beanDefinition.setScope(SCOPES[buffer.get()]);
+                beanDefinition.setLazyInit(buffer.get() != 0);
+                beanDefinition.setPoolSize(buffer.getInt());
+                beanDefinition.setInitMethodName(string(strings, buffer.getInt()));
+                beanDefinition.setAsyncInit(buffer.get() != 0);
+                beanDefinition.setDestroyMethodName(string(strings, buffer.getInt()));
+                for (int j = buffer.getInt(); j > 0; j--) {
+                    beanDefinition.getConstructorArguments().add(strings[buffer.getInt()]);
+                }
+                for (int j = buffer.getInt(); j > 0; j--) {
+                    beanDefinition.getPropertyNames().add(strings[buffer.getInt()]);
+                }
+                for (int j = buffer.getInt(); j > 0; j--) {
+                    beanDefinition.addPropertyValue(strings[buffer.getInt()], strings[buffer.getInt()]);
+                }
+                beans.put(beanDefinition.getId(), beanDefinition);
+            }
+            List<String> resources = new ArrayList<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                resources.add(strings[buffer.getInt()]);
+            }
+            beanDefinitionMap.putAll(beans);
+            imports.addAll(resources);
+            return true;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            // CRC正确但内容不符合格式，只可能是不同版本写出的文件
+            return false;
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  写入快照，先写临时文件再替换，读取方不会看到写了一半的文件
+     * @Date 2026/10/16 21:10
+     * @param file 快照文件
+     * @param sourceLength 源xml的字节数
+     * @param sourceCrc 源xml的CRC32
+     * @param beanDefinitions
+     * @Return
+     **/
+    public static void write(Path file, long sourceLength, int sourceCrc, Collection<BeanDefinition> beanDefinitions) throws IOException {
+        write(file, sourceLength, sourceCrc, beanDefinitions, Collections.<String>emptyList());
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  写入快照，同时保存xml中import的resource
+     * @Date 2026/10/17 00:06
+     * @param file 快照文件
+     * @param sourceLength 源xml的字节数
+     * @param sourceCrc 源xml的CRC32
+     * @param beanDefinitions
+     * @param imports
+     * @Return
+     **/
+    public static void write(Path file, long sourceLength, int sourceCrc, Collection<BeanDefinition> beanDefinitions,
+                             List<String> imports) throws IOException {
+        Map<String, Integer> index = new HashMap<>(beanDefinitions.size() * 4);
+        List<byte[]> strings = new ArrayList<>(beanDefinitions.size() * 2);
+        int payloadLength = 4 + 4 + 4 + 4 * imports.size();
+        for (String resource : imports) {
+            payloadLength += intern(resource, index, strings);
+        }
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            payloadLength += 4 + 4 + 1 + 1 + 4 + 4 + 1 + 4 + 4 + 4 + 4
+                    + 4 * (beanDefinition.getConstructorArguments().size() + beanDefinition.getPropertyNames().size())
+                    + 8 * beanDefinition.getValuePropertyNames().size();
+            payloadLength += intern(beanDefinition.getId(), index, strings);
+            payloadLength += intern(beanDefinition.getBeanClassName(), index, strings);
+            payloadLength += intern(beanDefinition.getInitMethodName(), index, strings);
+            payloadLength += intern(beanDefinition.getDestroyMethodName(), index, strings);
+            for (String argument : beanDefinition.getConstructorArguments()) {
+                payloadLength += intern(argument, index, strings);
+            }
+            for (String propertyName : beanDefinition.getPropertyNames()) {
+                payloadLength += intern(propertyName, index, strings);
+            }
+            for (int i = 0; i < beanDefinition.getValuePropertyNames().size(); i++) {
+                payloadLength += intern(beanDefinition.getValuePropertyNames().get(i), index, strings);
+                payloadLength += intern(beanDefinition.getPropertyValues().get(i), index, strings);
+            }
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        payload.putInt(strings.size());
+        for (byte[] bytes : strings) {
+            payload.putInt(bytes.length).put(bytes);
+        }
+        payload.putInt(beanDefinitions.size());
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            payload.putInt(index.get(beanDefinition.getId()));
+            payload.putInt(beanDefinition.getBeanClassName() == null ? -1 : index.get(beanDefinition.getBeanClassName()));
+            payload.put(scopeIndex(beanDefinition));
+            payload.put((byte) (beanDefinition.isLazyInit() ? 1 : 0));
+            payload.putInt(beanDefinition.getPoolSize());
+            payload.putInt(beanDefinition.getInitMethodName() == null ? -1 : index.get(beanDefinition.getInitMethodName()));
+            payload.put((byte) (beanDefinition.isAsyncInit() ? 1 : 0));
+            payload.putInt(beanDefinition.getDestroyMethodName() == null ? -1 : index.get(beanDefinition.getDestroyMethodName()));
+            payload.putInt(beanDefinition.getConstructorArguments().size());
+            for (String argument : beanDefinition.getConstructorArguments()) {
+                payload.putInt(index.get(argument));
+            }
+            payload.putInt(beanDefinition.getPropertyNames().size());
+            for (String propertyName : beanDefinition.getPropertyNames()) {
+                payload.putInt(index.get(propertyName));
+            }
+            payload.putInt(beanDefinition.getValuePropertyNames().size());
+            for (int i = 0; i < beanDefinition.getValuePropertyNames().size(); i++) {
+                payload.putInt(index.get(beanDefinition.getValuePropertyNames().get(i)));
+                payload.putInt(index.get(beanDefinition.getPropertyValues().get(i)));
+            }
+        }
+        payload.putInt(imports.size());
+        for (String resource : imports) {
+            payload.putInt(index.get(resource));
+        }
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sourceLength).putInt(sourceCrc)
+                .putInt(payloadLength).putInt((int) crc.getValue());
+        header.flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || payload.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, payload});
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // 第一次出现的字符串加入字符串表，返回它在payload中占用的字节数
+    private static int intern(String string, Map<String, Integer> index, List<byte[]> strings) {
+        if (string == null || index.containsKey(string)) {
+            return 0;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        index.put(string, strings.size());
+        strings.add(bytes);
+        return 4 + bytes.length;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static byte scopeIndex(BeanDefinition beanDefinition) {
+        for (byte i = 0; i < SCOPES.length; i++) {
+            if (SCOPES[i].equals(beanDefinition.getScope())) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("unknown scope " + beanDefinition.getScope());
+    }
+}
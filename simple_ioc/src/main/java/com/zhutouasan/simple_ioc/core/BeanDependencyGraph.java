@@ -0,0 +1,200 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @desc： Bean之间的依赖图，由constructorArguments和propertyNames构建，不需要加载类
+ *          按拓扑顺序把Bean分层，同一层的Bean之间没有依赖关系，可以同时创建；
+ *          存在循环依赖（或依赖了循环中的Bean）的Bean无法分层，放在unresolved中；
+ *          unresolved中互相可达的Bean组成一个循环（强连通分量），放在cycles中
+ * @author: zhutouasan
+ * @date： 2026/10/16 16:05
+ */
+public final class BeanDependencyGraph {
+
+    // beanId -> 它依赖的beanId，只包含容器中存在的Bean
+    private final Map<String, List<String>> dependencies;
+
+    // beanId -> 依赖它的beanId
+    private final Map<String, List<String>> dependents;
+
+    // 拓扑分层，第0层没有任何依赖
+    private final List<List<String>> levels;
+
+    // 处在循环中无法分层的Bean
+    private final List<String> unresolved;
+
+    // 每个循环中的Bean，只依赖了循环、自己不在循环中的Bean不在这里
+    private final List<List<String>> cycles;
+
+    private BeanDependencyGraph(Map<String, List<String>> dependencies, Map<String, List<String>> dependents,
+                                List<List<String>> levels, List<String> unresolved) {
+        this.dependencies = dependencies;
+        this.dependents = dependents;
+        this.levels = levels;
+        this.unresolved = unresolved;
+        this.cycles = findCycles(dependencies, unresolved);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  根据所有BeanDefinition构建依赖图并按Kahn算法分层
+     * @Date 2026/10/16 16:10
+     * @param beanDefinitionMap
+     * @Return {@link BeanDependencyGraph}
+     **/
+    public static BeanDependencyGraph build(Map<String, BeanDefinition> beanDefinitionMap) {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>(beanDefinitionMap.size() * 2);
+        Map<String, List<String>> dependents = new HashMap<>(beanDefinitionMap.size() * 2);
+        for (BeanDefinition beanDefinition : beanDefinitionMap.values()) {
+            Set<String> refs = new LinkedHashSet<>(beanDefinition.getConstructorArguments());
+            refs.addAll(beanDefinition.getPropertyNames());
+
+            List<String> existing = new ArrayList<>(refs.size());
+            for (String ref : refs) {
+                if (beanDefinitionMap.containsKey(ref)) {
+                    existing.add(ref);
+                    dependents.computeIfAbsent(ref, key -> new ArrayList<>()).add(beanDefinition.getId());
+                }
+            }
+            dependencies.put(beanDefinition.getId(), existing);
+        }
+
+        // 入度为0的Bean组成第一层，每处理完一层就把依赖它们的Bean的入度减一
+        Map<String, Integer> inDegree = new HashMap<>(dependencies.size() * 2);
+        List<String> current = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+            inDegree.put(entry.getKey(), entry.getValue().size());
+            if (entry.getValue().isEmpty()) {
+                current.add(entry.getKey());
+            }
+        }
+
+        List<List<String>> levels = new ArrayList<>();
+        int resolved = 0;
+        while (!current.isEmpty()) {
+            levels.add(Collections.unmodifiableList(current));
+            resolved += current.size();
+            List<String> next = new ArrayList<>();
+            for (String beanId : current) {
+                for (String dependent : dependents.getOrDefault(beanId, Collections.emptyList())) {
+                    if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            current = next;
+        }
+
+        List<String> unresolved = new ArrayList<>(dependencies.size() - resolved);
+        for (Map.Entry<String, Integer> entry : inDegree.entrySet()) {
+            if (entry.getValue() > 0) {
+                unresolved.add(entry.getKey());
+            }
+        }
+        return new BeanDependencyGraph(dependencies, dependents, Collections.unmodifiableList(levels),
+                Collections.unmodifiableList(unresolved));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  在unresolved中按Tarjan算法找出强连通分量，只有一个Bean且不依赖自己的分量不是循环
+     *        用显式的栈代替递归，很长的依赖链也不会栈溢出
+     * @Date 2026/10/17 14:10
+     * @param dependencies
+     * @param unresolved
+     * @Return {@link List}
+     **/
+    private static List<List<String>> findCycles(Map<String, List<String>> dependencies, List<String> unresolved) {
+        if (unresolved.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Integer> index = new HashMap<>(unresolved.size() * 2);
+        Map<String, Integer> lowLink = new HashMap<>(unresolved.size() * 2);
+        Set<String> onStack = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        List<List<String>> cycles = new ArrayList<>();
+        for (String root : unresolved) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            // 每一帧是一个Bean和下一个要访问的依赖的位置
+            Deque<Object[]> frames = new ArrayDeque<>();
+            frames.push(new Object[]{root, 0});
+            index.put(root, index.size());
+            lowLink.put(root, index.get(root));
+            stack.push(root);
+            onStack.add(root);
+            while (!frames.isEmpty()) {
+                Object[] frame = frames.peek();
+                String beanId = (String) frame[0];
+                List<String> refs = dependencies.get(beanId);
+                int next = (Integer) frame[1];
+                if (next < refs.size()) {
+                    frame[1] = next + 1;
+                    String ref = refs.get(next);
+                    if (!index.containsKey(ref)) {
+                        index.put(ref, index.size());
+                        lowLink.put(ref, index.get(ref));
+                        stack.push(ref);
+                        onStack.add(ref);
+                        frames.push(new Object[]{ref, 0});
+                    } else if (onStack.contains(ref)) {
+                        lowLink.put(beanId, Math.min(lowLink.get(beanId), index.get(ref)));
+                    }
+                    continue;
+                }
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    String parent = (String) frames.peek()[0];
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(beanId)));
+                }
+                if (lowLink.get(beanId).equals(index.get(beanId))) {
+                    List<String> component = new ArrayList<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(beanId));
+                    if (component.size() > 1 || refs.contains(beanId)) {
+                        cycles.add(Collections.unmodifiableList(component));
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(cycles);
+    }
+
+    public List<List<String>> getLevels() {
+        return levels;
+    }
+
+    public List<String> getUnresolved() {
+        return unresolved;
+    }
+
+    public List<List<String>> getCycles() {
+        return cycles;
+    }
+
+    public List<String> getDependencies(String beanId) {
+        return Collections.unmodifiableList(dependencies.getOrDefault(beanId, Collections.emptyList()));
+    }
+
+    public List<String> getDependents(String beanId) {
+        return Collections.unmodifiableList(dependents.getOrDefault(beanId, Collections.emptyList()));
+    }
+}
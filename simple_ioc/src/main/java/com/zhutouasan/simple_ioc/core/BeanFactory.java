@@ -1,5 +1,7 @@
 package com.zhutouasan.simple_ioc.core;
 
+import java.util.Map;
+
 /**
  * @desc： bean工厂接口
  * @author: zhutouasan
@@ -7,4 +9,39 @@ package com.zhutouasan.simple_ioc.core;
  */
 public interface BeanFactory {
     Object getBean(String beanId);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  按类型获取bean，bean不是requiredType的实例时抛出异常
+     * @Date 2026/10/16 23:30
+     * @param beanId
+     * @param requiredType 需要的类型
+     * @Return {@link T} bean没有创建成功时为null
+     **/
+    default <T> T getBean(String beanId, Class<T> requiredType) {
+        Object bean = getBean(beanId);
+        if (bean != null && !requiredType.isInstance(bean)) {
+            throw new BeansException("bean '" + beanId + "' is of type " + bean.getClass().getName()
+                    + " but " + requiredType.getName() + " was required");
+        }
+        return requiredType.cast(bean);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  按类型获取唯一的bean，requiredType可以是bean的类、父类或接口
+     * @Date 2026/10/16 23:50
+     * @param requiredType
+     * @Return {@link T} 没有这个类型的bean时抛出BeansException，有多个时抛出NoUniqueBeanDefinitionException
+     **/
+    <T> T getBean(Class<T> requiredType);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取类型为type的所有bean
+     * @Date 2026/10/16 23:51
+     * @param type
+     * @Return {@link Map} beanId -> bean，没有时为空
+     **/
+    <T> Map<String, T> getBeansOfType(Class<T> type);
 }
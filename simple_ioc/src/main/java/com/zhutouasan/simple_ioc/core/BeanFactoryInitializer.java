@@ -0,0 +1,171 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+/**
+ * @desc： 构建期根据xml生成的Bean工厂初始化器，由simple_ioc-maven-plugin生成
+ *          容器在classpath上找到与配置文件对应的初始化器时，不再解析xml，也不再通过反射创建和注入Bean，
+ *          生成的代码直接调用构造器和setter；依赖了同一个配置中延迟初始化单例的bean不生成代码，
+ *          由ClassPathXmlApplicationContext按普通方式创建，这样接口类型的依赖仍然注入LazyBeanProxy；
+ *          初始化器记录生成时xml内容的摘要，classpath上的xml与摘要不一致（xml修改后没有重新生成）时不使用初始化器，退回到xml解析
+ * @author: zhutouasan
+ * @date： 2026/10/16 14:10
+ */
+public interface BeanFactoryInitializer {
+
+    // 生成的初始化器所在的包
+    String GENERATED_PACKAGE = "com.zhutouasan.simple_ioc.generated";
+
+    // 配置文件位置的classpath前缀，查找xml时去掉
+    String CLASSPATH_PREFIX = "classpath:";
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  注册xml中描述的所有BeanDefinition，内容与loadBeanDefinitions解析的结果一致
+     * @Date 2026/10/16 14:12
+     * @param beanDefinitionMap 容器的beanDefinitionMap
+     * @Return
+     **/
+    void registerBeanDefinitions(Map<String, BeanDefinition> beanDefinitionMap);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  直接调用构造器创建Bean，构造器参数从beanFactory获取
+     * @Date 2026/10/16 14:13
+     * @param beanId
+     * @param beanFactory 当前容器
+     * @Return {@link Object}
+     **/
+    Object instantiate(String beanId, BeanFactory beanFactory);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  直接调用setter给Bean注入属性
+     * @Date 2026/10/16 14:14
+     * @param beanId
+     * @param bean instantiate创建的对象
+     * @param beanFactory 当前容器
+     * @Return
+     **/
+    void populate(String beanId, Object bean, BeanFactory beanFactory);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  生成时xml内容的摘要（见configDigest），返回null时不检查xml是否变化
+     * @Date 2026/10/17 09:10
+     * @Return {@link String}
+     **/
+    default String getConfigDigest() {
+        return null;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  生成的代码通过该方法获取依赖，类型由构造器或setter的参数类型推断，生成时不需要加载Bean的类
+     * @Date 2026/10/16 14:16
+     * @param beanFactory
+     * @param beanId
+     * @Return {@link T}
+     **/
+    @SuppressWarnings("unchecked")
+    static <T> T ref(BeanFactory beanFactory, String beanId) {
+        return (T) beanFactory.getBean(beanId);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  根据配置文件路径推导生成的初始化器类名，beans.xml -> com.zhutouasan.simple_ioc.generated.BeansXmlBeanFactoryInitializer
+     * @Date 2026/10/16 14:18
+     * @param configFile
+     * @Return {@link String}
+     **/
+    static String initializerClassName(String configFile) {
+        return GENERATED_PACKAGE + "." + initializerSimpleName(configFile);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  初始化器的类名（不含包名），config/app-beans.xml -> ConfigAppBeansXmlBeanFactoryInitializer
+     *        simple_ioc-maven-plugin生成代码时也使用这个方法，两边的命名规则不会不一致
+     * @Date 2026/10/17 09:12
+     * @param configFile
+     * @Return {@link String}
+     **/
+    static String initializerSimpleName(String configFile) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : configFile.split("[^A-Za-z0-9]+")) {
+            if (!part.isEmpty()) {
+                sb.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+            }
+        }
+        if (sb.length() == 0 || !Character.isJavaIdentifierStart(sb.charAt(0))) {
+            sb.insert(0, "Config");
+        }
+        return sb + "BeanFactoryInitializer";
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  计算xml内容的SHA-256摘要（十六进制），生成时记录在初始化器中，查找初始化器时与classpath上的xml比较
+     * @Date 2026/10/17 09:15
+     * @param inputStream xml内容，不会被关闭
+     * @Return {@link String}
+     **/
+    static String configDigest(InputStream inputStream) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        StringBuilder sb = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  查找配置文件对应的初始化器，classpath上不存在，或者classpath上的xml与生成时的摘要不一致时返回null，容器退回到xml解析；
+     *        xml不在classpath上时直接使用初始化器；初始化器存在但无法创建或xml无法读取时抛出BeansException，不退回到xml解析
+     * @Date 2026/10/16 14:20
+     * @param configFile
+     * @Return {@link BeanFactoryInitializer}
+     **/
+    static BeanFactoryInitializer find(String configFile) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        String className = initializerClassName(configFile);
+        try {
+            Class<?> clazz = Class.forName(className, true, classLoader);
+            BeanFactoryInitializer initializer = (BeanFactoryInitializer) clazz.getDeclaredConstructor().newInstance();
+
+            // 没有记录摘要或xml不在classpath上时直接使用
+            String expected = initializer.getConfigDigest();
+            String path = configFile.startsWith(CLASSPATH_PREFIX) ? configFile.substring(CLASSPATH_PREFIX.length()) : configFile;
+            URL resource = expected == null ? null : classLoader.getResource(path.startsWith("/") ? path.substring(1) : path);
+            if (resource == null) {
+                return initializer;
+            }
+            try (InputStream inputStream = resource.openStream()) {
+                return expected.equals(configDigest(inputStream)) ? initializer : null;
+            }
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Exception | LinkageError e) {
+            throw new BeansException("could not use bean factory initializer " + className + " for " + configFile + ": " + e, e);
+        }
+    }
+}
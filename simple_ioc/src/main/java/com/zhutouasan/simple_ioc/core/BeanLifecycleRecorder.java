@@ -0,0 +1,137 @@
+package com.zhutouasan.simple_ioc.core;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * @desc： 容器在getBean、createBeanInstance、autowireConstructor、populateBean中记录事件的扩展点，启动完成时通过startupCompleted报告统计信息，
+ *          BeanDefinition快照读写失败时通过snapshotFailed报告
+ *          实现类通过ServiceLoader在第一次使用时查找一次，例如simple_ioc_jfr中基于JFR的实现；
+ *          classpath上没有实现时使用NONE，begin直接返回null，JIT内联后几乎没有开销
+ *          调用方式：
+ *          Object event = recorder.begin(phase);
+ *          ...
+ *          if (event != null) recorder.commit(event, beanId, beanClassName, cacheHit);
+ * @author: zhutouasan
+ * @date： 2026/10/16 22:50
+ */
+public interface BeanLifecycleRecorder {
+
+    /**
+     * @desc： 记录事件的位置，每种事件可以单独开启
+     */
+    enum Phase {
+        // 一次getBean，包括单例缓存命中
+        GET_BEAN,
+        // 通过无参构造器实例化，有constructor-arg时记录为AUTOWIRE_CONSTRUCTOR
+        CREATE_BEAN_INSTANCE,
+        // 通过带参数的构造器实例化，包括获取构造器参数
+        AUTOWIRE_CONSTRUCTOR,
+        // 通过setter注入属性，包括获取属性依赖
+        POPULATE_BEAN
+    }
+
+    // 不记录任何事件
+    BeanLifecycleRecorder NONE = new BeanLifecycleRecorder() {
+        @Override
+        public Object begin(Phase phase) {
+            return null;
+        }
+
+        @Override
+        public void commit(Object event, String beanId, String beanClassName, boolean cacheHit) {
+        }
+    };
+
+    // 查找实现时最多容忍的失败次数
+    int MAX_LOAD_FAILURES = 16;
+
+    // 容器使用的记录器
+    BeanLifecycleRecorder CURRENT = load();
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  开始一个事件，这种事件没有开启时返回null，调用方不再做任何记录
+     * @Date 2026/10/16 22:52
+     * @param phase
+     * @Return {@link Object} 事件对象，传给commit
+     **/
+    Object begin(Phase phase);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  结束并提交事件
+     * @Date 2026/10/16 22:53
+     * @param event begin返回的事件对象
+     * @param beanId
+     * @param beanClassName
+     * @param cacheHit 只对GET_BEAN有意义，单例已经存在时为true
+     * @Return
+     **/
+    void commit(Object event, String beanId, String beanClassName, boolean cacheHit);
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  容器启动完成，所有单例都已创建并初始化；容器本身不输出启动报告，需要时在这里记录，也可以通过getStartupReport获取
+     * @Date 2026/10/17 09:40
+     * @param configFile 容器的配置位置
+     * @param report 启动报告
+     * @Return
+     **/
+    default void startupCompleted(String configFile, StartupReport report) {
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  BeanDefinition快照读取或写入失败，配置仍然从xml解析，只是没有加速
+     * @Date 2026/10/17 11:10
+     * @param resource 配置文件
+     * @param snapshot 快照文件
+     * @param cause 失败原因
+     * @Return
+     **/
+    default void snapshotFailed(URL resource, Path snapshot, IOException cause) {
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  通过ServiceLoader查找第一个可用的实现，实现依赖的类不存在时（例如在没有JFR的JVM上）跳过它
+     *        服务配置文件无法读取时迭代器不会前进，每次都抛出同样的错误：hasNext出错时直接使用NONE，
+     *        新版本JDK把这类错误推迟到next抛出，所以连续失败MAX_LOAD_FAILURES次后也不再尝试
+     * @Date 2026/10/16 22:55
+     * @Return {@link BeanLifecycleRecorder}
+     **/
+    static BeanLifecycleRecorder load() {
+        return load(BeanLifecycleRecorder.class.getClassLoader());
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  从classLoader查找实现，规则同load()
+     * @Date 2026/10/17 10:10
+     * @param classLoader
+     * @Return {@link BeanLifecycleRecorder}
+     **/
+    static BeanLifecycleRecorder load(ClassLoader classLoader) {
+        Iterator<BeanLifecycleRecorder> iterator = ServiceLoader.load(BeanLifecycleRecorder.class, classLoader).iterator();
+        for (int failures = 0; failures < MAX_LOAD_FAILURES; failures++) {
+            try {
+                if (!iterator.hasNext()) {
+                    return NONE;
+                }
+            } catch (ServiceConfigurationError e) {
+                return NONE;
+            }
+            try {
+                return iterator.next();
+            } catch (ServiceConfigurationError | LinkageError e) {
+                // 通常是这个实现无法加载，迭代器已经越过它，继续尝试下一个
+            }
+        }
+        return NONE;
+    }
+}
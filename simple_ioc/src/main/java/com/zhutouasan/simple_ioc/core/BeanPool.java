@@ -0,0 +1,234 @@
+package com.zhutouasan.simple_ioc.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * @desc： pooled作用域的对象池，最多管理capacity个对象
+ *          每个槽位固定保存一个由池管理的对象和它的状态（空、空闲、借出），借出和归还都是对状态的CAS，
+ *          每个线程从自己的哈希位置开始查找，没有全局锁，也不为每次借出分配记录对象；
+ *          池中没有空闲对象时直接创建新对象，不会阻塞调用方，槽位都被占用时新对象不归池管理，归还时由容器销毁
+ *          只能归还借出中的对象：池管理的对象按槽位状态判断，重复归还会抛出异常，
+ *          否则同一个对象可能被两个调用方同时借到；池外的对象只按借出的数量判断，没有借出时归还抛出异常
+ * @author: zhutouasan
+ * @date： 2026/10/16 19:20
+ */
+public final class BeanPool {
+
+    private static final int EMPTY = 0;
+
+    private static final int IDLE = 1;
+
+    private static final int BORROWED = 2;
+
+    // 槽位正在创建或移除对象，其他线程不能使用
+    private static final int RESERVED = 3;
+
+    private final String beanId;
+
+    // 每个槽位管理的对象，只有持有RESERVED状态的线程可以修改
+    private final AtomicReferenceArray<Object> members;
+
+    private final AtomicIntegerArray states;
+
+    private final Supplier<Object> factory;
+
+    // 借出中的池外对象数量
+    private final AtomicInteger overflowBorrowed = new AtomicInteger();
+
+    private final LongAdder created = new LongAdder();
+
+    private final LongAdder reused = new LongAdder();
+
+    public BeanPool(String beanId, int capacity, Supplier<Object> factory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("pool size of bean " + beanId + " must be positive");
+        }
+        this.beanId = beanId;
+        this.members = new AtomicReferenceArray<>(capacity);
+        this.states = new AtomicIntegerArray(capacity);
+        this.factory = factory;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  借出一个对象，优先使用空闲对象，没有空闲对象时创建新的
+     * @Date 2026/10/16 19:25
+     * @Return {@link Object}
+     **/
+    public Object borrow() {
+        int length = this.states.length();
+        int start = probe(length);
+        int empty = -1;
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            int state = this.states.get(index);
+            if (state == IDLE && this.states.compareAndSet(index, IDLE, BORROWED)) {
+                this.reused.increment();
+                return this.members.get(index);
+            }
+            if (state == EMPTY && empty < 0) {
+                empty = index;
+            }
+        }
+
+        // 有空槽位时新对象由池管理，否则作为池外对象借出
+        int index = empty >= 0 && this.states.compareAndSet(empty, EMPTY, RESERVED) ? empty : -1;
+        Object bean;
+        try {
+            bean = this.factory.get();
+        } catch (RuntimeException | Error e) {
+            if (index >= 0) {
+                this.states.set(index, EMPTY);
+            }
+            throw e;
+        }
+        if (bean == null) {
+            if (index >= 0) {
+                this.states.set(index, EMPTY);
+            }
+            throw new BeansException("failed to create pooled bean '" + this.beanId + "'");
+        }
+        this.created.increment();
+        if (index >= 0) {
+            this.members.set(index, bean);
+            this.states.set(index, BORROWED);
+        } else {
+            this.overflowBorrowed.incrementAndGet();
+        }
+        return bean;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  归还对象，池已满时不放回；bean不是从这个池借出的或者已经归还过时抛出BeansException
+     * @Date 2026/10/16 19:27
+     * @param bean
+     * @Return {@link boolean} 是否放回了池中
+     **/
+    public boolean giveBack(Object bean) {
+        int index = indexOf(bean);
+        if (index >= 0) {
+            if (!this.states.compareAndSet(index, BORROWED, IDLE)) {
+                throw notBorrowed(bean);
+            }
+            return true;
+        }
+        releaseOverflow(bean);
+
+        // 池外的对象在有空槽位时转为由池管理
+        int length = this.states.length();
+        int start = probe(length);
+        for (int i = 0; i < length; i++) {
+            int empty = (start + i) % length;
+            if (this.states.get(empty) == EMPTY && this.states.compareAndSet(empty, EMPTY, RESERVED)) {
+                this.members.set(empty, bean);
+                this.states.set(empty, IDLE);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  结束借出但不放回池中，用于容器关闭后归还的对象；bean不是借出中的对象时抛出BeansException
+     * @Date 2026/10/17 09:50
+     * @param bean
+     * @Return
+     **/
+    public void release(Object bean) {
+        int index = indexOf(bean);
+        if (index < 0) {
+            releaseOverflow(bean);
+        } else if (this.states.compareAndSet(index, BORROWED, RESERVED)) {
+            this.members.set(index, null);
+            this.states.set(index, EMPTY);
+        } else {
+            throw notBorrowed(bean);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  取出所有空闲对象，容器关闭时用来销毁它们
+     * @Date 2026/10/17 02:52
+     * @Return {@link List}
+     **/
+    public List<Object> drain() {
+        List<Object> idle = new ArrayList<>(this.states.length());
+        for (int i = 0; i < this.states.length(); i++) {
+            if (this.states.compareAndSet(i, IDLE, RESERVED)) {
+                idle.add(this.members.getAndSet(i, null));
+                this.states.set(i, EMPTY);
+            }
+        }
+        return idle;
+    }
+
+    public String getBeanId() {
+        return beanId;
+    }
+
+    public int getCapacity() {
+        return this.states.length();
+    }
+
+    public long getCreatedCount() {
+        return this.created.sum();
+    }
+
+    public long getReusedCount() {
+        return this.reused.sum();
+    }
+
+    public int getBorrowedCount() {
+        int count = this.overflowBorrowed.get();
+        for (int i = 0; i < this.states.length(); i++) {
+            if (this.states.get(i) == BORROWED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 池管理的对象所在的槽位，按引用比较，池化对象自己的equals不影响判断
+    private int indexOf(Object bean) {
+        if (bean == null) {
+            return -1;
+        }
+        for (int i = 0; i < this.members.length(); i++) {
+            if (this.members.get(i) == bean) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 池外的对象只能按数量判断是否借出过
+    private void releaseOverflow(Object bean) {
+        int count;
+        do {
+            count = this.overflowBorrowed.get();
+            if (bean == null || count == 0) {
+                throw notBorrowed(bean);
+            }
+        } while (!this.overflowBorrowed.compareAndSet(count, count - 1));
+    }
+
+    private BeansException notBorrowed(Object bean) {
+        return new BeansException("object " + bean + " was not borrowed from the pool of bean '" + this.beanId
+                + "' or has already been returned");
+    }
+
+    // 不同线程从不同槽位开始查找，减少对同一个槽位的CAS竞争
+    private static int probe(int length) {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 33) % length;
+    }
+}
@@ -0,0 +1,59 @@
+package com.zhutouasan.simple_ioc.core;
+
+/**
+ * @desc： 通过ClassPathXmlApplicationContext#getBeanRef解析好的bean句柄
+ *          容器加载完BeanDefinition后给每个bean分配一个连续的下标，单例创建完成后放入对应的数组位置，
+ *          通过句柄获取已经创建好的单例只需要读一次数组，不再计算beanId的hash；
+ *          prototype和还没有创建的延迟初始化单例退回getBean(beanId)
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:32
+ */
+public final class BeanRef<T> {
+
+    private final ClassPathXmlApplicationContext context;
+
+    private final int index;
+
+    private final String beanId;
+
+    private final Class<T> requiredType;
+
+    BeanRef(ClassPathXmlApplicationContext context, int index, String beanId, Class<T> requiredType) {
+        this.context = context;
+        this.index = index;
+        this.beanId = beanId;
+        this.requiredType = requiredType;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取bean，已经创建好的单例直接从数组中读取
+     * @Date 2026/10/16 23:34
+     * @Return {@link T}
+     **/
+    public T get() {
+        Object bean = this.context.getSingleton(this.index);
+        if (this.requiredType.isInstance(bean)) {
+            return this.requiredType.cast(bean);
+        }
+        // 类型不符时由getBean抛出与按名称获取一致的异常
+        return this.context.getBean(this.beanId, this.requiredType);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getBeanId() {
+        return beanId;
+    }
+
+    public Class<T> getRequiredType() {
+        return requiredType;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanRef[" + beanId + "#" + index + ": " + requiredType.getName() + "]";
+    }
+}
@@ -0,0 +1,71 @@
+package com.zhutouasan.simple_ioc.core;
+
+/**
+ * @desc： 容器启动时一个bean各阶段的耗时，只统计这个bean自己的时间，不包括创建它依赖的bean的时间
+ *          load：加载类、编译注入计划和构造器/setter的访问器
+ *          instantiate：调用构造器
+ *          inject：调用setter
+ *          启动期间作为依赖创建的prototype可能被多个线程同时创建，所以累加方法需要同步
+ * @author: zhutouasan
+ * @date： 2026/10/16 22:30
+ */
+public final class BeanStartupMetrics {
+
+    private final String beanId;
+
+    // 在依赖图中的层数，没有依赖的bean为0，处在循环依赖中的bean为-1
+    private final int depth;
+
+    private long loadNanos;
+
+    private long instantiateNanos;
+
+    private long injectNanos;
+
+    BeanStartupMetrics(String beanId, int depth) {
+        this.beanId = beanId;
+        this.depth = depth;
+    }
+
+    synchronized void addLoadNanos(long nanos) {
+        this.loadNanos += nanos;
+    }
+
+    synchronized void addInstantiateNanos(long nanos) {
+        this.instantiateNanos += nanos;
+    }
+
+    synchronized void addInjectNanos(long nanos) {
+        this.injectNanos += nanos;
+    }
+
+    public String getBeanId() {
+        return beanId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public synchronized long getLoadNanos() {
+        return loadNanos;
+    }
+
+    public synchronized long getInstantiateNanos() {
+        return instantiateNanos;
+    }
+
+    public synchronized long getInjectNanos() {
+        return injectNanos;
+    }
+
+    public synchronized long getTotalNanos() {
+        return loadNanos + instantiateNanos + injectNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s (depth %d): %d us, load %d us, instantiate %d us, inject %d us", beanId, depth,
+                getTotalNanos() / 1000, loadNanos / 1000, instantiateNanos / 1000, injectNanos / 1000);
+    }
+}
@@ -0,0 +1,169 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanClassPreloader;
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @desc： 类型 -> beanId的索引，bean的类、所有父类和所有接口（包括父接口）都指向这个bean
+ *          容器加载完BeanDefinition后构建一次（reload后重新构建），按类型查找只查一次hash表，不再遍历BeanDefinition，也不加载类；
+ *          没有类名的bean不进入索引；类加载失败的bean也不进入索引，失败原因保存下来（见getLoadFailures），
+ *          按类型找不到bean时作为suppressed异常一起抛出，创建这个bean时再报告错误
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:40
+ */
+public final class BeanTypeIndex {
+
+    private final Map<Class<?>, List<String>> beanIdsByType;
+
+    // beanId -> 类加载失败的原因
+    private final Map<String, Throwable> loadFailures;
+
+    private BeanTypeIndex(Map<Class<?>, List<String>> beanIdsByType, Map<String, Throwable> loadFailures) {
+        this.beanIdsByType = beanIdsByType;
+        this.loadFailures = loadFailures;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  加载每个bean的类（不执行static块），登记它的整个类型层次
+     * @Date 2026/10/16 23:42
+     * @param beanDefinitionMap
+     * @param classLoader 加载bean的类加载器
+     * @Return {@link BeanTypeIndex}
+     **/
+    public static BeanTypeIndex build(Map<String, BeanDefinition> beanDefinitionMap, ClassLoader classLoader) {
+        return build(beanDefinitionMap, beanDefinition -> Class.forName(beanDefinition.getBeanClassName(), false, classLoader));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  使用后台预加载的类构建索引，不在当前线程重复加载
+     * @Date 2026/10/17 01:15
+     * @param beanDefinitionMap
+     * @param preloader 已经提交了这些bean的类
+     * @Return {@link BeanTypeIndex}
+     **/
+    public static BeanTypeIndex build(Map<String, BeanDefinition> beanDefinitionMap, BeanClassPreloader preloader) {
+        return build(beanDefinitionMap, preloader::loadClass);
+    }
+
+    private static BeanTypeIndex build(Map<String, BeanDefinition> beanDefinitionMap, ClassResolver resolver) {
+        Map<Class<?>, List<String>> index = new HashMap<>(beanDefinitionMap.size() * 4);
+        Map<String, Throwable> loadFailures = new LinkedHashMap<>();
+        for (BeanDefinition beanDefinition : beanDefinitionMap.values()) {
+            if (beanDefinition.getBeanClassName() == null) {
+                continue;
+            }
+            Class<?> beanClass;
+            try {
+                beanClass = resolver.resolve(beanDefinition);
+            } catch (ClassNotFoundException | LinkageError e) {
+                loadFailures.put(beanDefinition.getId(), e);
+                continue;
+            }
+            for (Class<?> type : typeHierarchy(beanClass)) {
+                index.computeIfAbsent(type, key -> new ArrayList<>(1)).add(beanDefinition.getId());
+            }
+        }
+        for (Map.Entry<Class<?>, List<String>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return new BeanTypeIndex(index, Collections.unmodifiableMap(loadFailures));
+    }
+
+    // 获取bean的类
+    private interface ClassResolver {
+        Class<?> resolve(BeanDefinition beanDefinition) throws ClassNotFoundException;
+    }
+
+    // 类本身、所有父类和所有接口
+    private static Set<Class<?>> typeHierarchy(Class<?> beanClass) {
+        Set<Class<?>> types = new HashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(beanClass);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.pop();
+            if (!types.add(type)) {
+                continue;
+            }
+            if (type.getSuperclass() != null) {
+                pending.push(type.getSuperclass());
+            }
+            for (Class<?> anInterface : type.getInterfaces()) {
+                pending.push(anInterface);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  类型为type的所有beanId
+     * @Date 2026/10/16 23:44
+     * @param type
+     * @Return {@link List} 没有时为空列表
+     **/
+    public List<String> getBeanIds(Class<?> type) {
+        List<String> beanIds = this.beanIdsByType.get(type);
+        return beanIds == null ? Collections.<String>emptyList() : beanIds;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  类型为type的唯一beanId，没有或者有多个时抛出异常
+     * @Date 2026/10/16 23:46
+     * @param type
+     * @Return {@link String}
+     **/
+    public String getUniqueBeanId(Class<?> type) {
+        List<String> beanIds = getBeanIds(type);
+        if (beanIds.isEmpty()) {
+            BeansException exception = new BeansException("no bean of type " + type.getName() + " is defined"
+                    + (this.loadFailures.isEmpty() ? "" : ", classes of beans " + this.loadFailures.keySet() + " could not be loaded"));
+            this.loadFailures.values().forEach(exception::addSuppressed);
+            throw exception;
+        }
+        if (beanIds.size() > 1) {
+            throw new NoUniqueBeanDefinitionException(type, beanIds);
+        }
+        return beanIds.get(0);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  构建索引时类加载失败的bean
+     * @Date 2026/10/17 10:50
+     * @Return {@link Map} beanId -> 失败原因，按加载顺序
+     **/
+    public Map<String, Throwable> getLoadFailures() {
+        return loadFailures;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取类型为type的所有bean，prototype每次都会创建新的对象
+     * @Date 2026/10/16 23:48
+     * @param beanFactory
+     * @param type
+     * @Return {@link Map} beanId -> bean
+     **/
+    public <T> Map<String, T> getBeansOfType(BeanFactory beanFactory, Class<T> type) {
+        List<String> beanIds = getBeanIds(type);
+        Map<String, T> beans = new LinkedHashMap<>(beanIds.size() * 2);
+        for (String beanId : beanIds) {
+            beans.put(beanId, beanFactory.getBean(beanId, type));
+        }
+        return beans;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zhutouasan.simple_ioc.core;
+
+/**
+ * @desc： 容器抛出的所有异常的父类
+ * @author: zhutouasan
+ * @date： 2026/10/16 17:05
+ */
+public class BeansException extends RuntimeException {
+
+    public BeansException(String message) {
+        super(message);
+    }
+
+    public BeansException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,136 +1,808 @@
 package com.zhutouasan.simple_ioc.core;
 
+import com.zhutouasan.simple_ioc.bean.BeanClassPreloader;
 import com.zhutouasan.simple_ioc.bean.BeanDefinition;
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
-import org.dom4j.Element;
-import org.dom4j.io.SAXReader;
-import org.springframework.util.StringUtils;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
-import java.util.Iterator;
+import com.zhutouasan.simple_ioc.bean.BeanInstantiator;
+import com.zhutouasan.simple_ioc.bean.InjectionPlan;
+import com.zhutouasan.simple_ioc.bean.InstantiationStrategy;
+import com.zhutouasan.simple_ioc.bean.MethodHandleInstantiationStrategy;
+import com.zhutouasan.simple_ioc.core.BeanLifecycleRecorder.Phase;
+import com.zhutouasan.simple_ioc.bean.PropertyInjector;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * @desc： Ioc容器，支持即时加载，自己创建和管理资源对象，支持基于依赖的注解
  *          优点：所有的Bean在启动的时候都进行了加载，系统运行的速度快，
  *              在系统启动的时候，可以发现系统中的配置问题
  *          缺点：把费时的操作放在系统启动中完成，所有的对象都可以预加载，缺点就是内存占用较大
+ *          配置了lazy-init（或default-lazy-init）的单例不在启动时创建，第一次getBean时才创建；
+ *          它被注入到启动时创建的bean中时，接口类型的参数注入LazyBeanProxy，第一次调用方法时才创建，
+ *          不是接口的参数无法代理，直接创建
+ *          setComponentIndexEnabled(true)后还会读取编译期生成的组件索引（见ComponentIndexReader），
+ *          组件先于xml注册，重复的id以xml为准；配置位置可以为空，只使用组件索引
+ *          开启startConfigWatcher后，配置文件变化时自动reload，只重新创建变化的bean和依赖它们的bean；
+ *          reload替换注册表时只阻塞正在第一次创建单例的线程，prototype、thread/task作用域和父容器的获取不加锁
+ *          解析配置时每得到一个bean就在startupPool上提前加载它的类（见BeanClassPreloader，不执行static块），
+ *          创建bean和构建类型索引时直接使用加载结果；
+ *          scope="thread"的bean每个线程一个，scope="task"的bean每个openTaskScope()打开的任务一个，
+ *          它们注入到单例中时单例只会持有创建它时的那个实例，应在任务中通过getBean获取；
+ *          init-method在依赖的bean都初始化完成后调用，在单例发布之前执行；async-init="true"的在startupPool上同时执行，
+ *          启动期间通过getBean或注入获取它时等待它的init-method执行完，所以依赖方（包括构造器）拿到的总是初始化完成的bean；
+ *          refresh等待所有init-method执行完（最多setInitTimeout），超时后取消还没有开始的init-method，并一次报告所有失败；
+ *          close()按依赖的相反顺序销毁单例，调用destroy-method（没有配置时调用AutoCloseable.close），
+ *          互不依赖的bean同时销毁，每个bean最多等待setDestroyTimeout；
+ *          可以指定父容器，子容器中没有定义的bean和BeanDefinition到父容器中查找，
+ *          多个子容器（例如每个租户一个）共享父容器中的单例和BeanDefinition，自己只保存各自特有的bean；
+ *          父容器在创建时确定，查找父容器只多一次hash表查找，没有加锁。子容器中的定义覆盖父容器中相同id的定义，
+ *          子容器的bean可以依赖父容器的bean，反过来不行；关闭子容器只销毁子容器自己的单例
  * @author: zhutouasan
  * @date： 2023/7/8 17:10
  */
-public class ClassPathXmlApplicationContext implements BeanFactory {
+public class ClassPathXmlApplicationContext extends DefaultSingletonBeanRegistry implements BeanFactory, AutoCloseable {
+
+    // 加载完成后冻结的注册表，只读，reload时整体替换
+    private volatile Map<String, BeanDefinition> beanDefinitionMap = FrozenBeanDefinitionRegistry.empty();
+
+    private final String[] configLocations;
+
+    // 父容器，子容器中没有的bean到这里查找，没有时为null
+    private final ClassPathXmlApplicationContext parent;
+
+    // 用于日志和异常信息的配置位置
+    private final String configFile;
+
+    private final AtomicBoolean refreshed = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // 记录getBean和bean创建过程的事件，默认不记录
+    private static final BeanLifecycleRecorder RECORDER = BeanLifecycleRecorder.CURRENT;
+
+    // 实例化策略，默认使用MethodHandle，无法编译时退回反射
+    private InstantiationStrategy instantiationStrategy = MethodHandleInstantiationStrategy.INSTANCE;
+
+    // 启动时并行创建单例使用的线程池，为null时按拓扑顺序串行创建
+    private ForkJoinPool startupPool = ForkJoinPool.commonPool();
+
+    // 构建期生成的初始化器，classpath上不存在时为null
+    private BeanFactoryInitializer beanFactoryInitializer;
+
+    // BeanDefinition快照的目录，默认读取系统属性simple_ioc.snapshot.dir，为null时每次都解析xml
+    private Path snapshotDirectory = BeanDefinitionSnapshot.defaultDirectory();
+
+    // xml中没有配置lazy-init时是否延迟初始化单例
+    private boolean defaultLazyInit;
+
+    // 是否读取@Component的组件索引
+    private boolean componentIndexEnabled;
+
+    // 解析配置时在startupPool上提前加载bean的类，startupPool为null时不预加载
+    private volatile BeanClassPreloader beanClassPreloader;
+
+    // BeanDefinition加载完成后给每个bean分配的下标，beanId -> 下标，BeanRef只在解析时查一次
+    private volatile Map<String, Integer> beanIndexes;
+
+    // 按下标存放已经创建完成的单例，供BeanRef直接读取
+    private volatile AtomicReferenceArray<Object> indexedSingletons;
+
+    // 类型 -> beanId的索引，加载完BeanDefinition后构建，reload时与beanDefinitionMap一起替换
+    private volatile BeanTypeIndex beanTypeIndex;
+
+    // 最近一次加载读取的配置文件，供hot reload检查
+    private volatile List<URL> configResources = Collections.emptyList();
+
+    // 最近一次加载中解析了xml的配置文件数和从快照读取的配置文件数，记录在启动报告中
+    private int parsedConfigCount;
+
+    private int snapshotConfigCount;
+
+    // 检查配置文件变化的线程，没有开启时为null
+    private ConfigFileWatcher configWatcher;
+
+    // reload替换BeanDefinition并移除受影响的单例时持有写锁，第一次创建单例时持有读锁，
+    // 创建中的单例不会在替换到一半时读到新的BeanDefinition和旧的依赖；父容器、prototype和thread/task作用域的获取不加锁
+    private final ReentrantReadWriteLock reloadLock = new ReentrantReadWriteLock();
 
-    private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>(64);
+    // 以这个容器为父容器、还没有关闭的子容器，reload后通知它们重新创建依赖了被替换bean的单例
+    private final Set<ClassPathXmlApplicationContext> children = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
-    // 使用ConcurrentHashMap存放所有单例Bean，String为beanId
-    private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(64);
+    // 最近一次启动的统计信息
+    private volatile StartupReport startupReport;
 
-    public ClassPathXmlApplicationContext(String configFile) {
-        loadBeanDefinitions(configFile);
-        prepareBeanRegister();
+    // 启动期间每个bean的耗时，启动完成后置为null，之后创建的prototype不再统计
+    private volatile Map<String, BeanStartupMetrics> startupMetrics;
+
+    // 启动期间每个单例的初始化结果，beanId -> 它和它的依赖都执行完init-method时完成，启动完成后置为null
+    private volatile Map<String, CompletableFuture<Void>> initializations;
+
+    // 启动时等待所有init-method执行完的最长时间
+    private long initTimeoutMillis = TimeUnit.MINUTES.toMillis(1);
+
+    // 启动时等待init-method的截止时间（System.nanoTime），从开始创建单例时算起
+    private volatile long initDeadlineNanos;
+
+    // 当前线程正在执行async-init的init-method，这时获取bean不等待其他bean的初始化，避免互相等待
+    private final ThreadLocal<Boolean> runningAsyncInit = new ThreadLocal<>();
+
+    public ClassPathXmlApplicationContext(String... configLocations) {
+        this(configLocations, true);
+    }
+
+    public ClassPathXmlApplicationContext(ClassPathXmlApplicationContext parent, String... configLocations) {
+        this(configLocations, parent, true);
+    }
+
+    public ClassPathXmlApplicationContext(String configFile, InstantiationStrategy instantiationStrategy) {
+        this(configFile, false);
+        this.instantiationStrategy = instantiationStrategy;
+        refresh();
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  refresh为false时只记录配置文件，调用setter配置容器后再手动调用refresh()
+     * @Date 2026/10/16 16:40
+     * @param configFile xml文件的路径
+     * @param refresh 是否立即加载并创建所有bean
+     * @Return
+     **/
+    public ClassPathXmlApplicationContext(String configFile, boolean refresh) {
+        this(new String[]{configFile}, refresh);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  从多个配置位置加载，位置可以是classpath通配符，规则见XmlBeanDefinitionReader
+     * @Date 2026/10/17 00:10
+     * @param configLocations xml文件的路径或通配符
+     * @param refresh 是否立即加载并创建所有bean
+     * @Return
+     **/
+    public ClassPathXmlApplicationContext(String[] configLocations, boolean refresh) {
+        this(configLocations, null, refresh);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  创建父容器为parent的子容器，子容器中没有定义的bean从父容器获取
+     * @Date 2026/10/17 03:10
+     * @param configLocations 子容器自己的xml文件的路径或通配符
+     * @param parent 父容器，为null时与没有父容器的构造器相同
+     * @param refresh 是否立即加载并创建所有bean
+     * @Return
+     **/
+    public ClassPathXmlApplicationContext(String[] configLocations, ClassPathXmlApplicationContext parent, boolean refresh) {
+        this.configLocations = configLocations.clone();
+        this.parent = parent;
+        this.configFile = configLocations.length == 0 ? ComponentIndexReader.COMPONENT_INDEX_LOCATION : String.join(",", configLocations);
+        if (parent != null) {
+            parent.children.add(this);
+        }
+        if (refresh) {
+            refresh();
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  加载BeanDefinition并创建所有单例，只能调用一次
+     * @Date 2026/10/16 16:42
+     * @Return
+     **/
+    public synchronized void refresh() {
+        if (!this.refreshed.compareAndSet(false, true)) {
+            throw new IllegalStateException("context for " + configFile + " has already been refreshed");
+        }
+
+        // 只有一个配置文件、不读取组件索引且classpath上存在构建期生成的初始化器时直接注册BeanDefinition，跳过xml解析
+        long start = System.nanoTime();
+        this.beanFactoryInitializer = this.configLocations.length == 1 && !this.componentIndexEnabled
+                ? BeanFactoryInitializer.find(this.configLocations[0]) : null;
+        Map<String, BeanDefinition> definitions = new ConcurrentHashMap<>(64);
+        if (this.beanFactoryInitializer != null) {
+            this.beanFactoryInitializer.registerBeanDefinitions(definitions);
+        } else {
+            this.beanClassPreloader = createBeanClassPreloader();
+            this.configResources = loadBeanDefinitions(this.configLocations, definitions, this.beanClassPreloader);
+        }
+        this.beanDefinitionMap = FrozenBeanDefinitionRegistry.freeze(definitions);
+        this.beanTypeIndex = buildBeanTypeIndex(this.beanDefinitionMap);
+        assignBeanIndexes();
+        prepareBeanRegister(System.nanoTime() - start);
+    }
+
+    public void setInstantiationStrategy(InstantiationStrategy instantiationStrategy) {
+        this.instantiationStrategy = instantiationStrategy;
+    }
+
+    public void setStartupPool(ForkJoinPool startupPool) {
+        this.startupPool = startupPool;
+    }
+
+    public void setInitTimeout(long timeout, TimeUnit unit) {
+        this.initTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    public void setSnapshotDirectory(Path snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    public void setDefaultLazyInit(boolean defaultLazyInit) {
+        this.defaultLazyInit = defaultLazyInit;
+    }
+
+    public void setComponentIndexEnabled(boolean componentIndexEnabled) {
+        this.componentIndexEnabled = componentIndexEnabled;
+    }
+
+    public StartupReport getStartupReport() {
+        return startupReport;
     }
 
     /**
          * @Auther zhutouasan
          * @Desc  第一次加载就注入所有bean到容器
+         *        按依赖图分层，同一层的bean互不依赖，在startupPool上同时创建，
+         *        每一层创建完再创建下一层，因此每个bean的依赖在创建它之前都已经存在，只会被创建一次；
+         *        处在循环依赖中的bean最后按原来的方式依次创建；
+         *        全部创建完后等待所有init-method执行完，init-method的耗时计入启动总耗时
          * @Date 2023/7/8 17:19
-         * @param
+         * @param parseNanos 加载BeanDefinition的耗时，记录在启动报告中
          * @Return
     **/
-    private void prepareBeanRegister() {
-        for (String beanId : beanDefinitionMap.keySet()) {
-            this.getBean(beanId);
+    private void prepareBeanRegister(long parseNanos) {
+        BeanDependencyGraph graph = BeanDependencyGraph.build(this.beanDefinitionMap);
+        registerCycles(graph);
+        boolean parallel = this.startupPool != null && this.startupPool.getParallelism() > 1;
+        LongAdder sequentialNanos = new LongAdder();
+        int maxLevelWidth = 0;
+
+        // 线程池中的线程使用与当前线程相同的类加载器加载bean
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        // 按依赖图的层数记录每个bean的深度
+        Map<String, BeanStartupMetrics> metrics = new ConcurrentHashMap<>(this.beanDefinitionMap.size() * 2);
+        for (int depth = 0; depth < graph.getLevels().size(); depth++) {
+            for (String beanId : graph.getLevels().get(depth)) {
+                metrics.put(beanId, new BeanStartupMetrics(beanId, depth));
+            }
+        }
+        for (String beanId : graph.getUnresolved()) {
+            metrics.put(beanId, new BeanStartupMetrics(beanId, -1));
+        }
+        this.startupMetrics = metrics;
+        Map<String, CompletableFuture<Void>> initializations = new ConcurrentHashMap<>(this.beanDefinitionMap.size() * 2);
+        this.initializations = initializations;
+
+        long start = System.nanoTime();
+        this.initDeadlineNanos = start + TimeUnit.MILLISECONDS.toNanos(this.initTimeoutMillis);
+        try {
+            createEagerSingletons(graph, parallel, classLoader, sequentialNanos);
+            awaitInitializations(initializations);
+        } catch (RuntimeException | Error e) {
+            // 启动失败，还没有开始的init-method不再执行，已经在执行的无法中断
+            for (CompletableFuture<Void> initialization : initializations.values()) {
+                initialization.cancel(false);
+            }
+            throw e;
+        } finally {
+            this.initializations = null;
+        }
+        for (List<String> level : graph.getLevels()) {
+            maxLevelWidth = Math.max(maxLevelWidth, level.size());
+        }
+
+        long wallNanos = System.nanoTime() - start;
+        this.startupMetrics = null;
+
+        this.startupReport = new StartupReport(this.beanDefinitionMap.size(), graph.getLevels().size(), maxLevelWidth,
+                parallel ? this.startupPool.getParallelism() : 1, parseNanos, this.parsedConfigCount, this.snapshotConfigCount,
+                wallNanos, sequentialNanos.sum(), metrics, StartupReport.criticalPath(graph, metrics));
+        RECORDER.startupCompleted(configFile, this.startupReport);
+    }
+
+    // 按依赖图逐层创建启动时需要创建的单例
+    private void createEagerSingletons(BeanDependencyGraph graph, boolean parallel, ClassLoader classLoader,
+                                       LongAdder sequentialNanos) {
+        for (List<String> level : graph.getLevels()) {
+            if (!parallel || level.size() == 1) {
+                for (String beanId : level) {
+                    timedGetBean(beanId, sequentialNanos);
+                }
+                continue;
+            }
+
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(level.size());
+            for (String beanId : level) {
+                tasks.add(this.startupPool.submit(() -> {
+                    Thread thread = Thread.currentThread();
+                    ClassLoader previous = thread.getContextClassLoader();
+                    thread.setContextClassLoader(classLoader);
+                    try {
+                        timedGetBean(beanId, sequentialNanos);
+                    } finally {
+                        thread.setContextClassLoader(previous);
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+        for (String beanId : graph.getUnresolved()) {
+            timedGetBean(beanId, sequentialNanos);
         }
     }
 
     /**
-     * @param configFile xml文件的路径
      * @Auther zhutouasan
-     * @Desc 将xml文件中对bean的描述，转换成具体的对象并存放到beanDefinitionMap
-     * @Date 2023/7/6 16:27
+     * @Desc  等待启动时的所有init-method执行完，超时或有失败时抛出异常，
+     *        异常信息中列出所有失败的init-method（每个失败只列一次，依赖它而没有执行的bean不重复列出）和超时时还没有完成的bean
+     *        超时从开始创建单例时算起；超时后由调用方取消还没有开始的init-method，还在执行的不会被中断
+     * @Date 2026/10/17 02:10
+     * @param initializations
      * @Return
      **/
-    private void loadBeanDefinitions(String configFile) {
-        InputStream inputStream = null;
+    private void awaitInitializations(Map<String, CompletableFuture<Void>> initializations) {
+        List<String> unfinished = new ArrayList<>();
         try {
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            inputStream = classLoader.getResourceAsStream(configFile);
-
-            SAXReader reader = new SAXReader();
-            Document doc = reader.read(inputStream);
-            // <beans>
-            Element root = doc.getRootElement();
-            Iterator<Element> iterator = root.elementIterator();
-
-            // 实例化容器中的类
-            while (iterator.hasNext()) {
-                Element next = iterator.next();
-                String id = next.attributeValue("id");
-                String beanClassName = next.attributeValue("class");
-                BeanDefinition beanDefinition = new BeanDefinition(id, beanClassName);
-                parseConstructorArgElement(next, beanDefinition);
-                parsePropertyElement(next, beanDefinition);
-                this.beanDefinitionMap.put(id, beanDefinition);
-            }
-        } catch (DocumentException e) {
-            e.printStackTrace();
-        } finally {
-            if (inputStream != null) {
+            CompletableFuture.allOf(initializations.values().toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(0, this.initDeadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return;
+        } catch (TimeoutException e) {
+            for (Map.Entry<String, CompletableFuture<Void>> entry : initializations.entrySet()) {
+                if (!entry.getValue().isDone()) {
+                    unfinished.add(entry.getKey());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeansException("interrupted while waiting for init-methods of " + configFile, e);
+        } catch (ExecutionException e) {
+            // 下面统一收集所有失败
+        }
+
+        // 依赖失败的bean得到的是同一个异常对象，按对象去重
+        Set<Throwable> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CompletableFuture<Void> initialization : initializations.values()) {
+            if (initialization.isCompletedExceptionally()) {
                 try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
+                    initialization.join();
+                } catch (CompletionException e) {
+                    failures.add(e.getCause());
                 }
             }
         }
+
+        StringBuilder message = new StringBuilder(configFile).append(": ");
+        if (!unfinished.isEmpty()) {
+            message.append("init-methods of ").append(unfinished).append(" did not finish within ")
+                    .append(this.initTimeoutMillis).append(" ms");
+        }
+        if (!failures.isEmpty()) {
+            message.append(unfinished.isEmpty() ? "" : "; ").append(failures.size()).append(" init-method(s) failed");
+            for (Throwable failure : failures) {
+                message.append("; ").append(failure.getMessage());
+            }
+        }
+        BeansException exception = new BeansException(message.toString());
+        for (Throwable failure : failures) {
+            exception.addSuppressed(failure);
+        }
+        throw exception;
+    }
+
+    // startupPool为null时不预加载，类在创建bean时由当前线程加载
+    private BeanClassPreloader createBeanClassPreloader() {
+        return this.startupPool == null ? null
+                : new BeanClassPreloader(Thread.currentThread().getContextClassLoader(), this.startupPool);
+    }
+
+    // 有预加载器时直接取它加载的类，不在当前线程重复加载
+    private BeanTypeIndex buildBeanTypeIndex(Map<String, BeanDefinition> beanDefinitionMap) {
+        BeanClassPreloader preloader = this.beanClassPreloader;
+        return preloader == null ? BeanTypeIndex.build(beanDefinitionMap, Thread.currentThread().getContextClassLoader())
+                : BeanTypeIndex.build(beanDefinitionMap, preloader);
     }
 
     /**
      * @Auther zhutouasan
-     * @Desc  获取构造方法的参数名
-     * @Date 2023/7/7 12:24
-     * @param beanElem 标签信息
-     @param beanDefinition 类信息类
-      * @Return
+     * @Desc  获取bean的注入计划，优先使用后台预加载的类，加载失败时异常中包含beanId和原因
+     * @Date 2026/10/17 01:20
+     * @param beanDefinition
+     * @Return {@link InjectionPlan}
+     **/
+    private InjectionPlan resolveInjectionPlan(BeanDefinition beanDefinition) throws ClassNotFoundException {
+        BeanClassPreloader preloader = this.beanClassPreloader;
+        return preloader == null ? beanDefinition.resolveInjectionPlan(Thread.currentThread().getContextClassLoader())
+                : beanDefinition.resolveInjectionPlan(preloader);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  BeanDefinition不再变化后，按注册顺序给每个bean分配连续的下标
+     *        reload时已有的bean保留原来的下标，新增的bean排在后面，已经解析的BeanRef仍然有效
+     * @Date 2026/10/16 23:36
+     * @Return
+     **/
+    private void assignBeanIndexes() {
+        Map<String, Integer> previous = this.beanIndexes;
+        Map<String, Integer> indexes = previous == null
+                ? new HashMap<>(this.beanDefinitionMap.size() * 2) : new HashMap<>(previous);
+        for (String beanId : this.beanDefinitionMap.keySet()) {
+            indexes.putIfAbsent(beanId, indexes.size());
+        }
+
+        // 以单例注册表为准重新填充，替换数组期间创建的单例只会走一次慢路径
+        AtomicReferenceArray<Object> singletons = new AtomicReferenceArray<>(indexes.size());
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            singletons.set(entry.getValue(), this.getSingleton(entry.getKey()));
+        }
+        this.indexedSingletons = singletons;
+        this.beanIndexes = indexes;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  把beanId解析成句柄，之后通过句柄获取单例不再查找hash表
+     * @Date 2026/10/16 23:38
+     * @param beanId
+     * @param requiredType 需要的类型，通过句柄获取时检查
+     * @Return {@link BeanRef}
+     **/
+    public <T> BeanRef<T> getBeanRef(String beanId, Class<T> requiredType) {
+        Map<String, Integer> indexes = this.beanIndexes;
+        if (indexes == null) {
+            throw new BeansException("context for " + configFile + " has not been refreshed");
+        }
+        // reload删除的bean保留下标但已经没有BeanDefinition
+        Integer index = indexes.get(beanId);
+        if ((index == null || !this.beanDefinitionMap.containsKey(beanId)) && this.parent != null) {
+            return this.parent.getBeanRef(beanId, requiredType);
+        }
+        if (index == null || !this.beanDefinitionMap.containsKey(beanId)) {
+            throw new BeansException("no bean named '" + beanId + "' is defined in " + configFile);
+        }
+        return new BeanRef<>(this, index, beanId, requiredType);
+    }
+
+    // 按下标读取已经创建完成的单例，还没有创建或不是单例时返回null
+    Object getSingleton(int index) {
+        return this.indexedSingletons.get(index);
+    }
+
+    private void timedGetBean(String beanId, LongAdder sequentialNanos) {
+        // 启动时只创建单例，prototype在每次getBean时创建，延迟初始化的单例在第一次使用时创建
+        BeanDefinition beanDefinition = this.getBeanDefinition(beanId);
+        if (!beanDefinition.isSingleton() || beanDefinition.isLazyInit()) {
+            return;
+        }
+        long start = System.nanoTime();
+        // 启动时按层创建，不等待刚创建的bean的async-init，等待只发生在依赖方获取它时
+        this.obtainBean(beanId);
+        sequentialNanos.add(System.nanoTime() - start);
+    }
+
+    // 按容器的配置读取组件索引和xml，返回实际读取的配置文件
+    private List<URL> loadBeanDefinitions(String[] configLocations, Map<String, BeanDefinition> beanDefinitionMap,
+                                          BeanClassPreloader preloader) {
+        List<URL> resources = new ArrayList<>();
+        if (this.componentIndexEnabled) {
+            resources.addAll(new ComponentIndexReader(BeanDefinition.SCOPE_SINGLETON, this.defaultLazyInit)
+                    .loadBeanDefinitions(Thread.currentThread().getContextClassLoader(), beanDefinitionMap));
+            if (preloader != null) {
+                beanDefinitionMap.values().forEach(preloader::preload);
+            }
+        }
+        if (configLocations.length > 0) {
+            XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true)
+                    .setSnapshotDirectory(this.snapshotDirectory)
+                    .setDefaultLazyInit(this.defaultLazyInit)
+                    .setExecutor(this.startupPool)
+                    .setBeanClassPreloader(preloader);
+            reader.loadBeanDefinitions(configLocations, beanDefinitionMap);
+            resources.addAll(reader.getLoadedResources());
+            this.parsedConfigCount = reader.getParsedCount();
+            this.snapshotConfigCount = reader.getSnapshotHitCount();
+        }
+        return resources;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  定时检查配置文件（包括被引入的文件），发生变化时调用reload，只能检查文件系统上的配置
+     * @Date 2026/10/17 00:30
+     * @param interval 检查间隔
+     * @param unit
+     * @Return
+     **/
+    public void startConfigWatcher(long interval, TimeUnit unit) {
+        startConfigWatcher(interval, unit, null);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  同startConfigWatcher(long, TimeUnit)，自动reload失败时回调onFailure，失败也可以通过getLastReloadFailure获取
+     * @Date 2026/10/17 11:30
+     * @param interval 检查间隔
+     * @param unit
+     * @param onFailure 在检查线程中调用，为null时不回调
+     * @Return
+     **/
+    public synchronized void startConfigWatcher(long interval, TimeUnit unit, Consumer<? super RuntimeException> onFailure) {
+        if (!this.refreshed.get()) {
+            throw new IllegalStateException("context for " + configFile + " has not been refreshed");
+        }
+        if (this.configWatcher != null) {
+            return;
+        }
+        this.configWatcher = new ConfigFileWatcher(configFile, this::reload, onFailure);
+        this.configWatcher.watch(this.configResources);
+        this.configWatcher.start(interval, unit);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  立即检查一次配置文件，发生变化时在当前线程reload，不等待下一次定时检查
+     * @Date 2026/10/17 11:32
+     * @Return {@link boolean} 配置文件是否发生了变化，没有开启检查时为false
+     **/
+    public boolean checkConfigFiles() {
+        ConfigFileWatcher watcher;
+        synchronized (this) {
+            watcher = this.configWatcher;
+        }
+        return watcher != null && watcher.check();
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  最近一次自动reload的失败，之后自动reload成功时清空
+     * @Date 2026/10/17 11:34
+     * @Return {@link RuntimeException} 没有失败或没有开启检查时为null
+     **/
+    public synchronized RuntimeException getLastReloadFailure() {
+        return this.configWatcher == null ? null : this.configWatcher.getLastFailure();
+    }
+
+    public synchronized void stopConfigWatcher() {
+        if (this.configWatcher != null) {
+            this.configWatcher.stop();
+            this.configWatcher = null;
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  重新读取配置并与当前的BeanDefinition比较，只重新创建新增、修改、删除的bean以及直接或间接依赖它们的bean，
+     *        其他单例保持不变；替换BeanDefinition和移除受影响的单例在写锁内一起完成，正在创建的bean先创建完，
+     *        之后的创建都按新配置进行；子容器中依赖了受影响bean的单例同样重新创建
+     * @Date 2026/10/17 00:32
+     * @Return {@link Set} 受影响的beanId
      **/
-    public void parseConstructorArgElement(Element beanElem, BeanDefinition beanDefinition) {
-        Iterator<Element> iterator = beanElem.elementIterator("constructor-arg");
-        while (iterator.hasNext()) {
-            Element next = iterator.next();
-            String argumentName = next.attributeValue("ref");
-            if (!StringUtils.hasLength(argumentName)) {
-                return;
+    public synchronized Set<String> reload() {
+        if (this.closed.get()) {
+            throw new BeansException("context for " + configFile + " has been closed");
+        }
+        if (this.beanFactoryInitializer != null) {
+            throw new BeansException("hot reload of " + configFile + " is not supported with a generated BeanFactoryInitializer");
+        }
+
+        // 重新创建预加载器，上次加载失败的类在这次重新尝试
+        BeanClassPreloader preloader = createBeanClassPreloader();
+        Map<String, BeanDefinition> definitions = new LinkedHashMap<>();
+        List<URL> resources = loadBeanDefinitions(this.configLocations, definitions, preloader);
+
+        // 新增、删除和内容不同的BeanDefinition
+        Set<String> affected = new LinkedHashSet<>();
+        for (BeanDefinition beanDefinition : definitions.values()) {
+            if (!beanDefinition.equals(this.beanDefinitionMap.get(beanDefinition.getId()))) {
+                affected.add(beanDefinition.getId());
+            }
+        }
+        for (String beanId : this.beanDefinitionMap.keySet()) {
+            if (!definitions.containsKey(beanId)) {
+                affected.add(beanId);
             }
+        }
 
-            beanDefinition.getConstructorArguments().add(argumentName);
+        // 沿新旧两个依赖图找到所有直接或间接依赖它们的bean
+        BeanDependencyGraph previous = BeanDependencyGraph.build(this.beanDefinitionMap);
+        BeanDependencyGraph current = BeanDependencyGraph.build(definitions);
+        Deque<String> pending = new ArrayDeque<>(affected);
+        while (!pending.isEmpty()) {
+            String beanId = pending.pop();
+            for (BeanDependencyGraph graph : new BeanDependencyGraph[]{previous, current}) {
+                for (String dependent : graph.getDependents(beanId)) {
+                    if (affected.add(dependent)) {
+                        pending.push(dependent);
+                    }
+                }
+            }
         }
+
+        Map<String, BeanDefinition> replaced = new HashMap<>(affected.size() * 2);
+        Map<String, BeanDefinition> next = new LinkedHashMap<>(this.beanDefinitionMap);
+        for (String beanId : affected) {
+            BeanDefinition beanDefinition = definitions.get(beanId);
+            BeanDefinition old = next.get(beanId);
+            if (old != null) {
+                replaced.put(beanId, old);
+            }
+            if (beanDefinition == null) {
+                next.remove(beanId);
+            } else {
+                next.put(beanId, beanDefinition);
+            }
+        }
+        this.beanClassPreloader = preloader;
+        this.configResources = resources;
+        if (this.configWatcher != null) {
+            this.configWatcher.watch(resources);
+        }
+        replaceSingletons(FrozenBeanDefinitionRegistry.freeze(next), affected, replaced);
+        return affected;
     }
 
     /**
-     * @param beanElem       标签信息
-     * @param beanDefinition 定义类信息
      * @Auther zhutouasan
-     * @Desc 获取bean的所有属性名
-     * @Date 2023/7/7 15:08
+     * @Desc  父容器reload后调用：重新创建直接或间接依赖了父容器中受影响bean的单例，子容器自己定义的同名bean不受影响
+     * @Date 2026/10/17 11:40
+     * @param parentAffected 父容器（以及更上层容器）中受影响的beanId
      * @Return
      **/
-    public void parsePropertyElement(Element beanElem, BeanDefinition beanDefinition) {
-        Iterator<Element> iterator = beanElem.elementIterator("property");
-        while (iterator.hasNext()) {
-            Element next = iterator.next();
-            String propertyName = next.attributeValue("name");
-            if (!StringUtils.hasLength(propertyName)) {
-                return;
+    private synchronized void parentReloaded(Set<String> parentAffected) {
+        if (this.closed.get()) {
+            return;
+        }
+        BeanDependencyGraph graph = BeanDependencyGraph.build(this.beanDefinitionMap);
+        Set<String> inherited = new LinkedHashSet<>();
+        Set<String> affected = new LinkedHashSet<>();
+        for (String beanId : parentAffected) {
+            if (!this.beanDefinitionMap.containsKey(beanId)) {
+                inherited.add(beanId);
+            }
+        }
+        // 依赖图只包含本容器中的bean，直接依赖父容器bean的单例在这里找出
+        for (BeanDefinition beanDefinition : this.beanDefinitionMap.values()) {
+            for (List<String> beanIds : Arrays.asList(beanDefinition.getConstructorArguments(), beanDefinition.getPropertyNames())) {
+                if (!Collections.disjoint(beanIds, inherited)) {
+                    affected.add(beanDefinition.getId());
+                }
+            }
+        }
+        Deque<String> pending = new ArrayDeque<>(affected);
+        while (!pending.isEmpty()) {
+            for (String dependent : graph.getDependents(pending.pop())) {
+                if (affected.add(dependent)) {
+                    pending.push(dependent);
+                }
             }
+        }
+        Map<String, BeanDefinition> replaced = new HashMap<>(affected.size() * 2);
+        for (String beanId : affected) {
+            replaced.put(beanId, this.beanDefinitionMap.get(beanId));
+        }
+        // 更下层的子容器可能直接依赖父容器中的bean，也可能依赖这里重新创建的bean
+        inherited.addAll(affected);
+        replaceSingletons(null, inherited, replaced);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  在写锁内替换注册表并移除受影响的单例，释放锁后按旧配置销毁它们、重新创建非延迟的单例并通知子容器，
+     *        最后把销毁失败的bean一起抛出
+     * @Date 2026/10/17 11:42
+     * @param registry 新的注册表，为null时不替换
+     * @param affected 受影响的beanId，依赖方排在被依赖方后面
+     * @param replaced beanId -> 旧的BeanDefinition，用于销毁
+     * @Return
+     **/
+    private void replaceSingletons(Map<String, BeanDefinition> registry, Set<String> affected, Map<String, BeanDefinition> replaced) {
+        List<String> removed = new ArrayList<>(affected);
+        Collections.reverse(removed);
+        Map<String, Object> evicted = new LinkedHashMap<>();
+        BeanDependencyGraph graph = registry == null ? null : BeanDependencyGraph.build(registry);
+        BeanTypeIndex typeIndex = registry == null ? null : buildBeanTypeIndex(registry);
+        this.reloadLock.writeLock().lock();
+        try {
+            if (registry != null) {
+                this.beanDefinitionMap = registry;
+                this.beanTypeIndex = typeIndex;
+                registerCycles(graph);
+            }
+            for (String beanId : removed) {
+                Object bean = this.removeSingleton(beanId);
+                if (bean != null) {
+                    evicted.put(beanId, bean);
+                }
+            }
+            // 移除之后再重新分配下标，句柄中不会留下被移除的单例
+            if (registry != null || !evicted.isEmpty()) {
+                assignBeanIndexes();
+            }
+        } finally {
+            this.reloadLock.writeLock().unlock();
+        }
+        // 依赖方在affected中排在后面，先销毁；销毁失败不影响重新创建，最后一起抛出
+        List<Throwable> failures = new ArrayList<>();
+        evicted.forEach((beanId, bean) -> {
+            BeanDefinition beanDefinition = replaced.get(beanId);
+            if (beanDefinition != null) {
+                destroyBean(beanDefinition, bean, failures);
+            }
+        });
 
-            beanDefinition.getPropertyNames().add(propertyName);
+        for (String beanId : affected) {
+            BeanDefinition beanDefinition = this.beanDefinitionMap.get(beanId);
+            if (beanDefinition != null && beanDefinition.isSingleton() && !beanDefinition.isLazyInit()) {
+                this.getBean(beanId);
+            }
         }
+        for (ClassPathXmlApplicationContext child : this.children) {
+            child.parentReloaded(affected);
+        }
+        throwDestroyFailures(configFile + ": failed to destroy " + failures.size() + " replaced beans", failures);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  关闭容器：停止检查配置文件，按依赖的相反顺序销毁所有单例（同一层在startupPool上同时销毁，见destroySingletons），
+     *        之后getBean抛出异常；重复调用没有效果；销毁失败或超时的bean在全部销毁结束后一起抛出
+     * @Date 2026/10/17 02:45
+     * @Return
+     **/
+    @Override
+    public synchronized void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (this.parent != null) {
+            this.parent.children.remove(this);
+        }
+        stopConfigWatcher();
+        try {
+            destroySingletons(this.beanDefinitionMap, this.startupPool);
+        } finally {
+            AtomicReferenceArray<Object> slots = this.indexedSingletons;
+            if (slots != null) {
+                for (int i = 0; i < slots.length(); i++) {
+                    slots.set(i, null);
+                }
+            }
+        }
+    }
+
+    public boolean isClosed() {
+        return closed.get();
     }
 
     /**
@@ -141,29 +813,154 @@ public class ClassPathXmlApplicationContext implements BeanFactory {
      */
     @Override
     public Object getBean(String beanId) {
-        BeanDefinition beanDefinition = this.getBeanDefinition(beanId);
+        Object bean = obtainBean(beanId);
+        Map<String, CompletableFuture<Void>> initializations = this.initializations;
+        if (initializations != null) {
+            awaitInitialized(beanId, initializations);
+        }
+        return bean;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  启动期间等待bean的init-method执行完，最多等到启动的截止时间；
+     *        失败不在这里抛出，由awaitInitializations统一报告；正在执行async-init的线程不等待
+     * @Date 2026/10/17 12:40
+     * @param beanId
+     * @param initializations
+     * @Return
+     **/
+    private void awaitInitialized(String beanId, Map<String, CompletableFuture<Void>> initializations) {
+        CompletableFuture<Void> initialization = initializations.get(beanId);
+        if (initialization == null || initialization.isDone() || this.runningAsyncInit.get() != null) {
+            return;
+        }
+        try {
+            initialization.get(Math.max(0, this.initDeadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new BeansException(configFile + ": init-method of bean '" + beanId + "' did not finish within "
+                    + this.initTimeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeansException("interrupted while waiting for init-method of bean '" + beanId + "'", e);
+        } catch (ExecutionException | CancellationException e) {
+            // 失败在启动结束时统一报告
+        }
+    }
+
+    // 获取bean，不等待它的init-method
+    private Object obtainBean(String beanId) {
+        Object event = RECORDER.begin(Phase.GET_BEAN);
+
+        // 已经创建好的单例直接返回，不加锁
         Object bean = this.getSingleton(beanId);
-        if (bean == null) {
-            bean = createBean(beanDefinition);
-            this.registerSingleton(beanId, bean);
+        boolean cacheHit = bean != null;
+        if (!cacheHit) {
+            bean = doGetBean(beanId);
+        }
+
+        if (event != null) {
+            RECORDER.commit(event, beanId, bean == null ? null : bean.getClass().getName(), cacheHit);
         }
         return bean;
     }
 
     /**
      * @Auther zhutouasan
-     * @Desc  将更新的bean更新到Map中
-     * @Date 2023/7/8 17:08
+     * @Desc  按类型获取唯一的bean，子容器中没有这个类型的bean时到父容器中查找
+     * @Date 2026/10/17 03:12
+     * @param requiredType
+     * @Return {@link T}
+     **/
+    @Override
+    public <T> T getBean(Class<T> requiredType) {
+        BeanTypeIndex index = beanTypeIndex();
+        if (this.parent != null && index.getBeanIds(requiredType).isEmpty()) {
+            return this.parent.getBean(requiredType);
+        }
+        return getBean(index.getUniqueBeanId(requiredType), requiredType);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取类型为type的所有bean，包括父容器中的，相同id时使用子容器中的bean
+     * @Date 2026/10/17 03:13
+     * @param type
+     * @Return {@link Map}
+     **/
+    @Override
+    public <T> Map<String, T> getBeansOfType(Class<T> type) {
+        Map<String, T> beans = beanTypeIndex().getBeansOfType(this, type);
+        if (this.parent == null) {
+            return beans;
+        }
+        Map<String, T> merged = new LinkedHashMap<>(this.parent.getBeansOfType(type));
+        merged.putAll(beans);
+        return merged;
+    }
+
+    public ClassPathXmlApplicationContext getParent() {
+        return parent;
+    }
+
+    private BeanTypeIndex beanTypeIndex() {
+        BeanTypeIndex index = this.beanTypeIndex;
+        if (index == null) {
+            throw new BeansException("context for " + configFile + " has not been refreshed");
+        }
+        return index;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  单例缓存中没有时获取bean，子容器中没有定义时交给父容器，prototype直接创建，单例只由一个线程创建
+     *        只有创建单例时持有reloadLock的读锁，其他路径不加锁
+     * @Date 2026/10/16 23:00
      * @param beanId
-     @param bean
-      * @Return
+     * @Return {@link Object}
      **/
-    private void registerSingleton(String beanId, Object bean) {
-        Object object = this.singletonObjects.get(beanId);
-        if (object != null) {
-            System.out.println("error, " + object + "had already registered");
+    private Object doGetBean(String beanId) {
+        if (this.closed.get()) {
+            throw new BeansException("context for " + configFile + " has been closed");
+        }
+        BeanDefinition beanDefinition = this.beanDefinitionMap.get(beanId);
+        // 父容器的单例只保存在父容器中，这里不缓存，每次多一次本地单例表的查找
+        if (beanDefinition == null && this.parent != null) {
+            return this.parent.getBean(beanId);
+        }
+        // prototype每次都创建新的对象，不放入单例缓存
+        if (beanDefinition != null && !beanDefinition.isSingleton()) {
+            if (beanDefinition.isPooled()) {
+                throw new BeansException("scope pooled of bean '" + beanId + "' is only supported by BeanContainer");
+            }
+            // thread和task作用域在当前线程或当前任务中只创建一次
+            if (beanDefinition.isThreadScoped() || beanDefinition.isTaskScoped()) {
+                return this.getScopedBean(beanDefinition, () -> createBean(beanDefinition));
+            }
+            return createBean(beanDefinition);
         }
-        this.singletonObjects.put(beanId, bean);
+
+        this.reloadLock.readLock().lock();
+        try {
+            // 拿到读锁之前reload可能已经替换了注册表，按新的BeanDefinition重新获取
+            if (this.beanDefinitionMap.get(beanId) == beanDefinition) {
+                return getOrCreateSingleton(beanId, beanDefinition);
+            }
+        } finally {
+            this.reloadLock.readLock().unlock();
+        }
+        return doGetBean(beanId);
+    }
+
+    // 持有reloadLock的读锁时调用，第一次获取时只有一个线程创建，同时获取的其他线程等待创建结果
+    private Object getOrCreateSingleton(String beanId, BeanDefinition beanDefinition) {
+        Object bean = this.getSingleton(beanId, () -> createBean(beanDefinition));
+        Map<String, Integer> indexes = this.beanIndexes;
+        Integer index = indexes == null ? null : indexes.get(beanId);
+        if (bean != null && index != null) {
+            this.indexedSingletons.set(index, bean);
+        }
+        return bean;
     }
 
     /**
@@ -174,14 +971,134 @@ public class ClassPathXmlApplicationContext implements BeanFactory {
      */
     private Object createBean(BeanDefinition beanDefinition) {
 
+        // 使用生成的代码直接调用构造器和setter，不经过反射；
+        // 依赖了延迟初始化单例的bean不在生成的代码中，按下面的方式创建，注入时经过resolveDependency得到代理
+        if (this.beanFactoryInitializer != null && !dependsOnLazyBean(beanDefinition)) {
+            BeanStartupMetrics metrics = startupMetrics(beanDefinition);
+            long start = System.nanoTime();
+            Object bean = this.beanFactoryInitializer.instantiate(beanDefinition.getId(), this);
+            long instantiated = System.nanoTime();
+            if (beanDefinition.isSingleton()) {
+                this.addEarlySingleton(beanDefinition.getId(), bean);
+            }
+            this.beanFactoryInitializer.populate(beanDefinition.getId(), bean, this);
+            // 生成的代码只注入引用，字面值按注入计划注入
+            if (!beanDefinition.getValuePropertyNames().isEmpty()) {
+                try {
+                    injectPropertyValues(beanDefinition, resolveInjectionPlan(beanDefinition), this.instantiationStrategy, bean);
+                } catch (ClassNotFoundException e) {
+                    throw new BeansException("could not load class of bean '" + beanDefinition.getId() + "': " + e, e);
+                }
+            }
+            if (metrics != null) {
+                metrics.addInstantiateNanos(instantiated - start);
+                metrics.addInjectNanos(System.nanoTime() - instantiated);
+            }
+            initializeBean(beanDefinition, bean);
+            return bean;
+        }
+
         // bean实例化
         Object bean = createBeanInstance(beanDefinition);
+        // 提前暴露还没有赋值的单例，setter循环依赖时依赖方直接拿到这个引用
+        if (bean != null && beanDefinition.isSingleton()) {
+            this.addEarlySingleton(beanDefinition.getId(), bean);
+        }
         // 给bean赋值
         populateBean(beanDefinition, bean);
+        // 调用init-method
+        initializeBean(beanDefinition, bean);
 
         return bean;
     }
 
+    /**
+     * @Auther zhutouasan
+     * @Desc  bean的构造器参数或属性是否引用了本容器中延迟初始化的单例，规则与simple_ioc-maven-plugin生成代码时跳过的bean一致
+     * @Date 2026/10/17 10:30
+     * @param beanDefinition
+     * @Return {@link boolean}
+     **/
+    private boolean dependsOnLazyBean(BeanDefinition beanDefinition) {
+        for (List<String> beanIds : Arrays.asList(beanDefinition.getConstructorArguments(), beanDefinition.getPropertyNames())) {
+            for (String beanId : beanIds) {
+                BeanDefinition dependency = this.beanDefinitionMap.get(beanId);
+                if (dependency != null && dependency.isLazyInit() && dependency.isSingleton()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  调用bean的init-method
+     *        启动时创建的单例要等它依赖的bean都初始化完成：async-init的提交到startupPool，与其他bean的初始化同时执行；
+     *        其他的在当前线程执行，依赖在注入时已经等待过初始化，所以在单例发布之前就执行完；
+     *        只有循环依赖中提前拿到的引用还没有初始化，这时由完成最后一个依赖的线程接着执行；
+     *        依赖初始化失败时不执行；失败不会中断启动，由awaitInitializations统一报告。
+     *        启动完成后创建的bean以及prototype直接在当前线程执行
+     * @Date 2026/10/17 02:05
+     * @param beanDefinition
+     * @param bean
+     * @Return
+     **/
+    private void initializeBean(BeanDefinition beanDefinition, Object bean) {
+        Map<String, CompletableFuture<Void>> initializations = this.initializations;
+        if (initializations == null || bean == null || !beanDefinition.isSingleton()) {
+            invokeInitMethod(beanDefinition, bean);
+            return;
+        }
+
+        CompletableFuture<Void> dependencies = dependenciesInitialized(beanDefinition, initializations);
+        CompletableFuture<Void> initialized;
+        if (beanDefinition.getInitMethodName() == null || dependencies.isCompletedExceptionally()) {
+            initialized = dependencies;
+        } else if (beanDefinition.isAsyncInit() && this.startupPool != null) {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            initialized = dependencies.thenRunAsync(() -> {
+                Thread thread = Thread.currentThread();
+                ClassLoader previous = thread.getContextClassLoader();
+                thread.setContextClassLoader(classLoader);
+                this.runningAsyncInit.set(Boolean.TRUE);
+                try {
+                    invokeInitMethod(beanDefinition, bean);
+                } finally {
+                    this.runningAsyncInit.remove();
+                    thread.setContextClassLoader(previous);
+                }
+            }, this.startupPool);
+        } else if (dependencies.isDone()) {
+            initialized = new CompletableFuture<>();
+            try {
+                invokeInitMethod(beanDefinition, bean);
+                initialized.complete(null);
+            } catch (RuntimeException e) {
+                initialized.completeExceptionally(e);
+            }
+        } else {
+            initialized = dependencies.thenRun(() -> invokeInitMethod(beanDefinition, bean));
+        }
+        initializations.put(beanDefinition.getId(), initialized);
+    }
+
+    // 构造器参数和属性依赖的bean都初始化完成时完成，没有需要等待的依赖时返回已经完成的future
+    private static CompletableFuture<Void> dependenciesInitialized(BeanDefinition beanDefinition,
+                                                                   Map<String, CompletableFuture<Void>> initializations) {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (List<String> beanIds : Arrays.asList(beanDefinition.getConstructorArguments(), beanDefinition.getPropertyNames())) {
+            for (String beanId : beanIds) {
+                CompletableFuture<Void> initialization = initializations.get(beanId);
+                if (initialization != null && (!initialization.isDone() || initialization.isCompletedExceptionally())) {
+                    pending.add(initialization);
+                }
+            }
+        }
+        return pending.isEmpty() ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+    }
+
     /**
      * @Auther zhutouasan
      * @Desc  使用setter给Bean赋值
@@ -192,46 +1109,40 @@ public class ClassPathXmlApplicationContext implements BeanFactory {
      **/
     public void populateBean(BeanDefinition beanDefinition, Object bean) {
 
-        // 获取bean的变量名
-        List<String> propertyNames = beanDefinition.getPropertyNames();
-
+        BeanStartupMetrics metrics = startupMetrics(beanDefinition);
+        Object event = RECORDER.begin(Phase.POPULATE_BEAN);
         try {
-            // 通过反射获取当前类所有的方法信息（使用Method）
-            Method[] methods = bean.getClass().getDeclaredMethods();
-
-            // 配对
-            for (String propertyName : propertyNames) {
-                for (Method method : methods) {
-                    if (method.getName().equals("set" + upperCaseFirstChar(propertyName))) {
+            // 注入计划中已经按属性名配对好setter，直接按顺序注入
+            InjectionPlan plan = resolveInjectionPlan(beanDefinition);
+            for (int i = 0; i < plan.getPropertyCount(); i++) {
 
-                        // 获得方法参数实例
-                        Object propertyBean = getBean(propertyName);
+                // 获得方法参数实例
+                Object propertyBean = resolveDependency(plan.getPropertyName(i), plan.getPropertyType(i));
 
-                        // 通过反射执行调用setter()方法
-                        method.invoke(bean, propertyBean);
-                        break;
-                    }
+                // 通过实例化策略编译好的访问器调用setter()方法，依赖的创建时间不计入这个bean
+                long start = System.nanoTime();
+                PropertyInjector injector = plan.getInjector(this.instantiationStrategy, i);
+                long compiled = System.nanoTime();
+                injector.inject(bean, propertyBean);
+                if (metrics != null) {
+                    metrics.addLoadNanos(compiled - start);
+                    metrics.addInjectNanos(System.nanoTime() - compiled);
                 }
             }
+            // 字面值属性
+            injectPropertyValues(beanDefinition, plan, this.instantiationStrategy, bean);
+        } catch (BeansException e) {
+            // 循环依赖等容器异常需要传给调用方，不能吞掉
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
+            throw new BeansException("failed to populate bean '" + beanDefinition.getId() + "'", e);
+        } finally {
+            if (event != null) {
+                RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+            }
         }
     }
 
-    /**
-     * @Auther zhutouasan
-     * @Desc  将字符串第一个字符大写
-     * @Date 2023/7/7 17:48
-     * @param propertyName
-     * @Return {@link String}
-     **/
-    private String upperCaseFirstChar(String propertyName) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(propertyName.substring(0, 1).toUpperCase());
-        sb.append(propertyName.substring(1));
-        return sb.toString();
-    }
-
     /**
      * @Auther zhutouasan
      * @Desc  通过构造方法实现依赖注入
@@ -241,35 +1152,35 @@ public class ClassPathXmlApplicationContext implements BeanFactory {
      **/
     private Object autowireConstructor(final BeanDefinition beanDefinition) {
 
-        // 代表最终匹配的Constructor对象
-        Constructor<?> constructor = null;
-        // 代表将依赖注入的对象
-        Object[] args = null;
-
+        BeanStartupMetrics metrics = startupMetrics(beanDefinition);
+        Object event = RECORDER.begin(Phase.AUTOWIRE_CONSTRUCTOR);
         try {
-            Class<?> clazz = Thread.currentThread().getContextClassLoader().loadClass(beanDefinition.getBeanClassName());
-
-            // 通过反射回去当前类的所有Constructor对象
-            Constructor<?>[] constructors = clazz.getDeclaredConstructors();
-            for (int i = 0; i < constructors.length; i++) {
-                Class<?>[] parameterTypes = constructors[i].getParameterTypes();
-                if (parameterTypes.length != beanDefinition.getConstructorArguments().size()) {
-                    continue;
-                }
+            // 注入计划中已经匹配好参数数量相同的构造器
+            long start = System.nanoTime();
+            InjectionPlan plan = resolveInjectionPlan(beanDefinition);
+            BeanInstantiator instantiator = plan.getInstantiator(this.instantiationStrategy);
+            long loaded = System.nanoTime();
 
-                // 参数数量与扫描到的构造器参数数量相同
-                // 设置构造方法参数实例
-                args = new Object[parameterTypes.length];
-                valuesMatchTypes(beanDefinition.getConstructorArguments(), args);
-                constructor = constructors[i];
-                break;
-            }
+            // 设置构造方法参数实例
+            Object[] args = new Object[plan.getConstructorArgumentCount()];
+            valuesMatchTypes(plan, args);
 
             // 使用带有参数的构造方法对象实现实例化Bean
-            return constructor.newInstance(args);
+            long resolved = System.nanoTime();
+            Object bean = instantiator.instantiate(args);
+            if (metrics != null) {
+                metrics.addLoadNanos(loaded - start);
+                metrics.addInstantiateNanos(System.nanoTime() - resolved);
+            }
+            return bean;
+        } catch (BeansException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+            throw new BeansException("failed to instantiate bean '" + beanDefinition.getId() + "'", e);
+        } finally {
+            if (event != null) {
+                RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+            }
         }
     }
 
@@ -277,13 +1188,13 @@ public class ClassPathXmlApplicationContext implements BeanFactory {
      * @Auther zhutouasan
      * @Desc  给每个属性赋值
      * @Date 2023/7/7 17:22
-     * @param constructorArgs 构造器参数
+     * @param plan 注入计划
      @param args 实参
       * @Return
      **/
-    private void valuesMatchTypes(List<String> constructorArgs, Object[] args) {
-        for (int i = 0; i < constructorArgs.size(); i++) {
-            Object argBean = getBean(constructorArgs.get(i));
+    private void valuesMatchTypes(InjectionPlan plan, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            Object argBean = resolveDependency(plan.getConstructorArgument(i), plan.getConstructorParameterType(i));
             args[i] = argBean;
         }
     }
@@ -303,42 +1214,75 @@ public class ClassPathXmlApplicationContext implements BeanFactory {
 
             // 使用setter创建对象
         } else {
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            String className = beanDefinition.getBeanClassName();
+            BeanStartupMetrics metrics = startupMetrics(beanDefinition);
 
+            Object event = RECORDER.begin(Phase.CREATE_BEAN_INSTANCE);
             try {
-                // 通过类加载器，根据classPath得到类对象
-                // 直接通过类加载器加载的类，只有将.class文件加载到jvm中，不会执行static中的内容
-                // Class.forName的到的类是已经初始化完成
-                Class<?> clazz = classLoader.loadClass(className);
+                // 根据classPath得到类对象，编译成注入计划后缓存
+                // 类通常已经在解析配置时由后台线程加载并初始化，这里只等待结果
+                long start = System.nanoTime();
+                InjectionPlan plan = resolveInjectionPlan(beanDefinition);
+                BeanInstantiator instantiator = plan.getInstantiator(this.instantiationStrategy);
+                long loaded = System.nanoTime();
 
-                // 通过类对象利用反射创建Bean实例
-                return clazz.newInstance();
+                // 通过实例化策略编译好的无参构造器创建Bean实例
+                Object bean = instantiator.instantiate(BeanInstantiator.NO_ARGS);
+                if (metrics != null) {
+                    metrics.addLoadNanos(loaded - start);
+                    metrics.addInstantiateNanos(System.nanoTime() - loaded);
+                }
+                return bean;
+            } catch (BeansException e) {
+                throw e;
             } catch (Exception e) {
-                e.printStackTrace();
+                throw new BeansException("failed to instantiate bean '" + beanDefinition.getId() + "'", e);
+            } finally {
+                if (event != null) {
+                    RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+                }
             }
-
-            return null;
         }
     }
 
     /**
-     * 获取单例Bean
-     * @param beanName
-     * @return
-     */
-    public Object getSingleton(String beanName) {
-        return this.singletonObjects.get(beanName);
+     * @Auther zhutouasan
+     * @Desc  获取要注入的依赖，还没有创建的延迟初始化单例注入到接口类型的参数时返回代理，否则直接getBean；
+     *        父容器中的bean由父容器解析
+     * @Date 2026/10/16 23:15
+     * @param beanId 依赖的beanId
+     * @param type 注入位置的参数类型
+     * @Return {@link Object}
+     **/
+    private Object resolveDependency(String beanId, Class<?> type) {
+        BeanDefinition beanDefinition = this.beanDefinitionMap.get(beanId);
+        if (beanDefinition == null && this.parent != null) {
+            return this.parent.resolveDependency(beanId, type);
+        }
+        if (beanDefinition != null && beanDefinition.isLazyInit() && beanDefinition.isSingleton()
+                && type.isInterface() && this.getSingleton(beanId) == null) {
+            return LazyBeanProxy.create(this, beanId, type);
+        }
+        return getBean(beanId);
+    }
+
+    // 启动期间返回bean的耗时记录，启动完成后返回null
+    private BeanStartupMetrics startupMetrics(BeanDefinition beanDefinition) {
+        Map<String, BeanStartupMetrics> metrics = this.startupMetrics;
+        return metrics == null ? null : metrics.get(beanDefinition.getId());
     }
 
     /**
      * @param beanId
      * @Auther zhutouasan
-     * @Desc 获取bean属性对象
+     * @Desc 获取bean属性对象，子容器中没有时到父容器中查找
      * @Date 2023/7/6 16:53
      * @Return {@link BeanDefinition}
      **/
     public BeanDefinition getBeanDefinition(String beanId) {
-        return this.beanDefinitionMap.get(beanId);
+        BeanDefinition beanDefinition = this.beanDefinitionMap.get(beanId);
+        if (beanDefinition == null && this.parent != null) {
+            return this.parent.getBeanDefinition(beanId);
+        }
+        return beanDefinition;
     }
 }
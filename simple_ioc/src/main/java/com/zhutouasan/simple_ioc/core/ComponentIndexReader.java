@@ -0,0 +1,121 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @desc： 读取simple_ioc_processor在编译期生成的组件索引，生成BeanDefinition，不加载任何类
+ *          每个jar（或classes目录）中最多有一个META-INF/simple_ioc.components，按URL排序后依次读取，重复的id以后读取的为准
+ *          文件格式（UTF-8）：#开头的行是注释，其余每行一个组件，字段用tab分隔：
+ *          id	className	scope	lazyInit	constructorArgs	properties
+ *          scope为空时使用defaultScope，lazyInit为空时使用defaultLazyInit，constructorArgs和properties用逗号分隔
+ * @author: zhutouasan
+ * @date： 2026/10/17 00:45
+ */
+public class ComponentIndexReader {
+
+    // 组件索引在classpath上的位置
+    public static final String COMPONENT_INDEX_LOCATION = "META-INF/simple_ioc.components";
+
+    public static final char FIELD_SEPARATOR = '\t';
+
+    public static final char LIST_SEPARATOR = ',';
+
+    private static final int FIELD_COUNT = 6;
+
+    private final String defaultScope;
+
+    private final boolean defaultLazyInit;
+
+    public ComponentIndexReader(String defaultScope, boolean defaultLazyInit) {
+        this.defaultScope = defaultScope;
+        this.defaultLazyInit = defaultLazyInit;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  读取classpath上所有的组件索引
+     * @Date 2026/10/17 00:47
+     * @param classLoader
+     * @param beanDefinitionMap
+     * @Return {@link List} 读取的索引文件
+     **/
+    public List<URL> loadBeanDefinitions(ClassLoader classLoader, Map<String, BeanDefinition> beanDefinitionMap) {
+        List<URL> resources = new ArrayList<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(COMPONENT_INDEX_LOCATION);
+            while (urls.hasMoreElements()) {
+                resources.add(urls.nextElement());
+            }
+        } catch (IOException e) {
+            throw new BeansException("failed to find " + COMPONENT_INDEX_LOCATION, e);
+        }
+        resources.sort((a, b) -> a.toString().compareTo(b.toString()));
+
+        Map<String, BeanDefinition> beans = new LinkedHashMap<>();
+        for (URL resource : resources) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isEmpty() || line.charAt(0) == '#') {
+                        continue;
+                    }
+                    BeanDefinition beanDefinition = parseLine(line);
+                    if (beanDefinition == null) {
+                        throw new BeansException("malformed component index entry at " + resource + ":" + lineNumber);
+                    }
+                    beans.put(beanDefinition.getId(), beanDefinition);
+                }
+            } catch (IOException e) {
+                throw new BeansException("failed to read component index " + resource, e);
+            }
+        }
+        beanDefinitionMap.putAll(beans);
+        return Collections.unmodifiableList(resources);
+    }
+
+    // 字段数量不对时返回null
+    private BeanDefinition parseLine(String line) {
+        String[] fields = split(line, FIELD_SEPARATOR);
+        if (fields.length != FIELD_COUNT || fields[0].isEmpty() || fields[1].isEmpty()) {
+            return null;
+        }
+        BeanDefinition beanDefinition = new BeanDefinition(fields[0], fields[1]);
+        beanDefinition.setScope(fields[2].isEmpty() ? this.defaultScope : fields[2]);
+        beanDefinition.setLazyInit(fields[3].isEmpty() ? this.defaultLazyInit : Boolean.parseBoolean(fields[3]));
+        if (!fields[4].isEmpty()) {
+            Collections.addAll(beanDefinition.getConstructorArguments(), split(fields[4], LIST_SEPARATOR));
+        }
+        if (!fields[5].isEmpty()) {
+            Collections.addAll(beanDefinition.getPropertyNames(), split(fields[5], LIST_SEPARATOR));
+        }
+        return beanDefinition;
+    }
+
+    // 与String.split(regex, -1)相同，但不编译正则
+    private static String[] split(String value, char separator) {
+        List<String> parts = new ArrayList<>(FIELD_COUNT);
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == separator) {
+                parts.add(value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(value.substring(start));
+        return parts.toArray(new String[0]);
+    }
+}
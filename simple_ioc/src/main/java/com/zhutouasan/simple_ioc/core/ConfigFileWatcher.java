@@ -0,0 +1,130 @@
+package com.zhutouasan.simple_ioc.core;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @desc： 定时检查配置文件的修改时间和大小，发生变化时回调onChange
+ *          只能检查文件系统上的配置，jar包中的配置不会变化，直接忽略；
+ *          回调之前先记录新的状态，配置写错时只报告一次，修改正确后再次触发；
+ *          onChange的异常保存为lastFailure并交给onFailure，下一次onChange成功时清空
+ * @author: zhutouasan
+ * @date： 2026/10/17 00:22
+ */
+final class ConfigFileWatcher {
+
+    private final Runnable onChange;
+
+    // onChange失败时回调，可以为null
+    private final Consumer<? super RuntimeException> onFailure;
+
+    private final ScheduledExecutorService executor;
+
+    // 最近一次onChange的失败，成功后为null
+    private volatile RuntimeException lastFailure;
+
+    // 文件 -> {修改时间, 大小}，文件不存在时为{-1, -1}
+    private volatile Map<Path, long[]> stamps = new HashMap<>();
+
+    ConfigFileWatcher(String name, Runnable onChange, Consumer<? super RuntimeException> onFailure) {
+        this.onChange = onChange;
+        this.onFailure = onFailure;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "simple_ioc-config-watcher-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  设置需要检查的配置文件并记录它们当前的状态
+     * @Date 2026/10/17 00:24
+     * @param resources
+     * @Return
+     **/
+    void watch(Collection<URL> resources) {
+        Map<Path, long[]> current = new HashMap<>(resources.size() * 2);
+        for (URL resource : resources) {
+            if (!"file".equals(resource.getProtocol())) {
+                continue;
+            }
+            try {
+                Path file = Paths.get(resource.toURI());
+                current.put(file, stamp(file));
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // 无法转换成文件路径的位置不检查
+            }
+        }
+        this.stamps = current;
+    }
+
+    void start(long interval, TimeUnit unit) {
+        this.executor.scheduleWithFixedDelay(this::check, interval, interval, unit);
+    }
+
+    void stop() {
+        this.executor.shutdownNow();
+    }
+
+    RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  检查一次配置文件，发生变化时在当前线程调用onChange；定时任务和手动调用不会同时执行
+     * @Date 2026/10/17 11:50
+     * @Return {@link boolean} 是否发生了变化
+     **/
+    synchronized boolean check() {
+        Map<Path, long[]> previous = this.stamps;
+        Map<Path, long[]> current = new HashMap<>(previous.size() * 2);
+        boolean changed = false;
+        for (Map.Entry<Path, long[]> entry : previous.entrySet()) {
+            long[] stamp = stamp(entry.getKey());
+            current.put(entry.getKey(), stamp);
+            changed |= !Arrays.equals(stamp, entry.getValue());
+        }
+        if (!changed) {
+            return false;
+        }
+        this.stamps = current;
+        try {
+            this.onChange.run();
+            this.lastFailure = null;
+        } catch (RuntimeException e) {
+            // 异常会让定时任务停止，这里只记录下来，等待下一次修改
+            this.lastFailure = e;
+            if (this.onFailure != null) {
+                try {
+                    this.onFailure.accept(e);
+                } catch (RuntimeException listenerFailure) {
+                    e.addSuppressed(listenerFailure);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static long[] stamp(Path file) {
+        try {
+            return new long[]{Files.getLastModifiedTime(file).toMillis(), Files.size(file)};
+        } catch (IOException e) {
+            // 文件被删除或正在被替换
+            return new long[]{-1, -1};
+        }
+    }
+}
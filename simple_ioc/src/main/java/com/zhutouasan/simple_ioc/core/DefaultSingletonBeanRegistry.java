@@ -0,0 +1,714 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.bean.InjectionPlan;
+import com.zhutouasan.simple_ioc.bean.InstantiationStrategy;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * @desc： 单例Bean的注册表，ClassPathXmlApplicationContext和XmlBeanFactory共用
+ *          已经创建好的单例直接从ConcurrentHashMap读取，不加锁；
+ *          第一次创建时每个bean有自己的创建记录，同一个bean只有抢到记录的线程创建，其他线程等待结果，
+ *          不同bean的创建互不阻塞；
+ *          实例化之后、注入属性之前的bean会提前暴露在earlySingletonObjects中，
+ *          同一个线程中setter之间的循环依赖直接拿到这个提前暴露的引用，构造器之间的循环依赖无法解决，抛出带完整依赖路径的异常；
+ *          容器通过registerCycles登记依赖图中的循环，同一个循环中的bean由一个可重入锁串行创建：
+ *          两个线程同时第一次获取同一个setter循环中的不同bean时，后来的线程等先到的线程创建完整个循环，再直接使用结果；
+ *          没有登记的跨线程循环（两个线程各自创建循环中的一个bean）抛出异常，不把一个线程中还没有注入完的对象交给另一个线程
+ *          thread和task作用域的bean也由这里保存：每个容器只有一个ThreadLocal指向当前线程的ThreadScope，
+ *          所有线程的ThreadScope同时登记在threadScopes中，ThreadScope只通过弱引用指向所属线程，不会让结束的线程留在内存中；
+ *          已经结束的线程的bean在调用destroyFinishedThreadScopedBeans时销毁，不在getBean中检查，
+ *          容器关闭时销毁所有线程的bean，线程池中的线程不会在容器关闭后继续持有它们；
+ *          task作用域的bean保存在TaskScope中，任务结束时关闭。两者的获取路径都没有synchronized
+ *          容器关闭时通过destroySingletons先销毁所有thread作用域bean，再按依赖的相反顺序销毁单例，见destroy-method
+ * @author: zhutouasan
+ * @date： 2026/10/16 17:10
+ */
+public class DefaultSingletonBeanRegistry {
+
+    // 使用ConcurrentHashMap存放所有单例Bean，String为beanId
+    private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(64);
+
+    // 已经实例化但还没有注入属性的单例，用于解决setter循环依赖
+    private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
+
+    // 当前线程正在创建的bean，按创建顺序排列，用于报告循环依赖的路径，栈为空时立即清除
+    private final ThreadLocal<Deque<String>> creationPath = new ThreadLocal<>();
+
+    // 正在创建的单例，beanId -> 创建记录
+    private final Map<String, SingletonCreation> singletonsInCreation = new ConcurrentHashMap<>(16);
+
+    // 处在循环依赖中的beanId -> 它所在循环的锁，同一个循环中的bean共用一个锁，不在循环中的bean不加锁
+    private volatile Map<String, ReentrantLock> cycleLocks = Collections.emptyMap();
+
+    // 正在等待其他线程创建单例的线程，用于发现跨线程的循环等待
+    private final Map<Thread, SingletonCreation> waitingThreads = new ConcurrentHashMap<>(16);
+
+    // 当前线程的thread作用域bean
+    private final ThreadLocal<ThreadScope> threadScopedBeans = new ThreadLocal<>();
+
+    // 所有创建过thread作用域bean、还没有销毁的线程的ThreadScope
+    private final Set<ThreadScope> threadScopes = ConcurrentHashMap.newKeySet();
+
+    // 当前线程绑定的TaskScope
+    private final ThreadLocal<TaskScope> currentTaskScope = new ThreadLocal<>();
+
+    // 关闭容器时每个单例销毁的最长等待时间
+    private volatile long destroyTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * 获取单例Bean
+     * @param beanName
+     * @return
+     */
+    public Object getSingleton(String beanName) {
+        return this.singletonObjects.get(beanName);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  手动注册一个单例，beanId已经存在时抛出异常，不再覆盖原来的对象
+     * @Date 2026/10/16 17:12
+     * @param beanId
+     * @param bean
+     * @Return
+     **/
+    public void registerSingleton(String beanId, Object bean) {
+        Object object = this.singletonObjects.putIfAbsent(beanId, bean);
+        if (object != null) {
+            throw new IllegalStateException("could not register " + bean + " under '" + beanId + "', "
+                    + object + " had already registered");
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  移除已经创建的单例，之后再获取时重新创建
+     * @Date 2026/10/17 00:20
+     * @param beanId
+     * @Return {@link Object} 被移除的单例，不存在时为null
+     **/
+    protected Object removeSingleton(String beanId) {
+        return this.singletonObjects.remove(beanId);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  提前暴露已经实例化但还没有注入属性的单例，创建完成后自动移除
+     * @Date 2026/10/16 18:02
+     * @param beanId
+     * @param bean
+     * @Return
+     **/
+    protected void addEarlySingleton(String beanId, Object bean) {
+        this.earlySingletonObjects.put(beanId, bean);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取单例，不存在时保证只有一个线程调用singletonFactory创建，其他线程等待同一个结果
+     * @Date 2026/10/16 17:15
+     * @param beanId
+     * @param singletonFactory 创建bean的方法，返回null表示创建失败，不会被缓存
+     * @Return {@link Object}
+     **/
+    protected Object getSingleton(String beanId, Supplier<Object> singletonFactory) {
+        Object bean = this.singletonObjects.get(beanId);
+        if (bean != null) {
+            return bean;
+        }
+
+        ReentrantLock cycleLock = this.cycleLocks.get(beanId);
+        if (cycleLock == null) {
+            return createSingleton(beanId, singletonFactory);
+        }
+        // 同一个线程创建循环中的其他bean时重入，其他线程等整个循环创建完
+        cycleLock.lock();
+        try {
+            return createSingleton(beanId, singletonFactory);
+        } finally {
+            cycleLock.unlock();
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  登记依赖图中的循环，之后同一个循环中的bean串行创建；容器加载或reload BeanDefinition后调用
+     * @Date 2026/10/17 14:20
+     * @param graph 容器中所有BeanDefinition的依赖图
+     * @Return
+     **/
+    protected void registerCycles(BeanDependencyGraph graph) {
+        if (graph.getCycles().isEmpty()) {
+            this.cycleLocks = Collections.emptyMap();
+            return;
+        }
+        Map<String, ReentrantLock> cycleLocks = new HashMap<>();
+        for (List<String> cycle : graph.getCycles()) {
+            ReentrantLock lock = new ReentrantLock();
+            for (String beanId : cycle) {
+                cycleLocks.put(beanId, lock);
+            }
+        }
+        this.cycleLocks = cycleLocks;
+    }
+
+    // 抢到创建记录的线程调用singletonFactory，其他线程等待它的结果
+    private Object createSingleton(String beanId, Supplier<Object> singletonFactory) {
+        Object bean;
+        SingletonCreation creation = new SingletonCreation(beanId, Thread.currentThread());
+        SingletonCreation existing = this.singletonsInCreation.putIfAbsent(beanId, creation);
+        if (existing != null) {
+            return awaitSingleton(existing);
+        }
+
+        Deque<String> path = this.creationPath.get();
+        if (path == null) {
+            path = new ArrayDeque<>();
+            this.creationPath.set(path);
+        }
+        path.addLast(beanId);
+        try {
+            // 抢到创建记录之前可能已经有线程创建完成并移除了记录，需要再检查一次
+            bean = this.singletonObjects.get(beanId);
+            if (bean == null) {
+                bean = singletonFactory.get();
+                if (bean != null) {
+                    this.singletonObjects.put(beanId, bean);
+                }
+            }
+            creation.future.complete(bean);
+            return bean;
+        } catch (RuntimeException | Error e) {
+            creation.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.earlySingletonObjects.remove(beanId);
+            this.singletonsInCreation.remove(beanId, creation);
+            path.removeLast();
+            if (path.isEmpty()) {
+                this.creationPath.remove();
+            }
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取thread或task作用域的bean，当前线程（或当前任务）中不存在时调用factory创建
+     * @Date 2026/10/17 01:40
+     * @param beanDefinition thread或task作用域的bean
+     * @param factory 创建bean的方法，返回null表示创建失败，不会被保存
+     * @Return {@link Object}
+     **/
+    protected Object getScopedBean(BeanDefinition beanDefinition, Supplier<Object> factory) {
+        String beanId = beanDefinition.getId();
+        if (beanDefinition.isTaskScoped()) {
+            TaskScope taskScope = this.currentTaskScope.get();
+            if (taskScope == null) {
+                throw new BeansException("bean '" + beanId + "' is task scoped but no task scope is open on thread "
+                        + Thread.currentThread().getName() + ", use openTaskScope()");
+            }
+            return taskScope.getBean(beanDefinition, factory);
+        }
+
+        ThreadScope scope = this.threadScopedBeans.get();
+        ScopedInstance instance = scope == null ? null : scope.beans.get(beanId);
+        if (instance != null) {
+            return instance.bean;
+        }
+        Object bean = factory.get();
+        if (bean != null) {
+            // 创建过程中可能已经创建了其他thread作用域的bean，重新获取
+            scope = currentThreadScope();
+            scope.beans.put(beanId, new ScopedInstance(beanDefinition, bean, scope.created++));
+        }
+        return bean;
+    }
+
+    // 当前线程的ThreadScope，第一次使用时登记
+    private ThreadScope currentThreadScope() {
+        ThreadScope scope = this.threadScopedBeans.get();
+        if (scope == null) {
+            scope = new ThreadScope(Thread.currentThread());
+            this.threadScopedBeans.set(scope);
+            this.threadScopes.add(scope);
+        }
+        return scope;
+    }
+
+    // 按创建的相反顺序销毁，失败加入failures
+    private static void destroyThreadScope(ThreadScope scope, List<Throwable> failures) {
+        List<ScopedInstance> instances = new ArrayList<>(scope.beans.values());
+        scope.beans.clear();
+        instances.sort((a, b) -> Integer.compare(b.order, a.order));
+        for (ScopedInstance instance : instances) {
+            destroyBean(instance.beanDefinition, instance.bean, failures);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  注入字面值属性，值在编译注入计划时已经转换好，这里只调用编译好的setter访问器
+     * @Date 2026/10/17 04:40
+     * @param beanDefinition
+     * @param plan beanDefinition的注入计划
+     * @param strategy 容器使用的实例化策略
+     * @param bean 为null时不注入
+     * @Return
+     **/
+    protected static void injectPropertyValues(BeanDefinition beanDefinition, InjectionPlan plan,
+                                               InstantiationStrategy strategy, Object bean) {
+        if (bean == null) {
+            return;
+        }
+        for (int i = 0; i < plan.getValuePropertyCount(); i++) {
+            try {
+                plan.getValueInjector(strategy, i).inject(bean, plan.getValue(i));
+            } catch (Exception e) {
+                throw new BeansException("could not set property '" + plan.getValuePropertyName(i) + "' of bean '"
+                        + beanDefinition.getId() + "': " + e, e);
+            }
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  注入属性之后调用bean的init-method，没有配置时直接返回，方法抛出的异常包装成BeansException
+     * @Date 2026/10/17 02:00
+     * @param beanDefinition
+     * @param bean 已经注入属性的bean，为null时不调用
+     * @Return
+     **/
+    protected static void invokeInitMethod(BeanDefinition beanDefinition, Object bean) {
+        if (bean != null && beanDefinition.getInitMethodName() != null) {
+            invokeLifecycleMethod(beanDefinition, bean, true);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  销毁bean：配置了destroy-method时调用它，否则bean实现了AutoCloseable时调用close，都没有时什么也不做
+     * @Date 2026/10/17 02:30
+     * @param beanDefinition 创建bean时使用的BeanDefinition，手动注册的单例为null
+     * @param beanId
+     * @param bean
+     * @Return
+     **/
+    protected static void destroyBean(BeanDefinition beanDefinition, String beanId, Object bean) {
+        if (beanDefinition != null && beanDefinition.getDestroyMethodName() != null) {
+            invokeLifecycleMethod(beanDefinition, bean, false);
+        } else if (bean instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) bean).close();
+            } catch (Exception e) {
+                throw new BeansException("close() of bean '" + beanId + "' failed: " + e, e);
+            }
+        }
+    }
+
+    // 是否需要销毁，没有销毁方法的bean不必提交到线程池
+    private static boolean hasDestroyCallback(BeanDefinition beanDefinition, Object bean) {
+        return (beanDefinition != null && beanDefinition.getDestroyMethodName() != null) || bean instanceof AutoCloseable;
+    }
+
+    // 调用注入计划中的init-method或destroy-method
+    private static void invokeLifecycleMethod(BeanDefinition beanDefinition, Object bean, boolean init) {
+        String description = (init ? "init-method " + beanDefinition.getInitMethodName()
+                : "destroy-method " + beanDefinition.getDestroyMethodName()) + "() of bean '" + beanDefinition.getId() + "'";
+        try {
+            // 创建bean时已经编译过注入计划，这里只是取出缓存
+            ClassLoader classLoader = bean.getClass().getClassLoader();
+            InjectionPlan plan = beanDefinition.resolveInjectionPlan(classLoader != null ? classLoader
+                    : Thread.currentThread().getContextClassLoader());
+            (init ? plan.getInitMethod() : plan.getDestroyMethod()).invoke(bean);
+        } catch (InvocationTargetException e) {
+            throw new BeansException(description + " failed: " + e.getTargetException(), e.getTargetException());
+        } catch (ClassNotFoundException | IllegalAccessException | IllegalArgumentException | IllegalStateException e) {
+            throw new BeansException(description + " could not be invoked: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  开始一个任务，返回的TaskScope绑定到当前线程，关闭时销毁其中的task作用域bean
+     * @Date 2026/10/17 01:42
+     * @Return {@link TaskScope}
+     **/
+    public TaskScope openTaskScope() {
+        return new TaskScope(this.currentTaskScope);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  销毁当前线程的thread作用域bean，按创建的相反顺序，之后再获取时重新创建
+     *        线程池中的线程在任务之间复用时需要调用，否则下一个任务会拿到上一个任务的bean；
+     *        销毁失败的bean不影响其他bean，全部销毁后一起抛出
+     * @Date 2026/10/17 01:44
+     * @Return
+     **/
+    public void destroyThreadScopedBeans() {
+        ThreadScope scope = this.threadScopedBeans.get();
+        if (scope == null) {
+            return;
+        }
+        this.threadScopedBeans.remove();
+        if (this.threadScopes.remove(scope)) {
+            List<Throwable> failures = new ArrayList<>();
+            destroyThreadScope(scope, failures);
+            throwDestroyFailures("failed to destroy " + failures.size() + " thread scoped beans of thread "
+                    + Thread.currentThread().getName(), failures);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  销毁已经结束的线程的thread作用域bean，不在getBean中自动执行，
+     *        使用大量短生命周期线程时由应用定期调用（例如在维护线程中），容器关闭时不需要调用；
+     *        销毁失败的bean不影响其他bean，全部销毁后一起抛出
+     * @Date 2026/10/17 14:40
+     * @Return {@link int} 被清理的线程数
+     **/
+    public int destroyFinishedThreadScopedBeans() {
+        int finished = 0;
+        List<Throwable> failures = new ArrayList<>();
+        for (ThreadScope scope : this.threadScopes) {
+            if (scope.isOwnerFinished() && this.threadScopes.remove(scope)) {
+                destroyThreadScope(scope, failures);
+                finished++;
+            }
+        }
+        throwDestroyFailures("failed to destroy " + failures.size() + " thread scoped beans of finished threads", failures);
+        return finished;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  销毁所有线程的thread作用域bean，容器关闭时调用；之后线程池中的线程只保留一个空的ThreadScope
+     * @Date 2026/10/17 12:10
+     * @param failures 收集销毁失败的异常
+     * @Return
+     **/
+    protected void destroyAllThreadScopedBeans(List<Throwable> failures) {
+        for (ThreadScope scope : this.threadScopes) {
+            if (this.threadScopes.remove(scope)) {
+                destroyThreadScope(scope, failures);
+            }
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  销毁thread/task作用域、对象池中或reload时被替换的bean，失败时不抛出，加入failures，
+     *        调用方销毁完一批bean后通过throwDestroyFailures一起抛出
+     * @Date 2026/10/17 01:46
+     * @param beanDefinition
+     * @param bean
+     * @param failures 收集销毁失败的异常
+     * @Return
+     **/
+    static void destroyBean(BeanDefinition beanDefinition, Object bean, List<Throwable> failures) {
+        try {
+            destroyBean(beanDefinition, beanDefinition.getId(), bean);
+        } catch (BeansException e) {
+            failures.add(e);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  有销毁失败的bean时抛出一个BeansException，每个失败作为它的suppressed异常
+     * @Date 2026/10/17 14:50
+     * @param message 异常信息
+     * @param failures
+     * @Return
+     **/
+    static void throwDestroyFailures(String message, List<Throwable> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        BeansException e = new BeansException(message);
+        for (Throwable failure : failures) {
+            e.addSuppressed(failure);
+        }
+        throw e;
+    }
+
+    public void setDestroyTimeout(long timeout, TimeUnit unit) {
+        this.destroyTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  关闭容器时销毁所有已经创建的单例，按依赖关系的相反顺序：依赖方先销毁，被依赖的后销毁
+     *        按依赖图从最深的一层开始逐层销毁，同一层的bean互不依赖，在executor上同时销毁，
+     *        每个bean从提交时开始最多等待destroyTimeout，超时后不再等待它，继续销毁下一层；
+     *        循环依赖中的bean最后创建，最先逐个销毁；失败和超时不影响其他bean，全部销毁结束后
+     *        作为一个BeansException的suppressed异常一起抛出
+     *        手动注册的单例不是容器创建的，只从注册表中移除，不会销毁
+     *        销毁单例之前先销毁所有线程的thread作用域bean
+     * @Date 2026/10/17 02:35
+     * @param beanDefinitionMap 容器中所有的BeanDefinition
+     * @param executor 销毁bean的线程池，为null时在当前线程依次销毁，没有超时
+     * @Return {@link int} 成功销毁的bean数量
+     **/
+    protected int destroySingletons(Map<String, BeanDefinition> beanDefinitionMap, Executor executor) {
+        List<Throwable> failures = new ArrayList<>();
+        int destroyed = destroySingletons(beanDefinitionMap, executor, failures);
+        throwDestroyFailures("failed to destroy " + failures.size() + " beans, " + destroyed + " beans were destroyed", failures);
+        return destroyed;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  同destroySingletons(beanDefinitionMap, executor)，失败和超时加入failures，不抛出，
+     *        供关闭时还要销毁其他bean的容器使用（例如BeanContainer的对象池）
+     * @Date 2026/10/17 14:55
+     * @param beanDefinitionMap 容器中所有的BeanDefinition
+     * @param executor 销毁bean的线程池，为null时在当前线程依次销毁，没有超时
+     * @param failures 收集销毁失败和超时的异常
+     * @Return {@link int} 成功销毁的bean数量
+     **/
+    protected int destroySingletons(Map<String, BeanDefinition> beanDefinitionMap, Executor executor, List<Throwable> failures) {
+        // thread作用域的bean可能依赖单例，先销毁
+        destroyAllThreadScopedBeans(failures);
+        BeanDependencyGraph graph = BeanDependencyGraph.build(beanDefinitionMap);
+        List<List<String>> groups = new ArrayList<>();
+        List<String> unresolved = new ArrayList<>(graph.getUnresolved());
+        Collections.reverse(unresolved);
+        for (String beanId : unresolved) {
+            groups.add(Collections.singletonList(beanId));
+        }
+        for (int i = graph.getLevels().size() - 1; i >= 0; i--) {
+            groups.add(graph.getLevels().get(i));
+        }
+
+        int destroyed = 0;
+        try {
+            for (List<String> group : groups) {
+                destroyed += destroyGroup(group, beanDefinitionMap, executor, failures);
+            }
+        } finally {
+            this.singletonObjects.clear();
+            this.earlySingletonObjects.clear();
+        }
+        return destroyed;
+    }
+
+    // 同时销毁一组互不依赖的单例，返回成功销毁的bean数量，失败和超时加入failures
+    private int destroyGroup(List<String> beanIds, Map<String, BeanDefinition> beanDefinitionMap, Executor executor,
+                             List<Throwable> failures) {
+        List<String> destroyIds = new ArrayList<>(beanIds.size());
+        List<Object> beans = new ArrayList<>(beanIds.size());
+        for (String beanId : beanIds) {
+            Object bean = this.singletonObjects.remove(beanId);
+            if (bean != null && hasDestroyCallback(beanDefinitionMap.get(beanId), bean)) {
+                destroyIds.add(beanId);
+                beans.add(bean);
+            }
+        }
+
+        int destroyed = 0;
+        if (executor == null) {
+            for (int i = 0; i < destroyIds.size(); i++) {
+                try {
+                    destroyBean(beanDefinitionMap.get(destroyIds.get(i)), destroyIds.get(i), beans.get(i));
+                    destroyed++;
+                } catch (BeansException e) {
+                    failures.add(e);
+                }
+            }
+            return destroyed;
+        }
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(destroyIds.size());
+        long start = System.nanoTime();
+        for (int i = 0; i < destroyIds.size(); i++) {
+            String beanId = destroyIds.get(i);
+            Object bean = beans.get(i);
+            tasks.add(CompletableFuture.runAsync(() -> destroyBean(beanDefinitionMap.get(beanId), beanId, bean), executor));
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(this.destroyTimeoutMillis) - (System.nanoTime() - start);
+            try {
+                tasks.get(i).get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                destroyed++;
+            } catch (TimeoutException e) {
+                failures.add(new BeansException("destroying bean '" + destroyIds.get(i) + "' did not finish within "
+                        + this.destroyTimeoutMillis + " ms, continuing shutdown"));
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            } catch (InterruptedException e) {
+                // 被中断时不再等待，剩下的bean仍在线程池中销毁
+                Thread.currentThread().interrupt();
+                failures.add(new BeansException("interrupted while destroying beans " + destroyIds.subList(i, destroyIds.size())));
+                break;
+            }
+        }
+        return destroyed;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  bean是否正在被创建
+     * @Date 2026/10/16 17:18
+     * @param beanId
+     * @Return {@link boolean}
+     **/
+    public boolean isSingletonCurrentlyInCreation(String beanId) {
+        return this.singletonsInCreation.containsKey(beanId);
+    }
+
+    private Object awaitSingleton(SingletonCreation creation) {
+        Thread current = Thread.currentThread();
+        if (creation.owner == current) {
+            return earlySingletonOrFail(creation.beanId);
+        }
+
+        this.waitingThreads.put(current, creation);
+        try {
+            // 沿着 等待的bean -> 创建它的线程 -> 该线程等待的bean 一直找下去，回到当前线程说明出现了循环等待
+            // 其他线程之间的循环由它们自己发现，这里最多走waitingThreads.size()步
+            SingletonCreation waiting = creation;
+            for (int steps = this.waitingThreads.size(); waiting != null && steps >= 0; steps--) {
+                if (waiting.owner == current) {
+                    // 创建它的线程正在等待当前线程，继续等待会死锁；提前暴露的引用属于另一个线程，
+                    // 它的属性可能还没有注入完，对当前线程也不保证可见，不能交出去
+                    throw new BeanCurrentlyInCreationException(creation.beanId, "circular reference across threads, bean is being created by thread "
+                            + creation.owner.getName() + ": " + describeCycle(creation.beanId));
+                }
+                waiting = this.waitingThreads.get(waiting.owner);
+            }
+            return creation.future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } finally {
+            this.waitingThreads.remove(current, creation);
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  循环依赖中再次获取正在创建的bean时，返回提前暴露的引用；
+     *        还没有实例化（构造器循环依赖）时抛出异常，异常信息包含完整的依赖路径，例如 a -> b -> a
+     * @Date 2026/10/16 18:10
+     * @param beanId
+     * @Return {@link Object}
+     **/
+    private Object earlySingletonOrFail(String beanId) {
+        Object early = this.earlySingletonObjects.get(beanId);
+        if (early != null) {
+            return early;
+        }
+        throw new BeanCurrentlyInCreationException(beanId, "unresolvable circular reference through constructor arguments: "
+                + describeCycle(beanId));
+    }
+
+    // 当前线程创建路径中从beanId开始的部分，例如 a -> b -> a；循环经过其他线程时先列出当前线程的部分
+    private String describeCycle(String beanId) {
+        StringBuilder cycle = new StringBuilder();
+        Deque<String> path = this.creationPath.get();
+        if (path != null) {
+            boolean inCycle = false;
+            for (String id : path) {
+                inCycle = inCycle || id.equals(beanId);
+                if (inCycle) {
+                    cycle.append(id).append(" -> ");
+                }
+            }
+            if (!inCycle) {
+                // 循环经过了其他线程，先列出当前线程的部分
+                for (String id : path) {
+                    cycle.append(id).append(" -> ");
+                }
+                cycle.append("(other thread) -> ");
+            }
+        }
+        return cycle.append(beanId).toString();
+    }
+
+    /**
+     * @desc： thread作用域的bean和创建它时使用的BeanDefinition，销毁时按创建时的配置调用destroy-method
+     */
+    private static final class ScopedInstance {
+
+        private final BeanDefinition beanDefinition;
+
+        private final Object bean;
+
+        // 在所属线程中的创建顺序
+        private final int order;
+
+        private ScopedInstance(BeanDefinition beanDefinition, Object bean, int order) {
+            this.beanDefinition = beanDefinition;
+            this.bean = bean;
+            this.order = order;
+        }
+    }
+
+    /**
+     * @desc： 一个线程的thread作用域bean，只有所属线程创建，容器关闭或线程结束后由其他线程销毁
+     */
+    private static final class ThreadScope {
+
+        // beanId -> bean
+        private final Map<String, ScopedInstance> beans = new ConcurrentHashMap<>(8);
+
+        // 所属线程，弱引用，线程结束后可以被回收
+        private final WeakReference<Thread> owner;
+
+        // 只由所属线程修改
+        private int created;
+
+        private ThreadScope(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        private boolean isOwnerFinished() {
+            Thread thread = this.owner.get();
+            return thread == null || !thread.isAlive();
+        }
+    }
+
+    /**
+     * @desc： 一个单例的创建记录，记录创建它的线程以及创建结果
+     */
+    private static final class SingletonCreation {
+
+        private final String beanId;
+
+        private final Thread owner;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private SingletonCreation(String beanId, Thread owner) {
+            this.beanId = beanId;
+            this.owner = owner;
+        }
+    }
+}
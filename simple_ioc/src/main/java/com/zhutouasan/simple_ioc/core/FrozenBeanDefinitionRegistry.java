@@ -0,0 +1,181 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * @desc： 加载完成后冻结的BeanDefinition注册表，只读
+ *          freeze时冻结所有BeanDefinition（见BeanDefinition#freeze），id、类名、依赖名在整个注册表中只保留一个实例，
+ *          依赖名与被依赖bean的id是同一个字符串；
+ *          查找使用开放寻址的数组，只保存BeanDefinition的引用，按它的id比较，线性探测，装载因子不超过0.5；
+ *          另一个数组按加载顺序保存BeanDefinition，用于遍历。put、remove等修改操作抛出UnsupportedOperationException，
+ *          reload时重新冻结一个新的注册表整体替换
+ *          每个BeanDefinition的内存占用（64位JVM，开启压缩指针）：
+ *              BeanDefinition对象 64字节（12字节对象头 + 10个引用 + int + 3个boolean，共59字节，按8字节对齐）；
+ *              注册表 12~20字节（查找数组2~4个槽位，每个4字节，加上顺序数组4字节）；
+ *              每个非空的依赖列表 16字节的列表对象 + 16+4n字节的数组（按8字节对齐），空列表共享，不占空间；
+ *              id和类名只在第一次出现时计算：String对象24字节 + 16+长度字节的byte[]（Latin1），相同类的bean共享类名
+ *          例如一个有一个属性依赖、没有构造器参数的bean约118字节，不含字符串和第一次创建时生成的注入计划；
+ *          冻结前ArrayList + LinkedList + ConcurrentHashMap的节点同样的bean约218字节
+ * @author: zhutouasan
+ * @date： 2026/10/17 03:40
+ */
+public final class FrozenBeanDefinitionRegistry extends AbstractMap<String, BeanDefinition> {
+
+    private static final FrozenBeanDefinitionRegistry EMPTY = new FrozenBeanDefinitionRegistry(new BeanDefinition[2], new BeanDefinition[0]);
+
+    // 开放寻址的查找表，长度为2的幂，空槽位为null
+    private final BeanDefinition[] table;
+
+    // 按加载顺序排列
+    private final BeanDefinition[] ordered;
+
+    private Set<Entry<String, BeanDefinition>> entrySet;
+
+    private FrozenBeanDefinitionRegistry(BeanDefinition[] table, BeanDefinition[] ordered) {
+        this.table = table;
+        this.ordered = ordered;
+    }
+
+    public static FrozenBeanDefinitionRegistry empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  冻结beanDefinitionMap中的所有BeanDefinition并构建注册表，beanDefinitionMap本身不会被修改
+     *        已经冻结的BeanDefinition（reload时没有变化的bean）直接复用，它们的id仍然作为依赖名的共享实例
+     * @Date 2026/10/17 03:45
+     * @param beanDefinitionMap beanId -> BeanDefinition，key必须与BeanDefinition的id相同
+     * @Return {@link FrozenBeanDefinitionRegistry}
+     **/
+    public static FrozenBeanDefinitionRegistry freeze(Map<String, BeanDefinition> beanDefinitionMap) {
+        if (beanDefinitionMap instanceof FrozenBeanDefinitionRegistry) {
+            return (FrozenBeanDefinitionRegistry) beanDefinitionMap;
+        }
+        BeanDefinition[] ordered = new BeanDefinition[beanDefinitionMap.size()];
+        Map<String, String> strings = new HashMap<>(beanDefinitionMap.size() * 2);
+        int count = 0;
+        for (Entry<String, BeanDefinition> entry : beanDefinitionMap.entrySet()) {
+            BeanDefinition beanDefinition = entry.getValue();
+            if (!entry.getKey().equals(beanDefinition.getId())) {
+                throw new IllegalArgumentException("bean definition '" + beanDefinition.getId()
+                        + "' is registered under a different id '" + entry.getKey() + "'");
+            }
+            // 先登记所有id，依赖名都指向被依赖bean的id实例
+            strings.putIfAbsent(beanDefinition.getId(), beanDefinition.getId());
+            ordered[count++] = beanDefinition;
+        }
+        for (BeanDefinition beanDefinition : ordered) {
+            beanDefinition.freeze(value -> value == null ? null : strings.computeIfAbsent(value, key -> key));
+        }
+
+        BeanDefinition[] table = new BeanDefinition[tableSize(ordered.length)];
+        for (BeanDefinition beanDefinition : ordered) {
+            int mask = table.length - 1;
+            int index = spread(beanDefinition.getId().hashCode()) & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = beanDefinition;
+        }
+        return new FrozenBeanDefinitionRegistry(table, ordered);
+    }
+
+    // 不小于2倍数量的2的幂，保证总有空槽位，探测序列不会太长
+    private static int tableSize(int count) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, count * 2 - 1)) << 1);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public BeanDefinition get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        BeanDefinition[] table = this.table;
+        int mask = table.length - 1;
+        int index = spread(key.hashCode()) & mask;
+        BeanDefinition beanDefinition;
+        while ((beanDefinition = table[index]) != null) {
+            String id = beanDefinition.getId();
+            if (id == key || id.equals(key)) {
+                return beanDefinition;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return this.ordered.length;
+    }
+
+    @Override
+    public Collection<BeanDefinition> values() {
+        return Collections.unmodifiableList(Arrays.asList(this.ordered));
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super BeanDefinition> action) {
+        for (BeanDefinition beanDefinition : this.ordered) {
+            action.accept(beanDefinition.getId(), beanDefinition);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, BeanDefinition>> entrySet() {
+        Set<Entry<String, BeanDefinition>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, BeanDefinition>>() {
+                @Override
+                public Iterator<Entry<String, BeanDefinition>> iterator() {
+                    return new Iterator<Entry<String, BeanDefinition>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.next < ordered.length;
+                        }
+
+                        @Override
+                        public Entry<String, BeanDefinition> next() {
+                            if (this.next >= ordered.length) {
+                                throw new NoSuchElementException();
+                            }
+                            BeanDefinition beanDefinition = ordered[this.next++];
+                            return new SimpleImmutableEntry<>(beanDefinition.getId(), beanDefinition);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ordered.length;
+                }
+            };
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+}
@@ -0,0 +1,67 @@
+package com.zhutouasan.simple_ioc.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * @desc： 延迟初始化的bean注入到立即创建的bean时使用的代理，只支持接口类型
+ *          第一次调用接口方法时才通过getBean创建真正的bean，之后直接转发给它；
+ *          equals和hashCode按代理对象本身计算，不会触发创建
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:10
+ */
+final class LazyBeanProxy implements InvocationHandler {
+
+    private final BeanFactory beanFactory;
+
+    private final String beanId;
+
+    // 第一次调用时获取，单例由容器保证只创建一次，这里重复获取也只会拿到同一个对象
+    private volatile Object target;
+
+    private LazyBeanProxy(BeanFactory beanFactory, String beanId) {
+        this.beanFactory = beanFactory;
+        this.beanId = beanId;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  创建实现了type接口的代理
+     * @Date 2026/10/16 23:12
+     * @param beanFactory 获取真正的bean的容器
+     * @param beanId
+     * @param type 注入位置的参数类型，必须是接口
+     * @Return {@link Object}
+     **/
+    static Object create(BeanFactory beanFactory, String beanId, Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new LazyBeanProxy(beanFactory, beanId));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+        }
+
+        Object target = this.target;
+        if (target == null) {
+            target = this.beanFactory.getBean(this.beanId);
+            if (target == null) {
+                throw new BeansException("lazy bean '" + this.beanId + "' could not be created");
+            }
+            this.target = target;
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.zhutouasan.simple_ioc.core;
+
+import java.util.List;
+
+/**
+ * @desc： 按类型获取bean时找到了多个候选bean
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:45
+ */
+public class NoUniqueBeanDefinitionException extends BeansException {
+
+    private final List<String> beanIds;
+
+    public NoUniqueBeanDefinitionException(Class<?> type, List<String> beanIds) {
+        super("expected a single bean of type " + type.getName() + " but found " + beanIds.size() + ": " + beanIds);
+        this.beanIds = beanIds;
+    }
+
+    public List<String> getBeanIds() {
+        return beanIds;
+    }
+}
@@ -0,0 +1,201 @@
+package com.zhutouasan.simple_ioc.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @desc： 容器启动的统计信息
+ *          sequentialNanos是所有Bean各自创建耗时之和，相当于串行创建需要的时间，
+ *          与并行阶段的实际耗时wallNanos相比得到加速比；
+ *          每个bean的各阶段耗时见BeanStartupMetrics，关键路径是依赖图中自身耗时之和最大的一条依赖链，
+ *          并行创建时启动时间不会短于关键路径
+ * @author: zhutouasan
+ * @date： 2026/10/16 16:30
+ */
+public final class StartupReport {
+
+    private final int beanCount;
+
+    private final int levelCount;
+
+    // 最宽的一层包含的Bean数量，即理论上能同时创建的最大数量
+    private final int maxLevelWidth;
+
+    private final int parallelism;
+
+    // 解析xml或注册生成的BeanDefinition的耗时
+    private final long parseNanos;
+
+    // 解析了xml的配置文件数，使用生成的初始化器时为0
+    private final int parsedConfigCount;
+
+    // 从BeanDefinitionSnapshot读取、跳过解析的配置文件数
+    private final int snapshotConfigCount;
+
+    private final long wallNanos;
+
+    private final long sequentialNanos;
+
+    // beanId -> 各阶段耗时
+    private final Map<String, BeanStartupMetrics> beanMetrics;
+
+    // 关键路径，按创建顺序排列，第一个bean没有依赖
+    private final List<String> criticalPath;
+
+    private final long criticalPathNanos;
+
+    public StartupReport(int beanCount, int levelCount, int maxLevelWidth, int parallelism, long parseNanos,
+                         int parsedConfigCount, int snapshotConfigCount, long wallNanos, long sequentialNanos,
+                         Map<String, BeanStartupMetrics> beanMetrics, List<String> criticalPath) {
+        this.beanCount = beanCount;
+        this.levelCount = levelCount;
+        this.maxLevelWidth = maxLevelWidth;
+        this.parallelism = parallelism;
+        this.parseNanos = parseNanos;
+        this.parsedConfigCount = parsedConfigCount;
+        this.snapshotConfigCount = snapshotConfigCount;
+        this.wallNanos = wallNanos;
+        this.sequentialNanos = sequentialNanos;
+        this.beanMetrics = Collections.unmodifiableMap(beanMetrics);
+        this.criticalPath = Collections.unmodifiableList(criticalPath);
+        long nanos = 0;
+        for (String beanId : criticalPath) {
+            nanos += beanMetrics.get(beanId).getTotalNanos();
+        }
+        this.criticalPathNanos = nanos;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  沿依赖图按拓扑顺序计算每个bean到叶子的最长耗时，取最大的一条
+     *        循环依赖中的bean最后处理，它们之间的依赖不计入路径
+     * @Date 2026/10/16 22:35
+     * @param graph
+     * @param beanMetrics
+     * @Return {@link List} 按创建顺序排列的关键路径
+     **/
+    static List<String> criticalPath(BeanDependencyGraph graph, Map<String, BeanStartupMetrics> beanMetrics) {
+        Map<String, Long> longest = new HashMap<>(beanMetrics.size() * 2);
+        Map<String, String> next = new HashMap<>(beanMetrics.size() * 2);
+        String end = null;
+
+        List<List<String>> order = new ArrayList<>(graph.getLevels());
+        order.add(graph.getUnresolved());
+        for (List<String> level : order) {
+            for (String beanId : level) {
+                BeanStartupMetrics metrics = beanMetrics.get(beanId);
+                if (metrics == null) {
+                    continue;
+                }
+                long dependencyNanos = 0;
+                for (String dependency : graph.getDependencies(beanId)) {
+                    Long nanos = longest.get(dependency);
+                    if (nanos != null && nanos > dependencyNanos) {
+                        dependencyNanos = nanos;
+                        next.put(beanId, dependency);
+                    }
+                }
+                longest.put(beanId, metrics.getTotalNanos() + dependencyNanos);
+                if (end == null || longest.get(beanId) > longest.get(end)) {
+                    end = beanId;
+                }
+            }
+        }
+
+        List<String> path = new ArrayList<>();
+        for (String beanId = end; beanId != null; beanId = next.get(beanId)) {
+            path.add(beanId);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public int getBeanCount() {
+        return beanCount;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public int getMaxLevelWidth() {
+        return maxLevelWidth;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public int getParsedConfigCount() {
+        return parsedConfigCount;
+    }
+
+    public int getSnapshotConfigCount() {
+        return snapshotConfigCount;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getSequentialNanos() {
+        return sequentialNanos;
+    }
+
+    public Map<String, BeanStartupMetrics> getBeanMetrics() {
+        return beanMetrics;
+    }
+
+    public BeanStartupMetrics getBeanMetrics(String beanId) {
+        return beanMetrics.get(beanId);
+    }
+
+    public List<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public long getCriticalPathNanos() {
+        return criticalPathNanos;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  自身耗时最长的limit个bean，按耗时从大到小排列
+     * @Date 2026/10/16 22:38
+     * @param limit
+     * @Return {@link List}
+     **/
+    public List<BeanStartupMetrics> getSlowestBeans(int limit) {
+        List<BeanStartupMetrics> beans = new ArrayList<>(beanMetrics.values());
+        beans.sort(Comparator.comparingLong(BeanStartupMetrics::getTotalNanos).reversed());
+        return beans.subList(0, Math.min(limit, beans.size()));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  加速比，串行耗时 / 并行实际耗时
+     * @Date 2026/10/16 16:33
+     * @Return {@link double}
+     **/
+    public double getSpeedup() {
+        return wallNanos == 0 ? 1.0 : (double) sequentialNanos / wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("parsed in %d ms (%d files parsed, %d from snapshot), created %d beans in %d levels (max width %d) "
+                        + "on %d threads: %d ms, sequential %d ms, speedup %.2fx, critical path %d beans %d ms",
+                TimeUnit.NANOSECONDS.toMillis(parseNanos), parsedConfigCount, snapshotConfigCount, beanCount, levelCount, maxLevelWidth, parallelism,
+                TimeUnit.NANOSECONDS.toMillis(wallNanos), TimeUnit.NANOSECONDS.toMillis(sequentialNanos), getSpeedup(),
+                criticalPath.size(), TimeUnit.NANOSECONDS.toMillis(criticalPathNanos));
+    }
+}
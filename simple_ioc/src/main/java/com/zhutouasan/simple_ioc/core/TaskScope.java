@@ -0,0 +1,172 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+/**
+ * @desc： task作用域，一个任务中getBean得到同一个实例，close时按创建的相反顺序销毁
+ *          由容器的openTaskScope创建并绑定到当前线程，close时恢复之前绑定的TaskScope，支持嵌套；
+ *          任务中提交到其他线程的子任务通过wrap绑定同一个TaskScope，共享其中的bean；
+ *          没有获取过task作用域的bean时不分配任何存储，创建和丢弃的开销只有这个对象本身；
+ *          整个过程不使用synchronized，虚拟线程在getBean中不会固定到载体线程上
+ *          使用方式：
+ *          try (TaskScope scope = context.openTaskScope()) {
+ *              ...context.getBean("requestContext")...
+ *          }
+ * @author: zhutouasan
+ * @date： 2026/10/17 01:30
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private static final AtomicReferenceFieldUpdater<TaskScope, ScopedBeans> BEANS =
+            AtomicReferenceFieldUpdater.newUpdater(TaskScope.class, ScopedBeans.class, "beans");
+
+    // 容器中保存当前线程TaskScope的ThreadLocal
+    private final ThreadLocal<TaskScope> binding;
+
+    // 打开之前当前线程绑定的TaskScope，关闭时恢复
+    private final TaskScope previous;
+
+    private final Thread owner;
+
+    // 第一次获取task作用域的bean时创建
+    private volatile ScopedBeans beans;
+
+    private volatile boolean closed;
+
+    TaskScope(ThreadLocal<TaskScope> binding) {
+        this.binding = binding;
+        this.previous = binding.get();
+        this.owner = Thread.currentThread();
+        binding.set(this);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取这个任务中的bean，不存在时创建；多个线程同时创建时只保留第一个，其余的立即销毁
+     * @Date 2026/10/17 01:32
+     * @param beanDefinition task作用域的bean
+     * @param factory 创建bean的方法，返回null表示创建失败
+     * @Return {@link Object}
+     **/
+    Object getBean(BeanDefinition beanDefinition, Supplier<Object> factory) {
+        String beanId = beanDefinition.getId();
+        if (this.closed) {
+            throw new BeansException("task scope of bean '" + beanId + "' has already been closed");
+        }
+        ScopedBeans beans = this.beans;
+        if (beans == null) {
+            beans = new ScopedBeans();
+            if (!BEANS.compareAndSet(this, null, beans)) {
+                beans = this.beans;
+            }
+        }
+
+        Object bean = beans.objects.get(beanId);
+        if (bean != null) {
+            return bean;
+        }
+        bean = factory.get();
+        if (bean == null) {
+            return null;
+        }
+        Object existing = beans.objects.putIfAbsent(beanId, bean);
+        if (existing != null) {
+            // 另一个线程先放入了同一个bean，销毁多创建的这个
+            DefaultSingletonBeanRegistry.destroyBean(beanDefinition, beanId, bean);
+            return existing;
+        }
+        beans.creationOrder.push(beanDefinition);
+        return bean;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  在其他线程中以这个TaskScope执行任务，执行完后恢复那个线程原来的绑定，不会关闭TaskScope
+     * @Date 2026/10/17 01:35
+     * @param task
+     * @Return {@link Runnable}
+     **/
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            TaskScope outer = this.binding.get();
+            this.binding.set(this);
+            try {
+                task.run();
+            } finally {
+                restore(outer);
+            }
+        };
+    }
+
+    public <V> Callable<V> wrap(Callable<V> task) {
+        return () -> {
+            TaskScope outer = this.binding.get();
+            this.binding.set(this);
+            try {
+                return task.call();
+            } finally {
+                restore(outer);
+            }
+        };
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  结束任务：恢复当前线程之前的TaskScope，按创建的相反顺序销毁其中的bean，重复调用没有效果
+     * @Date 2026/10/17 01:37
+     * @Return
+     **/
+    @Override
+    public void close() {
+        if (Thread.currentThread() != this.owner) {
+            throw new IllegalStateException("task scope must be closed by the thread that opened it: " + this.owner.getName());
+        }
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        restore(this.previous);
+
+        ScopedBeans beans = this.beans;
+        if (beans != null) {
+            List<Throwable> failures = new ArrayList<>();
+            for (BeanDefinition beanDefinition : beans.creationOrder) {
+                DefaultSingletonBeanRegistry.destroyBean(beanDefinition, beans.objects.remove(beanDefinition.getId()), failures);
+            }
+            DefaultSingletonBeanRegistry.throwDestroyFailures("failed to destroy " + failures.size()
+                    + " task scoped beans", failures);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void restore(TaskScope scope) {
+        if (scope == null) {
+            this.binding.remove();
+        } else {
+            this.binding.set(scope);
+        }
+    }
+
+    /**
+     * @desc： 任务中的bean，可能被wrap后的多个线程同时访问
+     */
+    private static final class ScopedBeans {
+
+        private final Map<String, Object> objects = new ConcurrentHashMap<>(8);
+
+        // 后创建的在前面，销毁时从头遍历
+        private final ConcurrentLinkedDeque<BeanDefinition> creationOrder = new ConcurrentLinkedDeque<>();
+    }
+}
@@ -0,0 +1,559 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanClassPreloader;
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.StringUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * @desc： 使用StAX流式解析xml配置，边读边生成BeanDefinition，不构建整个文档的DOM，
+ *          内存占用只和单个bean标签有关，与配置文件的大小无关
+ *          解析规则与原来基于dom4j的loadBeanDefinitions一致：
+ *          根元素下除import以外的每个子元素都是一个bean，只读取它直接包含的constructor-arg和property，
+ *          遇到缺少ref/name的标签就停止解析同类的后续标签，重复的id以后出现的为准；
+ *          bean的lazy-init为true/false时以它为准，为default或没有配置时使用根元素的default-lazy-init，
+ *          根元素也没有配置时使用reader的defaultLazyInit；
+ *          配置了快照目录时，xml没有变化就直接从BeanDefinitionSnapshot读取，完全跳过解析
+ *
+ *          可以同时加载多个配置，位置中含有*或?时按classpath通配符匹配所有classpath根下的文件，按URL排序；
+ *          以classpath*:开头但不含通配符时加载所有classpath根下的同名文件，按classpath的顺序；
+ *          根元素下的<import resource="..."/>引入其他配置，resource相对于当前文件，以classpath:开头时从classpath查找；
+ *          每个文件在executor上单独解析，解析到import时立即提交被引入的文件，所以解析时间取决于核数而不是文件数；
+ *          全部解析完后按固定顺序合并：按位置的顺序深度优先，每个文件先合并它引入的文件再合并自己的bean，
+ *          同一个文件只合并第一次出现的位置，重复的id以后合并的为准，结果与解析完成的先后无关；
+ *          设置了BeanClassPreloader时，每解析完一个bean（或从快照读出）就提交后台加载它的类；
+ *          快照读写失败不影响加载，通过BeanLifecycleRecorder#snapshotFailed报告
+ * @author: zhutouasan
+ * @date： 2026/10/16 20:30
+ */
+public class XmlBeanDefinitionReader {
+
+    // 工厂配置完成后只用来创建reader，可以在多个线程之间共享
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final String CLASSPATH_ALL_PREFIX = "classpath*:";
+
+    // 引入其他配置文件的标签
+    private static final String IMPORT_ELEMENT = "import";
+
+    // 根元素的深度
+    private static final int ROOT_DEPTH = 1;
+
+    // 根元素下bean标签的深度
+    private static final int BEAN_DEPTH = 2;
+
+    // 没有配置scope时使用的作用域
+    private final String defaultScope;
+
+    // 是否解析constructor-arg，XmlBeanFactory只支持setter注入
+    private final boolean constructorArgumentsEnabled;
+
+    // 快照保存的目录，为null时每次都解析xml
+    private Path snapshotDirectory = BeanDefinitionSnapshot.defaultDirectory();
+
+    // xml中没有配置lazy-init和default-lazy-init时是否延迟初始化
+    private boolean defaultLazyInit;
+
+    // 解析配置文件的线程池，为null时在调用线程中依次解析
+    private Executor executor = ForkJoinPool.commonPool();
+
+    // 解析到bean时提交后台加载它的类，为null时不预加载
+    private BeanClassPreloader beanClassPreloader;
+
+    // 报告快照读写失败
+    private BeanLifecycleRecorder recorder = BeanLifecycleRecorder.CURRENT;
+
+    // 最近一次加载实际读取的配置文件，包括被引入的文件，按合并顺序排列
+    private volatile List<URL> loadedResources = Collections.emptyList();
+
+    // 解析了xml的配置文件数，包括快照失效后重新解析的
+    private final AtomicInteger parsedCount = new AtomicInteger();
+
+    // 直接从快照读取、没有解析xml的配置文件数
+    private final AtomicInteger snapshotHitCount = new AtomicInteger();
+
+    public XmlBeanDefinitionReader(String defaultScope, boolean constructorArgumentsEnabled) {
+        this.defaultScope = defaultScope;
+        this.constructorArgumentsEnabled = constructorArgumentsEnabled;
+    }
+
+    public XmlBeanDefinitionReader setSnapshotDirectory(Path snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+        return this;
+    }
+
+    public XmlBeanDefinitionReader setDefaultLazyInit(boolean defaultLazyInit) {
+        this.defaultLazyInit = defaultLazyInit;
+        return this;
+    }
+
+    public XmlBeanDefinitionReader setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public XmlBeanDefinitionReader setBeanClassPreloader(BeanClassPreloader beanClassPreloader) {
+        this.beanClassPreloader = beanClassPreloader;
+        return this;
+    }
+
+    public XmlBeanDefinitionReader setRecorder(BeanLifecycleRecorder recorder) {
+        this.recorder = recorder;
+        return this;
+    }
+
+    public List<URL> getLoadedResources() {
+        return loadedResources;
+    }
+
+    public int getParsedCount() {
+        return parsedCount.get();
+    }
+
+    public int getSnapshotHitCount() {
+        return snapshotHitCount.get();
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  从classpath读取配置文件并注册其中的BeanDefinition
+     * @Date 2026/10/16 20:32
+     * @param configFile xml文件的路径
+     * @param beanDefinitionMap
+     * @Return {@link int} 注册的bean数量
+     **/
+    public int loadBeanDefinitions(String configFile, Map<String, BeanDefinition> beanDefinitionMap) {
+        return loadBeanDefinitions(new String[]{configFile}, beanDefinitionMap);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  并行解析多个配置以及它们引入的配置，按固定顺序合并后注册
+     * @Date 2026/10/16 23:55
+     * @param locations classpath上的路径或通配符
+     * @param beanDefinitionMap
+     * @Return {@link int} 注册的bean数量，重复的id只算一次
+     **/
+    public int loadBeanDefinitions(String[] locations, Map<String, BeanDefinition> beanDefinitionMap) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<URL> resources = new ArrayList<>();
+        for (String location : locations) {
+            resources.addAll(resolveLocation(location, classLoader));
+        }
+
+        Map<String, CompletableFuture<ParsedConfig>> parsed = new ConcurrentHashMap<>();
+        for (URL resource : resources) {
+            parseAsync(resource, classLoader, parsed);
+        }
+
+        Map<String, BeanDefinition> beans = new LinkedHashMap<>();
+        Map<String, URL> merged = new LinkedHashMap<>();
+        for (URL resource : resources) {
+            merge(resource, parsed, merged, beans);
+        }
+        beanDefinitionMap.putAll(beans);
+        this.loadedResources = Collections.unmodifiableList(new ArrayList<>(merged.values()));
+        return beans.size();
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  把位置解析成配置文件，普通路径不存在时抛出异常，通配符或classpath*:没有匹配到文件时返回空列表
+     * @Date 2026/10/16 23:57
+     * @param location
+     * @param classLoader
+     * @Return {@link List}
+     **/
+    private static List<URL> resolveLocation(String location, ClassLoader classLoader) {
+        String path = location;
+        boolean allRoots = path.startsWith(CLASSPATH_ALL_PREFIX);
+        if (allRoots) {
+            path = path.substring(CLASSPATH_ALL_PREFIX.length());
+        } else if (path.startsWith(CLASSPATH_PREFIX)) {
+            path = path.substring(CLASSPATH_PREFIX.length());
+        }
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+
+        if (allRoots && !isPattern(path)) {
+            try {
+                return Collections.list(classLoader.getResources(path));
+            } catch (IOException e) {
+                throw new BeansException("failed to resolve config location " + location, e);
+            }
+        }
+        if (!isPattern(path)) {
+            URL resource = classLoader.getResource(path);
+            if (resource == null) {
+                throw new BeansException("could not find config file " + location + " on classpath");
+            }
+            return Collections.singletonList(resource);
+        }
+
+        try {
+            List<URL> resources = new ArrayList<>();
+            for (Resource resource : new PathMatchingResourcePatternResolver(classLoader).getResources(CLASSPATH_ALL_PREFIX + path)) {
+                resources.add(resource.getURL());
+            }
+            resources.sort(Comparator.comparing(URL::toString));
+            return resources;
+        } catch (IOException e) {
+            throw new BeansException("failed to resolve config location " + location, e);
+        }
+    }
+
+    // 位置中含有*或?时按通配符匹配
+    private static boolean isPattern(String location) {
+        return location.indexOf('*') >= 0 || location.indexOf('?') >= 0;
+    }
+
+    // 每个文件只提交一次，解析完成前先提交它引入的文件
+    private void parseAsync(URL resource, ClassLoader classLoader, Map<String, CompletableFuture<ParsedConfig>> parsed) {
+        CompletableFuture<ParsedConfig> future = new CompletableFuture<>();
+        if (parsed.putIfAbsent(resource.toString(), future) != null) {
+            return;
+        }
+
+        Runnable task = () -> {
+            try {
+                ParsedConfig config = parse(resource, classLoader);
+                for (URL imported : config.imports) {
+                    parseAsync(imported, classLoader, parsed);
+                }
+                future.complete(config);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        if (this.executor == null) {
+            task.run();
+        } else {
+            this.executor.execute(task);
+        }
+    }
+
+    // 深度优先合并，被引入的文件在引入它的文件之前合并
+    private static void merge(URL resource, Map<String, CompletableFuture<ParsedConfig>> parsed, Map<String, URL> merged,
+                              Map<String, BeanDefinition> beans) {
+        if (merged.putIfAbsent(resource.toString(), resource) != null) {
+            return;
+        }
+        ParsedConfig config;
+        try {
+            config = parsed.get(resource.toString()).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BeansException) {
+                throw (BeansException) e.getCause();
+            }
+            throw new BeansException("failed to parse config file " + resource, e.getCause());
+        }
+        for (URL imported : config.imports) {
+            merge(imported, parsed, merged, beans);
+        }
+        beans.putAll(config.beans);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  解析一个配置文件，得到其中的bean和引入的文件
+     * @Date 2026/10/16 23:59
+     * @param resource
+     * @param classLoader 查找classpath:开头的引入文件
+     * @Return {@link ParsedConfig}
+     **/
+    private ParsedConfig parse(URL resource, ClassLoader classLoader) throws IOException, XMLStreamException {
+        ParsedConfig config = new ParsedConfig();
+        List<String> imports = new ArrayList<>();
+        if (this.snapshotDirectory == null) {
+            try (InputStream inputStream = resource.openStream()) {
+                parse(inputStream, config.beans, imports);
+            }
+            this.parsedCount.incrementAndGet();
+        } else {
+            loadBeanDefinitionsWithSnapshot(resource, config.beans, imports);
+        }
+
+        for (String imported : imports) {
+            if (imported.startsWith(CLASSPATH_PREFIX) || imported.startsWith(CLASSPATH_ALL_PREFIX)
+                    || isPattern(imported)) {
+                config.imports.addAll(resolveLocation(imported, classLoader));
+            } else {
+                config.imports.add(new URL(resource, imported));
+            }
+        }
+        return config;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  源xml与快照一致时直接读取快照，否则解析xml并重新生成快照
+     *        先以流的方式计算xml的长度和CRC，不保存xml的内容，没有命中快照时才重新打开xml解析
+     *        快照读写失败不影响启动，只是这次没有加速，失败原因交给recorder
+     * @Date 2026/10/16 21:20
+     * @param resource 配置文件的位置，用于区分同名的配置文件
+     * @param beanDefinitionMap
+     * @param imports 引入的文件
+     * @Return
+     **/
+    private void loadBeanDefinitionsWithSnapshot(URL resource, Map<String, BeanDefinition> beanDefinitionMap,
+                                                 List<String> imports) throws IOException, XMLStreamException {
+        CRC32 crc = new CRC32();
+        long length;
+        try (InputStream inputStream = new CheckedInputStream(resource.openStream(), crc)) {
+            length = drain(inputStream);
+        }
+        int checksum = (int) crc.getValue();
+        Path snapshot = this.snapshotDirectory.resolve(snapshotFileName(resource));
+
+        Map<String, BeanDefinition> beans = new LinkedHashMap<>();
+        List<String> resources = new ArrayList<>();
+        try {
+            if (BeanDefinitionSnapshot.read(snapshot, length, checksum, beans, resources)) {
+                if (this.beanClassPreloader != null) {
+                    beans.values().forEach(this.beanClassPreloader::preload);
+                }
+                beanDefinitionMap.putAll(beans);
+                imports.addAll(resources);
+                this.snapshotHitCount.incrementAndGet();
+                return;
+            }
+        } catch (IOException e) {
+            beans.clear();
+            resources.clear();
+            this.recorder.snapshotFailed(resource, snapshot, e);
+        }
+
+        // 解析时再计算一次CRC（解析器会读到文档末尾），与前面不一致说明xml在加载期间被修改，这次不写快照
+        CRC32 parsedCrc = new CRC32();
+        try (InputStream inputStream = new CheckedInputStream(resource.openStream(), parsedCrc)) {
+            parse(inputStream, beans, resources);
+        }
+        this.parsedCount.incrementAndGet();
+        if ((int) parsedCrc.getValue() == checksum) {
+            try {
+                BeanDefinitionSnapshot.write(snapshot, length, checksum, beans.values(), resources);
+            } catch (IOException e) {
+                this.recorder.snapshotFailed(resource, snapshot, e);
+            }
+        }
+        beanDefinitionMap.putAll(beans);
+        imports.addAll(resources);
+    }
+
+    // 快照的内容与配置文件的位置和解析规则都有关，不同容器读取同一个xml得到的BeanDefinition可能不同
+    private String snapshotFileName(URL resource) {
+        String key = resource + "|" + this.defaultScope + "|" + this.constructorArgumentsEnabled + "|" + this.defaultLazyInit;
+        String path = resource.getPath();
+        String name = path.substring(path.lastIndexOf('/') + 1).replaceAll("[^A-Za-z0-9._-]", "_");
+        return name + "-" + Integer.toHexString(key.hashCode()) + ".snapshot";
+    }
+
+    // 读完输入流，只返回读取的字节数，内容不保存
+    private static long drain(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[8192];
+        long length = 0;
+        int n;
+        while ((n = inputStream.read(buffer)) != -1) {
+            length += n;
+        }
+        return length;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  解析xml并注册BeanDefinition，不负责关闭输入流
+     *        没有文件位置，无法解析相对路径，import标签被忽略
+     * @Date 2026/10/16 20:35
+     * @param inputStream
+     * @param beanDefinitionMap
+     * @Return {@link int} 注册的bean数量
+     **/
+    public int loadBeanDefinitions(InputStream inputStream, Map<String, BeanDefinition> beanDefinitionMap) throws XMLStreamException {
+        return parse(inputStream, beanDefinitionMap, null);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  解析xml并注册BeanDefinition，import的resource放入imports，不解析被引入的文件，不负责关闭输入流
+     * @Date 2026/10/17 15:10
+     * @param inputStream
+     * @param beanDefinitionMap
+     * @param imports 为null时忽略import标签
+     * @Return {@link int} 注册的bean数量
+     **/
+    public int loadBeanDefinitions(InputStream inputStream, Map<String, BeanDefinition> beanDefinitionMap,
+                                   List<String> imports) throws XMLStreamException {
+        return parse(inputStream, beanDefinitionMap, imports);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  解析xml，bean放入beanDefinitionMap，import的resource放入imports
+     * @Date 2026/10/17 00:02
+     * @param inputStream
+     * @param beanDefinitionMap
+     * @param imports 为null时忽略import标签
+     * @Return {@link int} 解析到的bean标签数量
+     **/
+    private int parse(InputStream inputStream, Map<String, BeanDefinition> beanDefinitionMap, List<String> imports) throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            int count = 0;
+            int depth = 0;
+            BeanDefinition beanDefinition = null;
+            boolean documentLazyInit = this.defaultLazyInit;
+            boolean constructorArgumentsEnded = false;
+            boolean propertiesEnded = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == ROOT_DEPTH) {
+                        documentLazyInit = parseLazyInit(attribute(reader, "default-lazy-init"), this.defaultLazyInit);
+                    } else if (depth == BEAN_DEPTH && IMPORT_ELEMENT.equals(reader.getLocalName())) {
+                        String resource = attribute(reader, "resource");
+                        if (imports != null && StringUtils.hasLength(resource)) {
+                            imports.add(resource.trim());
+                        }
+                    } else if (depth == BEAN_DEPTH) {
+                        beanDefinition = new BeanDefinition(attribute(reader, "id"), attribute(reader, "class"));
+                        parseScopeAttribute(reader, beanDefinition);
+                        beanDefinition.setLazyInit(parseLazyInit(attribute(reader, "lazy-init"), documentLazyInit));
+                        parseLifecycleAttributes(reader, beanDefinition);
+                        constructorArgumentsEnded = !this.constructorArgumentsEnabled;
+                        propertiesEnded = false;
+                    } else if (depth == BEAN_DEPTH + 1 && beanDefinition != null) {
+                        String name = reader.getLocalName();
+                        if (!constructorArgumentsEnded && "constructor-arg".equals(name)) {
+                            String argumentName = attribute(reader, "ref");
+                            if (StringUtils.hasLength(argumentName)) {
+                                beanDefinition.getConstructorArguments().add(argumentName);
+                            } else {
+                                constructorArgumentsEnded = true;
+                            }
+                        } else if (!propertiesEnded && "property".equals(name)) {
+                            String propertyName = attribute(reader, "name");
+                            // 有value时是字面值，否则name就是依赖的beanId
+                            String value = attribute(reader, "value");
+                            if (StringUtils.hasLength(propertyName) && value != null) {
+                                beanDefinition.addPropertyValue(propertyName, value);
+                            } else if (StringUtils.hasLength(propertyName)) {
+                                beanDefinition.getPropertyNames().add(propertyName);
+                            } else {
+                                propertiesEnded = true;
+                            }
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == BEAN_DEPTH && beanDefinition != null) {
+                        if (this.beanClassPreloader != null) {
+                            this.beanClassPreloader.preload(beanDefinition);
+                        }
+                        beanDefinitionMap.put(beanDefinition.getId(), beanDefinition);
+                        beanDefinition = null;
+                        count++;
+                    }
+                    depth--;
+                }
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  获取bean的作用域和对象池大小
+     * @Date 2026/10/16 20:38
+     * @param reader 停在bean标签上的reader
+     * @param beanDefinition 定义类信息
+     * @Return
+     **/
+    private void parseScopeAttribute(XMLStreamReader reader, BeanDefinition beanDefinition) {
+        beanDefinition.setScope(this.defaultScope);
+        String scope = attribute(reader, "scope");
+        if (StringUtils.hasLength(scope)) {
+            beanDefinition.setScope(scope);
+        }
+
+        String poolSize = attribute(reader, "pool-size");
+        if (StringUtils.hasLength(poolSize)) {
+            beanDefinition.setPoolSize(Integer.parseInt(poolSize));
+        }
+    }
+
+    // init-method和destroy-method为空时不调用，async-init只有为true时生效
+    private static void parseLifecycleAttributes(XMLStreamReader reader, BeanDefinition beanDefinition) {
+        String initMethod = attribute(reader, "init-method");
+        beanDefinition.setInitMethodName(StringUtils.hasLength(initMethod) ? initMethod.trim() : null);
+        beanDefinition.setAsyncInit(Boolean.parseBoolean(attribute(reader, "async-init")));
+        String destroyMethod = attribute(reader, "destroy-method");
+        beanDefinition.setDestroyMethodName(StringUtils.hasLength(destroyMethod) ? destroyMethod.trim() : null);
+    }
+
+    // true/false以配置为准，default或没有配置时使用外层的默认值
+    private static boolean parseLazyInit(String value, boolean defaultValue) {
+        if (!StringUtils.hasLength(value) || "default".equals(value)) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    // 与dom4j的attributeValue一样只按属性名匹配，不区分命名空间
+    private static String attribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 配置文件不需要DTD和外部实体，禁止处理避免XXE和实体展开攻击，引用了DTD中声明的实体时解析失败
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * @desc： 一个配置文件的解析结果
+     */
+    private static final class ParsedConfig {
+
+        final Map<String, BeanDefinition> beans = new LinkedHashMap<>();
+
+        final List<URL> imports = new ArrayList<>();
+    }
+}
@@ -1,20 +1,17 @@
 package com.zhutouasan.simple_ioc.core;
 
 import com.zhutouasan.simple_ioc.bean.BeanDefinition;
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
-import org.dom4j.Element;
-import org.dom4j.io.SAXReader;
+import com.zhutouasan.simple_ioc.bean.BeanInstantiator;
+import com.zhutouasan.simple_ioc.bean.InjectionPlan;
+import com.zhutouasan.simple_ioc.bean.InstantiationStrategy;
+import com.zhutouasan.simple_ioc.bean.MethodHandleInstantiationStrategy;
+import com.zhutouasan.simple_ioc.core.BeanLifecycleRecorder.Phase;
 import org.springframework.context.annotation.Bean;
-import org.springframework.util.StringUtils;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Method;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @desc： BeanFactory的实现类，支持懒加载，
@@ -22,80 +19,64 @@ import java.util.concurrent.ConcurrentHashMap;
  * 优点：应用启动的时候占用资源很少，对资源要求较高的应用，比较有优势
  * 缺点：运行速度会相对来说慢一些。而且有可能会出现空指针异常的错误
  * 而且通过Bean工厂创建的Bean生命周期会简单一点
+ * 配置了init-method时注入属性后立即调用，async-init在这里没有作用；
+ * close()按依赖的相反顺序销毁已经创建的单例
  * @author: zhutouasan
  * @date： 2023/7/8 16:46
  */
-public class XmlBeanFactory implements BeanFactory {
+public class XmlBeanFactory extends DefaultSingletonBeanRegistry implements BeanFactory, AutoCloseable {
 
-    private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>(64);
+    // 加载完成后冻结，之后只读
+    private final Map<String, BeanDefinition> beanDefinitionMap;
 
-    // 使用ConcurrentHashMap存放所有单例Bean
-    private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(64);
+    // 记录getBean和bean创建过程的事件，默认不记录
+    private static final BeanLifecycleRecorder RECORDER = BeanLifecycleRecorder.CURRENT;
 
-    public XmlBeanFactory(String configFile) {
-        loadBeanDefinitions(configFile);
+    // 实例化策略，默认使用MethodHandle，无法编译时退回反射
+    private final InstantiationStrategy instantiationStrategy;
+
+    // 构建期生成的初始化器，classpath上不存在时为null
+    private final BeanFactoryInitializer beanFactoryInitializer;
+
+    // 类型 -> beanId的索引，加载完BeanDefinition后构建，之后不再变化
+    private final BeanTypeIndex beanTypeIndex;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public XmlBeanFactory(String... configLocations) {
+        this(configLocations, MethodHandleInstantiationStrategy.INSTANCE);
     }
 
-    /**
-     * @param configFile xml文件的路径
-     * @Auther zhutouasan
-     * @Desc 将xml文件中对bean的描述，转换成具体的对象并存放到beanDefinitionMap
-     * @Date 2023/7/6 16:27
-     * @Return
-     **/
-    private void loadBeanDefinitions(String configFile) {
-        InputStream inputStream = null;
-        try {
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            inputStream = classLoader.getResourceAsStream(configFile);
-
-            SAXReader reader = new SAXReader();
-            Document doc = reader.read(inputStream);
-            // <beans>
-            Element root = doc.getRootElement();
-            Iterator<Element> iterator = root.elementIterator();
-
-            // 实例化容器中的类
-            while (iterator.hasNext()) {
-                Element next = iterator.next();
-                String id = next.attributeValue("id");
-                String beanClassName = next.attributeValue("class");
-                BeanDefinition beanDefinition = new BeanDefinition(id, beanClassName);
-                parsePropertyElement(next, beanDefinition);
-                this.beanDefinitionMap.put(id, beanDefinition);
-            }
-        } catch (DocumentException e) {
-            e.printStackTrace();
-        } finally {
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
+    public XmlBeanFactory(String configFile, InstantiationStrategy instantiationStrategy) {
+        this(new String[]{configFile}, instantiationStrategy);
+    }
+
+    public XmlBeanFactory(String[] configLocations, InstantiationStrategy instantiationStrategy) {
+        this.instantiationStrategy = instantiationStrategy;
+
+        // 只有一个配置文件且classpath上存在构建期生成的初始化器时直接注册BeanDefinition，跳过xml解析
+        this.beanFactoryInitializer = configLocations.length == 1 ? BeanFactoryInitializer.find(configLocations[0]) : null;
+        Map<String, BeanDefinition> definitions = new ConcurrentHashMap<>(64);
+        if (this.beanFactoryInitializer != null) {
+            this.beanFactoryInitializer.registerBeanDefinitions(definitions);
+        } else {
+            loadBeanDefinitions(configLocations, definitions);
         }
+        this.beanDefinitionMap = FrozenBeanDefinitionRegistry.freeze(definitions);
+        registerCycles(BeanDependencyGraph.build(this.beanDefinitionMap));
+        // 只加载类不执行static块，单例仍然在第一次获取时创建
+        this.beanTypeIndex = BeanTypeIndex.build(this.beanDefinitionMap, Thread.currentThread().getContextClassLoader());
     }
 
     /**
-     * @param beanElem       标签信息
-     * @param beanDefinition 定义类信息
+     * @param configLocations xml文件的路径或通配符
      * @Auther zhutouasan
-     * @Desc 获取bean的所有属性名
-     * @Date 2023/7/7 15:08
+     * @Desc 将xml文件中对bean的描述，转换成具体的对象并存放到beanDefinitionMap
+     * @Date 2023/7/6 16:27
      * @Return
      **/
-    public void parsePropertyElement(Element beanElem, BeanDefinition beanDefinition) {
-        Iterator<Element> iterator = beanElem.elementIterator("property");
-        while (iterator.hasNext()) {
-            Element next = iterator.next();
-            String propertyName = next.attributeValue("name");
-            if (!StringUtils.hasLength(propertyName)) {
-                return;
-            }
-
-            beanDefinition.getPropertyNames().add(propertyName);
-        }
+    private void loadBeanDefinitions(String[] configLocations, Map<String, BeanDefinition> beanDefinitionMap) {
+        new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, false).loadBeanDefinitions(configLocations, beanDefinitionMap);
     }
 
     /**
@@ -106,29 +87,70 @@ public class XmlBeanFactory implements BeanFactory {
      */
     @Override
     public Object getBean(String beanId) {
-        BeanDefinition beanDefinition = this.getBeanDefinition(beanId);
+        Object event = RECORDER.begin(Phase.GET_BEAN);
+
+        // 已经创建好的单例直接返回，不加锁
         Object bean = this.getSingleton(beanId);
-        if (bean == null) {
-            bean = createBean(beanDefinition);
-            this.registerSingleton(beanId, bean);
+        boolean cacheHit = bean != null;
+        if (!cacheHit) {
+            bean = doGetBean(beanId);
+        }
+
+        if (event != null) {
+            RECORDER.commit(event, beanId, bean == null ? null : bean.getClass().getName(), cacheHit);
         }
         return bean;
     }
 
+    @Override
+    public <T> T getBean(Class<T> requiredType) {
+        return getBean(this.beanTypeIndex.getUniqueBeanId(requiredType), requiredType);
+    }
+
+    @Override
+    public <T> Map<String, T> getBeansOfType(Class<T> type) {
+        return this.beanTypeIndex.getBeansOfType(this, type);
+    }
+
     /**
-         * @Auther zhutouasan
-         * @Desc  将更新的bean更新到Map中
-         * @Date 2023/7/8 17:08
-         * @param beanId
-            @param bean
-         * @Return
-    **/
-    private void registerSingleton(String beanId, Object bean) {
-        Object object = this.singletonObjects.get(beanId);
-        if (object != null) {
-            System.out.println("error, " + object + "had already registered");
+     * @Auther zhutouasan
+     * @Desc  关闭工厂：按依赖的相反顺序销毁已经创建的单例，互不依赖的在公共线程池上同时销毁，之后getBean抛出异常
+     * @Date 2026/10/17 02:50
+     * @Return
+     **/
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            destroySingletons(this.beanDefinitionMap, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  单例缓存中没有时获取bean，prototype直接创建，单例只由一个线程创建
+     * @Date 2026/10/16 23:00
+     * @param beanId
+     * @Return {@link Object}
+     **/
+    private Object doGetBean(String beanId) {
+        if (this.closed.get()) {
+            throw new BeansException("bean factory has been closed");
         }
-        this.singletonObjects.put(beanId, bean);
+        // prototype每次都创建新的对象，不放入单例缓存
+        BeanDefinition beanDefinition = this.getBeanDefinition(beanId);
+        if (beanDefinition != null && !beanDefinition.isSingleton()) {
+            if (beanDefinition.isPooled()) {
+                throw new BeansException("scope pooled of bean '" + beanId + "' is only supported by BeanContainer");
+            }
+            // thread和task作用域在当前线程或当前任务中只创建一次
+            if (beanDefinition.isThreadScoped() || beanDefinition.isTaskScoped()) {
+                return this.getScopedBean(beanDefinition, () -> createBean(beanDefinition));
+            }
+            return createBean(beanDefinition);
+        }
+
+        // 第一次获取时只有一个线程创建，同时获取的其他线程等待创建结果
+        return this.getSingleton(beanId, () -> createBean(beanDefinition));
     }
 
     /**
@@ -139,10 +161,36 @@ public class XmlBeanFactory implements BeanFactory {
      */
     private Object createBean(BeanDefinition beanDefinition) {
 
+        // 使用生成的代码直接调用构造器和setter，不经过反射
+        if (this.beanFactoryInitializer != null) {
+            Object bean = this.beanFactoryInitializer.instantiate(beanDefinition.getId(), this);
+            if (beanDefinition.isSingleton()) {
+                this.addEarlySingleton(beanDefinition.getId(), bean);
+            }
+            this.beanFactoryInitializer.populate(beanDefinition.getId(), bean, this);
+            // 生成的代码只注入引用，字面值按注入计划注入
+            if (!beanDefinition.getValuePropertyNames().isEmpty()) {
+                try {
+                    injectPropertyValues(beanDefinition, beanDefinition.resolveInjectionPlan(Thread.currentThread().getContextClassLoader()),
+                            this.instantiationStrategy, bean);
+                } catch (ClassNotFoundException e) {
+                    throw new BeansException("could not load class of bean '" + beanDefinition.getId() + "': " + e, e);
+                }
+            }
+            invokeInitMethod(beanDefinition, bean);
+            return bean;
+        }
+
         // bean实例化
         Object bean = createBeanInstance(beanDefinition);
+        // 提前暴露还没有赋值的单例，setter循环依赖时依赖方直接拿到这个引用
+        if (bean != null && beanDefinition.isSingleton()) {
+            this.addEarlySingleton(beanDefinition.getId(), bean);
+        }
         // 给bean赋值
         populateBean(beanDefinition, bean);
+        // 注入完成后调用init-method
+        invokeInitMethod(beanDefinition, bean);
 
         return bean;
     }
@@ -157,46 +205,32 @@ public class XmlBeanFactory implements BeanFactory {
     **/
     public void populateBean(BeanDefinition beanDefinition, Object bean) {
 
-        // 获取bean的变量名
-        List<String> propertyNames = beanDefinition.getPropertyNames();
-
+        Object event = RECORDER.begin(Phase.POPULATE_BEAN);
         try {
-            // 通过反射获取当前类所有的方法信息（使用Method）
-            Method[] methods = bean.getClass().getDeclaredMethods();
+            // 注入计划中已经按属性名配对好setter，直接按顺序注入
+            InjectionPlan plan = beanDefinition.resolveInjectionPlan(Thread.currentThread().getContextClassLoader());
+            for (int i = 0; i < plan.getPropertyCount(); i++) {
 
-            // 配对
-            for (String propertyName : propertyNames) {
-                for (Method method : methods) {
-                    if (method.getName().equals("set" + upperCaseFirstChar(propertyName))) {
+                // 获得方法参数实例
+                Object propertyBean = getBean(plan.getPropertyName(i));
 
-                        // 获得方法参数实例
-                        Object properyBean = getBean(propertyName);
-
-                        // 通过反射执行调用setter()方法
-                        method.invoke(bean, properyBean);
-                        break;
-                    }
-                }
+                // 通过实例化策略编译好的访问器调用setter()方法
+                plan.getInjector(this.instantiationStrategy, i).inject(bean, propertyBean);
             }
+            // 字面值属性
+            injectPropertyValues(beanDefinition, plan, this.instantiationStrategy, bean);
+        } catch (BeansException e) {
+            // 循环依赖等容器异常需要传给调用方，不能吞掉
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
+            throw new BeansException("failed to populate bean '" + beanDefinition.getId() + "'", e);
+        } finally {
+            if (event != null) {
+                RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+            }
         }
     }
 
-    /**
-     * @Auther zhutouasan
-     * @Desc  将字符串第一个字符大写
-     * @Date 2023/7/7 17:48
-     * @param propertyName
-     * @Return {@link String}
-     **/
-    private String upperCaseFirstChar(String propertyName) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(propertyName.substring(0, 1).toUpperCase());
-        sb.append(propertyName.substring(1));
-        return sb.toString();
-    }
-
     /**
      * @param beanDefinition
      * @Auther zhutouasan
@@ -207,30 +241,25 @@ public class XmlBeanFactory implements BeanFactory {
     public Object createBeanInstance(BeanDefinition beanDefinition) {
 
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        String className = beanDefinition.getBeanClassName();
 
+        Object event = RECORDER.begin(Phase.CREATE_BEAN_INSTANCE);
         try {
-            // 通过类加载器，根据classPath得到类对象
+            // 通过类加载器，根据classPath得到类对象，编译成注入计划后缓存
             // 直接通过类加载器加载的类，只有将.class文件加载到jvm中，不会执行static中的内容
             // Class.forName的到的类是已经初始化完成
-            Class<?> clazz = classLoader.loadClass(className);
+            InjectionPlan plan = beanDefinition.resolveInjectionPlan(classLoader);
 
-            // 通过类对象利用反射创建Bean实例
-            return clazz.newInstance();
+            // 通过实例化策略编译好的无参构造器创建Bean实例
+            return plan.getInstantiator(this.instantiationStrategy).instantiate(BeanInstantiator.NO_ARGS);
+        } catch (BeansException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
+            throw new BeansException("failed to instantiate bean '" + beanDefinition.getId() + "'", e);
+        } finally {
+            if (event != null) {
+                RECORDER.commit(event, beanDefinition.getId(), beanDefinition.getBeanClassName(), false);
+            }
         }
-
-        return null;
-    }
-
-    /**
-     * 获取单例Bean
-     * @param beanName
-     * @return
-     */
-    public Object getSingleton(String beanName) {
-        return this.singletonObjects.get(beanName);
     }
 
     /**
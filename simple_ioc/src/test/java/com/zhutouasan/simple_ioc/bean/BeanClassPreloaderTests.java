@@ -0,0 +1,51 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import com.zhutouasan.simple_ioc.fixture.BrokenStaticInit;
+import com.zhutouasan.simple_ioc.fixture.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanClassPreloaderTests {
+
+    @Test
+    void planUsesPreloadedClass() throws Exception {
+        BeanClassPreloader preloader = new BeanClassPreloader(getClass().getClassLoader(), ForkJoinPool.commonPool());
+        BeanDefinition beanDefinition = new BeanDefinition("userService", UserService.class.getName());
+        beanDefinition.getPropertyNames().add("userDao");
+        preloader.preload(beanDefinition);
+        preloader.preload(beanDefinition);
+
+        assertSame(UserService.class, preloader.loadClass(beanDefinition));
+        InjectionPlan plan = beanDefinition.resolveInjectionPlan(preloader);
+        assertEquals(1, plan.getPropertyCount());
+    }
+
+    @Test
+    void preloadDoesNotRunStaticInitializers() throws Exception {
+        BeanClassPreloader preloader = new BeanClassPreloader(getClass().getClassLoader(), ForkJoinPool.commonPool());
+        // 类字面量不会触发初始化
+        BeanDefinition beanDefinition = new BeanDefinition("broken", BrokenStaticInit.class.getName());
+        preloader.preload(beanDefinition);
+        assertSame(BrokenStaticInit.class, preloader.loadClass(beanDefinition));
+        assertNotNull(beanDefinition.resolveInjectionPlan(preloader));
+
+        // static块第一次执行时才会抛出ExceptionInInitializerError，之后只会是NoClassDefFoundError
+        assertThrows(ExceptionInInitializerError.class,
+                () -> Class.forName(BrokenStaticInit.class.getName(), true, getClass().getClassLoader()));
+    }
+
+    @Test
+    void failureIsReportedForTheBean() {
+        BeanClassPreloader preloader = new BeanClassPreloader(getClass().getClassLoader(), ForkJoinPool.commonPool());
+        BeanDefinition unknown = new BeanDefinition("unknown", "com.zhutouasan.simple_ioc.fixture.Missing");
+        preloader.preload(unknown);
+
+        ClassNotFoundException e = assertThrows(ClassNotFoundException.class, () -> unknown.resolveInjectionPlan(preloader));
+        assertTrue(e.getMessage().contains("'unknown'"), e.getMessage());
+        assertTrue(e.getMessage().contains("com.zhutouasan.simple_ioc.fixture.Missing"), e.getMessage());
+        assertInstanceOf(ClassNotFoundException.class, e.getCause());
+    }
+}
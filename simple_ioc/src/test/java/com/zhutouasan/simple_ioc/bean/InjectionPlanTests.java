@@ -0,0 +1,47 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import com.zhutouasan.simple_ioc.core.BeanContainer;
+import com.zhutouasan.simple_ioc.core.ClassPathXmlApplicationContext;
+import com.zhutouasan.simple_ioc.fixture.OrderService;
+import com.zhutouasan.simple_ioc.fixture.UserDao;
+import com.zhutouasan.simple_ioc.fixture.UserService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InjectionPlanTests {
+
+    @Test
+    void compileResolvesInheritedSettersAndConstructor() throws Exception {
+        BeanDefinition beanDefinition = new BeanDefinition("orderService", OrderService.class.getName());
+        beanDefinition.getConstructorArguments().add("userDao");
+        beanDefinition.getPropertyNames().add("userService");
+        beanDefinition.getPropertyNames().add("missing");
+
+        InjectionPlan plan = beanDefinition.resolveInjectionPlan(getClass().getClassLoader());
+
+        assertSame(plan, beanDefinition.resolveInjectionPlan(getClass().getClassLoader()));
+        assertEquals(1, plan.getConstructor().getParameterCount());
+        assertEquals(1, plan.getPropertyCount());
+        assertEquals("setUserService", plan.getSetter(0).getName());
+        assertSame(UserService.class, plan.getPropertyType(0));
+        assertSame(UserDao.class, plan.getConstructorParameterType(0));
+        assertArrayEquals(new String[]{"userDao", "userService"}, plan.getDependencies());
+        assertNotNull(BeanClassMetadata.forClass(UserService.class).getSetter("userDao"));
+        assertSame(BeanClassMetadata.forClass(UserService.class), BeanClassMetadata.forClass(UserService.class));
+    }
+
+    @Test
+    void containersInjectThroughPlan() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("beans.xml");
+        OrderService orderService = (OrderService) context.getBean("orderService");
+        assertSame(context.getBean("userDao"), orderService.getUserDao());
+        assertSame(context.getBean("userDao"), orderService.getUserService().getUserDao());
+
+        BeanContainer container = new BeanContainer("beans.xml");
+        UserService first = (UserService) container.getBean("userService");
+        UserService second = (UserService) container.getBean("userService");
+        assertNotSame(first, second);
+        assertTrue(first.getUserDao() instanceof UserDao);
+    }
+}
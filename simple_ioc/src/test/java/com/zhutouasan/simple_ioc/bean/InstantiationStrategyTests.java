@@ -0,0 +1,73 @@
+package com.zhutouasan.simple_ioc.bean;
+
+import com.zhutouasan.simple_ioc.core.ClassPathXmlApplicationContext;
+import com.zhutouasan.simple_ioc.fixture.OrderService;
+import com.zhutouasan.simple_ioc.fixture.UserDao;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstantiationStrategyTests {
+
+    @Test
+    void methodHandleStrategyHandlesPublicAndNonPublicMembers() throws Exception {
+        InstantiationStrategy strategy = MethodHandleInstantiationStrategy.INSTANCE;
+
+        Counter counter = (Counter) strategy.createInstantiator(Counter.class.getConstructor()).instantiate(BeanInstantiator.NO_ARGS);
+        strategy.createInjector(Counter.class.getMethod("setCount", int.class)).inject(counter, 42);
+        assertEquals(42, counter.count);
+
+        Hidden hidden = (Hidden) strategy.createInstantiator(Hidden.class.getDeclaredConstructor(String.class)).instantiate(new Object[]{"a"});
+        strategy.createInjector(Hidden.class.getDeclaredMethod("setName", String.class)).inject(hidden, "b");
+        assertEquals("b", hidden.name);
+    }
+
+    @Test
+    void publicSettersGetTheirOwnInjectorClass() throws Exception {
+        InstantiationStrategy strategy = MethodHandleInstantiationStrategy.INSTANCE;
+        PropertyInjector count = strategy.createInjector(Counter.class.getMethod("setCount", int.class));
+        PropertyInjector label = strategy.createInjector(Counter.class.getMethod("setLabel", String.class));
+
+        // 每个setter单独生成实现类，不共用同一个适配lambda
+        assertNotSame(count.getClass(), label.getClass());
+        Counter counter = new Counter();
+        label.inject(counter, "c");
+        assertEquals("c", counter.label);
+    }
+
+    @Test
+    void strategyIsSelectablePerContainer() {
+        ClassPathXmlApplicationContext reflective = new ClassPathXmlApplicationContext("beans.xml", ReflectiveInstantiationStrategy.INSTANCE);
+        OrderService orderService = (OrderService) reflective.getBean("orderService");
+        assertTrue(orderService.getUserDao() instanceof UserDao);
+        assertSame(reflective.getBean("userDao"), orderService.getUserService().getUserDao());
+    }
+
+    public static class Counter {
+
+        private int count;
+
+        private String label;
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+
+    static class Hidden {
+
+        private String name;
+
+        private Hidden(String name) {
+            this.name = name;
+        }
+
+        private void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.fixture.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanDefinitionSnapshotTests {
+
+    @TempDir
+    Path snapshotDirectory;
+
+    @Test
+    void roundTripAndStaleDetection() throws Exception {
+        BeanDefinition orderService = new BeanDefinition("orderService", "x.OrderService");
+        orderService.getConstructorArguments().add("userDao");
+        orderService.getPropertyNames().add("userService");
+        orderService.addPropertyValue("timeout", "30s");
+        BeanDefinition userDao = new BeanDefinition("userDao", "x.UserDao");
+        userDao.setScope(BeanDefinition.SCOPE_POOLED);
+        userDao.setPoolSize(3);
+
+        Path file = snapshotDirectory.resolve("beans.snapshot");
+        BeanDefinitionSnapshot.write(file, 100, 42, Arrays.asList(orderService, userDao));
+
+        Map<String, BeanDefinition> beans = new LinkedHashMap<>();
+        assertTrue(BeanDefinitionSnapshot.read(file, 100, 42, beans));
+        assertEquals(Arrays.asList("orderService", "userDao"), new ArrayList<>(beans.keySet()));
+        assertEquals(Arrays.asList("userDao"), beans.get("orderService").getConstructorArguments());
+        assertEquals(Arrays.asList("userService"), beans.get("orderService").getPropertyNames());
+        assertEquals(Arrays.asList("timeout"), beans.get("orderService").getValuePropertyNames());
+        assertEquals(Arrays.asList("30s"), beans.get("orderService").getPropertyValues());
+        assertEquals("x.UserDao", beans.get("userDao").getBeanClassName());
+        assertTrue(beans.get("userDao").isPooled());
+        assertEquals(3, beans.get("userDao").getPoolSize());
+
+        Map<String, BeanDefinition> stale = new HashMap<>();
+        assertFalse(BeanDefinitionSnapshot.read(file, 100, 43, stale));
+        assertFalse(BeanDefinitionSnapshot.read(snapshotDirectory.resolve("missing.snapshot"), 100, 42, stale));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        assertFalse(BeanDefinitionSnapshot.read(file, 100, 42, stale));
+        assertTrue(stale.isEmpty());
+    }
+
+    @Test
+    void contextReusesSnapshot() throws Exception {
+        ClassPathXmlApplicationContext first = new ClassPathXmlApplicationContext("beans.xml", false);
+        first.setSnapshotDirectory(snapshotDirectory);
+        first.refresh();
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            assertEquals(1, files.count());
+        }
+        assertEquals(1, first.getStartupReport().getParsedConfigCount());
+        assertEquals(0, first.getStartupReport().getSnapshotConfigCount());
+
+        ClassPathXmlApplicationContext second = new ClassPathXmlApplicationContext("beans.xml", false);
+        second.setSnapshotDirectory(snapshotDirectory);
+        second.refresh();
+        // 第二次直接读取快照，没有解析xml
+        assertEquals(0, second.getStartupReport().getParsedConfigCount());
+        assertEquals(1, second.getStartupReport().getSnapshotConfigCount());
+        OrderService orderService = (OrderService) second.getBean("orderService");
+        assertSame(second.getBean("userService"), orderService.getUserService());
+    }
+}
@@ -0,0 +1,79 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.fixture.OrderService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanDependencyGraphTests {
+
+    @Test
+    void groupsBeansIntoTopologicalLevels() {
+        Map<String, BeanDefinition> definitions = new LinkedHashMap<>();
+        definition(definitions, "a");
+        definition(definitions, "b");
+        definition(definitions, "c", "a", "b");
+        definition(definitions, "d", "c", "missing");
+        definition(definitions, "x", "y");
+        definition(definitions, "y", "x");
+
+        BeanDependencyGraph graph = BeanDependencyGraph.build(definitions);
+
+        assertEquals(3, graph.getLevels().size());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(graph.getLevels().get(0)));
+        assertEquals(Arrays.asList("c"), graph.getLevels().get(1));
+        assertEquals(Arrays.asList("d"), graph.getLevels().get(2));
+        assertEquals(new HashSet<>(Arrays.asList("x", "y")), new HashSet<>(graph.getUnresolved()));
+        assertEquals(Arrays.asList("c"), graph.getDependencies("d"));
+        assertEquals(Arrays.asList("c"), graph.getDependents("a"));
+    }
+
+    @Test
+    void createsIndependentSingletonsInParallel() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("parallel-beans.xml", false);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            context.setStartupPool(pool);
+            context.refresh();
+        } finally {
+            pool.shutdown();
+        }
+
+        OrderService orderService = (OrderService) context.getBean("orderService");
+        OrderService archiveService = (OrderService) context.getBean("archiveService");
+        assertSame(context.getBean("userService"), orderService.getUserService());
+        assertSame(orderService.getUserService(), archiveService.getUserService());
+        assertSame(context.getBean("archiveDao"), archiveService.getUserDao());
+
+        StartupReport report = context.getStartupReport();
+        assertEquals(6, report.getBeanCount());
+        assertEquals(3, report.getLevelCount());
+        assertEquals(4, report.getParallelism());
+        assertEquals(0, report.getBeanMetrics("userDao").getDepth());
+        assertEquals(2, report.getBeanMetrics("orderService").getDepth());
+        assertEquals(6, report.getSlowestBeans(10).size());
+        assertTrue(report.getSlowestBeans(1).get(0).getTotalNanos() <= report.getCriticalPathNanos());
+
+        // 关键路径从没有依赖的bean开始，后一个bean依赖前一个
+        List<String> criticalPath = report.getCriticalPath();
+        assertEquals(0, report.getBeanMetrics(criticalPath.get(0)).getDepth());
+        for (int i = 1; i < criticalPath.size(); i++) {
+            assertTrue(report.getBeanMetrics(criticalPath.get(i)).getDepth() > report.getBeanMetrics(criticalPath.get(i - 1)).getDepth());
+        }
+        assertThrows(IllegalStateException.class, context::refresh);
+    }
+
+    private static void definition(Map<String, BeanDefinition> definitions, String id, String... refs) {
+        BeanDefinition beanDefinition = new BeanDefinition(id, Object.class.getName());
+        beanDefinition.getPropertyNames().addAll(Arrays.asList(refs));
+        definitions.put(id, beanDefinition);
+    }
+}
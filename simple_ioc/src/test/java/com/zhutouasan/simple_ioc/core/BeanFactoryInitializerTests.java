@@ -0,0 +1,34 @@
+package com.zhutouasan.simple_ioc.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanFactoryInitializerTests {
+
+    @Test
+    void initializerClassNameFollowsConfigPath() {
+        assertEquals("com.zhutouasan.simple_ioc.generated.BeansXmlBeanFactoryInitializer",
+                BeanFactoryInitializer.initializerClassName("beans.xml"));
+        assertEquals("ConfigAppBeansXmlBeanFactoryInitializer", BeanFactoryInitializer.initializerSimpleName("config/app-beans.xml"));
+        assertEquals("Config1beansXmlBeanFactoryInitializer", BeanFactoryInitializer.initializerSimpleName("1beans.xml"));
+        assertNull(BeanFactoryInitializer.find("beans.xml"));
+    }
+
+    @Test
+    void brokenInitializerFailsInsteadOfFallingBack() {
+        BeansException e = assertThrows(BeansException.class, () -> BeanFactoryInitializer.find("broken-initializer.xml"));
+        assertTrue(e.getMessage().contains("BrokenInitializerXmlBeanFactoryInitializer"), e.getMessage());
+    }
+
+    @Test
+    void configDigestChangesWithContent() throws Exception {
+        String digest = BeanFactoryInitializer.configDigest(new ByteArrayInputStream("<beans/>".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(64, digest.length());
+        assertEquals(digest, BeanFactoryInitializer.configDigest(new ByteArrayInputStream("<beans/>".getBytes(StandardCharsets.UTF_8))));
+        assertNotEquals(digest, BeanFactoryInitializer.configDigest(new ByteArrayInputStream("<beans></beans>".getBytes(StandardCharsets.UTF_8))));
+    }
+}
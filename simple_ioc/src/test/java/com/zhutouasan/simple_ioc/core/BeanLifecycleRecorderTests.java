@@ -0,0 +1,54 @@
+package com.zhutouasan.simple_ioc.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanLifecycleRecorderTests {
+
+    private static final String SERVICES = "META-INF/services/" + BeanLifecycleRecorder.class.getName();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Timeout(10)
+    void unreadableServiceFileFallsBackToNone() {
+        // 每次hasNext都会重新读取配置文件并失败，不能一直重试
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                if (SERVICES.equals(name)) {
+                    throw new IOException("unreadable " + name);
+                }
+                return super.getResources(name);
+            }
+        };
+        assertSame(BeanLifecycleRecorder.NONE, BeanLifecycleRecorder.load(classLoader));
+    }
+
+    @Test
+    @Timeout(10)
+    void missingProviderClassIsSkipped() throws Exception {
+        Path services = this.directory.resolve("recorder-services");
+        Files.write(services, "com.zhutouasan.simple_ioc.missing.Recorder\n".getBytes(StandardCharsets.UTF_8));
+        URL url = services.toUri().toURL();
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return SERVICES.equals(name) ? Collections.enumeration(Collections.singletonList(url)) : super.getResources(name);
+            }
+        };
+        assertSame(BeanLifecycleRecorder.NONE, BeanLifecycleRecorder.load(classLoader));
+    }
+}
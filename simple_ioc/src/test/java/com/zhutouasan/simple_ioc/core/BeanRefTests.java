@@ -0,0 +1,38 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.Greeter;
+import com.zhutouasan.simple_ioc.fixture.UserDao;
+import com.zhutouasan.simple_ioc.fixture.UserService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanRefTests {
+
+    @Test
+    void refReadsCreatedSingletonByIndex() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("beans.xml");
+        BeanRef<UserService> ref = context.getBeanRef("userService", UserService.class);
+        assertSame(context.getBean("userService"), context.getSingleton(ref.getIndex()));
+        assertSame(context.getBean("userService"), ref.get());
+        assertNotEquals(ref.getIndex(), context.getBeanRef("userDao", UserDao.class).getIndex());
+    }
+
+    @Test
+    void lazySingletonIsIndexedAfterFirstGet() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("lazy-beans.xml");
+        BeanRef<Greeter> ref = context.getBeanRef("unusedGreeter", Greeter.class);
+        assertNull(context.getSingleton(ref.getIndex()));
+        Greeter greeter = ref.get();
+        assertSame(greeter, context.getSingleton(ref.getIndex()));
+    }
+
+    @Test
+    void typedGetBeanChecksType() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("beans.xml");
+        assertNotNull(context.getBean("userDao", UserDao.class));
+        assertThrows(BeansException.class, () -> context.getBean("userDao", UserService.class));
+        assertThrows(BeansException.class, () -> context.getBeanRef("missing", Object.class));
+        assertThrows(BeansException.class, () -> context.getBeanRef("userDao", UserService.class).get());
+    }
+}
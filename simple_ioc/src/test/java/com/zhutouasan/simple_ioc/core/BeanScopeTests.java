@@ -0,0 +1,170 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.ScopedResource;
+import com.zhutouasan.simple_ioc.fixture.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanScopeTests {
+
+    @Test
+    void prototypeSharesSingletonDependency() {
+        BeanContainer container = new BeanContainer("scoped-beans.xml");
+        UserService first = (UserService) container.getBean("userService");
+        UserService second = (UserService) container.getBean("userService");
+        assertNotSame(first, second);
+        assertSame(first.getUserDao(), second.getUserDao());
+    }
+
+    @Test
+    void pooledBeanIsReusedAfterReturn() {
+        BeanContainer container = new BeanContainer("scoped-beans.xml");
+        Object bean = container.getBean("pooledService");
+        container.returnBean("pooledService", bean);
+        assertSame(bean, container.getBean("pooledService"));
+
+        BeanPool pool = container.getBeanPool(container.getBeanDefinition("pooledService"));
+        assertEquals(2, pool.getCapacity());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getReusedCount());
+        assertEquals(1, pool.getBorrowedCount());
+    }
+
+    @Test
+    void pooledBeanRejectsUnknownAndDoubleReturns() {
+        BeanContainer container = new BeanContainer("scoped-beans.xml");
+        Object bean = container.getBean("pooledService");
+        Object stranger = container.getBean("userService");
+        assertThrows(BeansException.class, () -> container.returnBean("pooledService", stranger));
+
+        container.returnBean("pooledService", bean);
+        assertThrows(BeansException.class, () -> container.returnBean("pooledService", bean));
+
+        // 重复归还被拒绝，池中只有一份，两次借出得到不同的对象
+        assertNotSame(container.getBean("pooledService"), container.getBean("pooledService"));
+    }
+
+    @Test
+    void pooledBeanBeyondCapacityIsNotKept() {
+        BeanContainer container = new BeanContainer("scoped-beans.xml");
+        BeanPool pool = container.getBeanPool(container.getBeanDefinition("pooledService"));
+        Object first = container.getBean("pooledService");
+        Object second = container.getBean("pooledService");
+        Object third = container.getBean("pooledService");
+        assertEquals(3, pool.getBorrowedCount());
+
+        // 池容量为2，第三个对象归还时由容器销毁，之后再归还被拒绝
+        container.returnBean("pooledService", third);
+        assertThrows(BeansException.class, () -> container.returnBean("pooledService", third));
+        container.returnBean("pooledService", first);
+        container.returnBean("pooledService", second);
+        assertEquals(0, pool.getBorrowedCount());
+
+        Object reused = container.getBean("pooledService");
+        assertTrue(reused == first || reused == second);
+        assertNotSame(third, container.getBean("pooledService"));
+        assertEquals(2, pool.getReusedCount());
+    }
+
+    @Test
+    void contextDefaultsToSingletonAndRejectsPooled() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("scoped-beans.xml");
+        assertSame(context.getBean("userService"), context.getBean("userService"));
+        assertThrows(BeansException.class, () -> context.getBean("pooledService"));
+    }
+
+    @Test
+    void threadScopedBeanIsPerThreadAndDestroyedOnRequest() throws Exception {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("scoped-beans.xml");
+        ScopedResource resource = (ScopedResource) context.getBean("threadResource");
+        assertSame(resource, context.getBean("threadResource"));
+        assertSame(context.getBean("userDao"), resource.getUserDao());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ScopedResource other = (ScopedResource) executor.submit(() -> context.getBean("threadResource")).get();
+            assertNotSame(resource, other);
+
+            context.destroyThreadScopedBeans();
+            assertTrue(resource.isClosed());
+            assertFalse(other.isClosed());
+            ScopedResource recreated = (ScopedResource) context.getBean("threadResource");
+            assertNotSame(resource, recreated);
+
+            // 关闭容器时销毁所有线程的bean，包括仍然存活的线程池线程中的
+            context.close();
+            assertTrue(other.isClosed());
+            assertTrue(recreated.isClosed());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void threadScopedBeansOfFinishedThreadsAreDestroyed() throws Exception {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("scoped-beans.xml");
+        ScopedResource first = createOnNewThread(context);
+        ScopedResource second = createOnNewThread(context);
+        // getBean不检查已经结束的线程，只在显式调用时销毁
+        context.getBean("threadResource");
+        assertFalse(first.isClosed());
+
+        assertEquals(2, context.destroyFinishedThreadScopedBeans());
+        assertTrue(first.isClosed() && second.isClosed());
+        ScopedResource own = (ScopedResource) context.getBean("threadResource");
+        assertFalse(own.isClosed());
+        assertEquals(0, context.destroyFinishedThreadScopedBeans());
+        context.close();
+        assertTrue(own.isClosed());
+    }
+
+    @Test
+    void taskScopedBeanLivesUntilTaskScopeCloses() throws Exception {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("scoped-beans.xml");
+        assertThrows(BeansException.class, () -> beanFactory.getBean("taskResource"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ScopedResource resource;
+        try (TaskScope scope = beanFactory.openTaskScope()) {
+            resource = (ScopedResource) beanFactory.getBean("taskResource");
+            assertSame(resource, beanFactory.getBean("taskResource"));
+            // 子任务通过wrap共享同一个任务中的bean
+            assertSame(resource, executor.submit(scope.wrap(() -> beanFactory.getBean("taskResource"))).get());
+
+            try (TaskScope nested = beanFactory.openTaskScope()) {
+                assertNotSame(resource, beanFactory.getBean("taskResource"));
+            }
+            assertSame(resource, beanFactory.getBean("taskResource"));
+            assertFalse(resource.isClosed());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(resource.isClosed());
+        assertThrows(BeansException.class, () -> beanFactory.getBean("taskResource"));
+    }
+
+    @Test
+    void taskScopeReportsDestroyFailuresAfterDestroyingEveryBean() {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("scoped-beans.xml");
+        TaskScope scope = beanFactory.openTaskScope();
+        ScopedResource resource = (ScopedResource) beanFactory.getBean("taskResource");
+        beanFactory.getBean("brokenTaskResource");
+
+        BeansException e = assertThrows(BeansException.class, scope::close);
+        assertEquals(1, e.getSuppressed().length);
+        assertTrue(resource.isClosed());
+        assertTrue(scope.isClosed());
+    }
+
+    private static ScopedResource createOnNewThread(ClassPathXmlApplicationContext context) throws InterruptedException {
+        ScopedResource[] resource = new ScopedResource[1];
+        Thread thread = new Thread(() -> resource[0] = (ScopedResource) context.getBean("threadResource"));
+        thread.start();
+        thread.join();
+        return resource[0];
+    }
+}
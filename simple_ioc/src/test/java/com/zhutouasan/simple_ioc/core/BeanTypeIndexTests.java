@@ -0,0 +1,64 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.fixture.BaseService;
+import com.zhutouasan.simple_ioc.fixture.Greeter;
+import com.zhutouasan.simple_ioc.fixture.UserDao;
+import com.zhutouasan.simple_ioc.fixture.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanTypeIndexTests {
+
+    @Test
+    void contextFindsBeanBySuperclass() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("beans.xml");
+        assertSame(context.getBean("userDao"), context.getBean(UserDao.class));
+        assertSame(context.getBean("userService"), context.getBean(UserService.class));
+        assertEquals(3, context.getBeansOfType(Object.class).size());
+        assertTrue(context.getBeansOfType(Runnable.class).isEmpty());
+        assertThrows(BeansException.class, () -> context.getBean(Runnable.class));
+    }
+
+    @Test
+    void ambiguousTypeListsCandidates() {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("lazy-beans.xml");
+        NoUniqueBeanDefinitionException e =
+                assertThrows(NoUniqueBeanDefinitionException.class, () -> beanFactory.getBean(Greeter.class));
+        assertEquals(2, e.getBeanIds().size());
+        assertTrue(e.getMessage().contains("greeter"));
+
+        Map<String, Greeter> greeters = beanFactory.getBeansOfType(Greeter.class);
+        assertEquals(e.getBeanIds(), new ArrayList<>(greeters.keySet()));
+        assertSame(beanFactory.getBean("greeter"), greeters.get("greeter"));
+    }
+
+    @Test
+    void classLoadFailuresAreKeptForReporting() {
+        Map<String, BeanDefinition> definitions = new LinkedHashMap<>();
+        definitions.put("userDao", new BeanDefinition("userDao", UserDao.class.getName()));
+        definitions.put("missing", new BeanDefinition("missing", "com.zhutouasan.simple_ioc.fixture.MissingDao"));
+        definitions.put("noClass", new BeanDefinition("noClass", null));
+        BeanTypeIndex index = BeanTypeIndex.build(definitions, getClass().getClassLoader());
+
+        assertEquals(Collections.singleton("missing"), index.getLoadFailures().keySet());
+        assertInstanceOf(ClassNotFoundException.class, index.getLoadFailures().get("missing"));
+        assertEquals(Collections.singletonList("userDao"), index.getBeanIds(Object.class));
+
+        BeansException e = assertThrows(BeansException.class, () -> index.getUniqueBeanId(Runnable.class));
+        assertTrue(e.getMessage().contains("[missing]"));
+        assertSame(index.getLoadFailures().get("missing"), e.getSuppressed()[0]);
+    }
+
+    @Test
+    void abstractSuperclassIsIndexed() {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("beans.xml");
+        assertTrue(beanFactory.getBeansOfType(BaseService.class).containsKey("userService"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.CycleA;
+import com.zhutouasan.simple_ioc.fixture.CycleB;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircularReferenceTests {
+
+    @Test
+    void setterCycleResolvesThroughEarlyReference() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("circular-beans.xml");
+        CycleA cycleA = (CycleA) context.getBean("cycleA");
+        CycleB cycleB = (CycleB) context.getBean("cycleB");
+        assertSame(cycleB, cycleA.getCycleB());
+        assertSame(cycleA, cycleB.getCycleA());
+
+        XmlBeanFactory beanFactory = new XmlBeanFactory("circular-beans.xml");
+        CycleB lazyB = (CycleB) beanFactory.getBean("cycleB");
+        assertSame(lazyB, lazyB.getCycleA().getCycleB());
+    }
+
+    @Test
+    void constructorCycleReportsFullPath() {
+        BeanCurrentlyInCreationException e = assertThrows(BeanCurrentlyInCreationException.class,
+                () -> new ClassPathXmlApplicationContext("constructor-cycle-beans.xml"));
+        assertTrue(e.getMessage().contains("ctorA -> ctorB -> ctorA") || e.getMessage().contains("ctorB -> ctorA -> ctorB"),
+                e.getMessage());
+    }
+}
@@ -0,0 +1,147 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.OrderService;
+import com.zhutouasan.simple_ioc.fixture.UserDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigReloadTests {
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans>\n"
+            + "  <bean id=\"userDao\" class=\"com.zhutouasan.simple_ioc.fixture.UserDao\"/>\n"
+            + "  <bean id=\"orderService\" class=\"com.zhutouasan.simple_ioc.fixture.OrderService\">\n"
+            + "    <constructor-arg ref=\"userDao\"/>\n"
+            + "    <property name=\"userService\"/>\n"
+            + "  </bean>\n";
+
+    private static final String V1 = HEADER
+            + "  <bean id=\"userService\" class=\"com.zhutouasan.simple_ioc.fixture.UserService\">\n"
+            + "    <property name=\"userDao\"/>\n"
+            + "  </bean>\n"
+            + "  <bean id=\"other\" class=\"com.zhutouasan.simple_ioc.fixture.UserDao\"/>\n"
+            + "</beans>\n";
+
+    private static final String V2 = HEADER
+            + "  <bean id=\"userService\" class=\"com.zhutouasan.simple_ioc.fixture.UserService\"/>\n"
+            + "  <bean id=\"newDao\" class=\"com.zhutouasan.simple_ioc.fixture.UserDao\"/>\n"
+            + "</beans>\n";
+
+    @TempDir
+    Path directory;
+
+    private Path config;
+
+    private ClassLoader previous;
+
+    @BeforeEach
+    void useTempClassPath() throws Exception {
+        config = directory.resolve("reload-beans.xml");
+        Files.write(config, V1.getBytes(StandardCharsets.UTF_8));
+        previous = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{directory.toUri().toURL()}, previous));
+    }
+
+    @AfterEach
+    void restoreClassLoader() {
+        Thread.currentThread().setContextClassLoader(previous);
+    }
+
+    @Test
+    void reloadRecreatesOnlyChangedBeansAndDependents() throws Exception {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("reload-beans.xml");
+        Object userDao = context.getBean("userDao");
+        Object userService = context.getBean("userService");
+        Object orderService = context.getBean("orderService");
+
+        Files.write(config, V2.getBytes(StandardCharsets.UTF_8));
+        assertEquals(new HashSet<>(Arrays.asList("userService", "orderService", "other", "newDao")),
+                context.reload());
+
+        assertSame(userDao, context.getBean("userDao"));
+        assertNotSame(userService, context.getBean("userService"));
+        assertNotSame(orderService, context.getBean("orderService"));
+        assertNull(context.getBeanDefinition("other"));
+        assertThrows(BeansException.class, () -> context.getBeanRef("other", UserDao.class));
+        BeanRef<UserDao> newDaoRef = context.getBeanRef("newDao", UserDao.class);
+        assertSame(context.getBean("newDao"), newDaoRef.get());
+        // 类型索引随注册表一起替换
+        assertEquals(new HashSet<>(Arrays.asList("userDao", "newDao")), context.getBeansOfType(UserDao.class).keySet());
+
+        // 配置没有变化时不重新创建任何bean
+        assertTrue(context.reload().isEmpty());
+    }
+
+    @Test
+    void watcherReloadsModifiedConfigAndKeepsFailures() throws Exception {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("reload-beans.xml");
+        List<RuntimeException> failures = new ArrayList<>();
+        // 间隔足够长，只由下面显式的checkConfigFiles触发
+        context.startConfigWatcher(1, TimeUnit.HOURS, failures::add);
+        try {
+            assertFalse(context.checkConfigFiles());
+
+            write("<beans><bean id=\"broken\" class=\"com.zhutouasan.simple_ioc.fixture.UserDao\">");
+            assertTrue(context.checkConfigFiles());
+            assertNotNull(context.getLastReloadFailure());
+            assertEquals(Collections.singletonList(context.getLastReloadFailure()), failures);
+            assertNull(context.getBeanDefinition("broken"));
+
+            write(V2);
+            assertTrue(context.checkConfigFiles());
+            assertNull(context.getLastReloadFailure());
+            assertNotNull(context.getBeanDefinition("newDao"));
+        } finally {
+            context.stopConfigWatcher();
+        }
+    }
+
+    @Test
+    void parentReloadRecreatesChildBeansThatDependOnIt() throws Exception {
+        Files.write(directory.resolve("child-beans.xml"), ("<beans>\n"
+                + "  <bean id=\"childService\" class=\"com.zhutouasan.simple_ioc.fixture.OrderService\">\n"
+                + "    <constructor-arg ref=\"userDao\"/>\n"
+                + "    <property name=\"userService\"/>\n"
+                + "  </bean>\n"
+                + "  <bean id=\"childDao\" class=\"com.zhutouasan.simple_ioc.fixture.UserDao\"/>\n"
+                + "</beans>\n").getBytes(StandardCharsets.UTF_8));
+        ClassPathXmlApplicationContext parent = new ClassPathXmlApplicationContext("reload-beans.xml");
+        ClassPathXmlApplicationContext child = new ClassPathXmlApplicationContext(parent, "child-beans.xml");
+        OrderService childService = child.getBean("childService", OrderService.class);
+        Object childDao = child.getBean("childDao");
+        assertSame(parent.getBean("userService"), childService.getUserService());
+
+        write(V2);
+        parent.reload();
+
+        OrderService recreated = child.getBean("childService", OrderService.class);
+        assertNotSame(childService, recreated);
+        assertSame(parent.getBean("userService"), recreated.getUserService());
+        assertSame(parent.getBean("userDao"), recreated.getUserDao());
+        assertSame(childDao, child.getBean("childDao"));
+        child.close();
+        parent.close();
+    }
+
+    private void write(String xml) throws Exception {
+        Files.write(config, xml.getBytes(StandardCharsets.UTF_8));
+        // 保证修改时间变化，不依赖文件系统的时间精度
+        Files.setLastModifiedTime(config, FileTime.fromMillis(Files.getLastModifiedTime(config).toMillis() + 5000));
+    }
+}
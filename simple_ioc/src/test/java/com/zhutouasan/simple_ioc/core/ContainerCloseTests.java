@@ -0,0 +1,81 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.ScopedResource;
+import com.zhutouasan.simple_ioc.fixture.StoppableBean;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContainerCloseTests {
+
+    @Test
+    void dependentsAreDestroyedBeforeTheirDependencies() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("destroy-beans.xml", false);
+        context.setStartupPool(new ForkJoinPool(4));
+        context.refresh();
+        StoppableBean dependency = (StoppableBean) context.getBean("dependency");
+        StoppableBean cache = (StoppableBean) context.getBean("cache");
+        StoppableBean service = (StoppableBean) context.getBean("service");
+
+        context.close();
+        assertTrue(dependency.isStopped() && cache.isStopped() && service.isStopped());
+        assertTrue(service.getStopEndNanos() <= dependency.getStopStartNanos());
+        // 互不依赖的bean同时销毁
+        assertTrue(dependency.getStopStartNanos() < cache.getStopEndNanos() && cache.getStopStartNanos() < dependency.getStopEndNanos());
+
+        assertThrows(BeansException.class, () -> context.getBean("service"));
+        context.close();
+    }
+
+    @Test
+    void slowDestroyMethodDoesNotBlockShutdown() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("destroy-timeout-beans.xml", false);
+        context.setStartupPool(new ForkJoinPool(4));
+        context.setDestroyTimeout(200, TimeUnit.MILLISECONDS);
+        context.refresh();
+        StoppableBean slow = (StoppableBean) context.getBean("slow");
+        StoppableBean broken = (StoppableBean) context.getBean("broken");
+        StoppableBean cache = (StoppableBean) context.getBean("cache");
+
+        long start = System.nanoTime();
+        BeansException e = assertThrows(BeansException.class, context::close);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertTrue(cache.isStopped());
+        assertFalse(slow.isStopped());
+        assertFalse(broken.isStopped());
+        // 超时和失败都在全部销毁结束后一起抛出，成功销毁的只有cache
+        assertEquals(2, e.getSuppressed().length);
+        assertTrue(e.getMessage().contains("1 beans were destroyed"));
+        assertTrue(context.isClosed());
+        assertThrows(BeansException.class, () -> context.getBean("cache"));
+    }
+
+    @Test
+    void lazyFactoryClosesOnlyCreatedSingletons() {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("scoped-beans.xml");
+        Object userDao = beanFactory.getBean("userDao");
+        assertNotNull(userDao);
+
+        beanFactory.close();
+        assertThrows(BeansException.class, () -> beanFactory.getBean("userDao"));
+    }
+
+    @Test
+    void containerDestroysIdlePooledBeansOnClose() {
+        BeanContainer container = new BeanContainer("scoped-beans.xml");
+        ScopedResource idle = (ScopedResource) container.getBean("pooledResource");
+        ScopedResource overflow = (ScopedResource) container.getBean("pooledResource");
+        container.returnBean("pooledResource", idle);
+        // 池已满，归还的对象通过AutoCloseable.close销毁
+        container.returnBean("pooledResource", overflow);
+        assertFalse(idle.isClosed());
+        assertTrue(overflow.isClosed());
+
+        container.close();
+        assertTrue(idle.isClosed());
+        assertThrows(BeansException.class, () -> container.getBean("userService"));
+    }
+}
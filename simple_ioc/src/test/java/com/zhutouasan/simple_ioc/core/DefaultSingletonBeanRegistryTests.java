@@ -0,0 +1,123 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.CycleA;
+import com.zhutouasan.simple_ioc.fixture.CycleB;
+import com.zhutouasan.simple_ioc.fixture.SlowBean;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultSingletonBeanRegistryTests {
+
+    @Test
+    void concurrentFirstAccessCreatesSingletonOnce() throws Exception {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("concurrent-beans.xml");
+        SlowBean.INSTANCES.set(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return beanFactory.getBean("slowBean");
+                }));
+            }
+            start.countDown();
+
+            Object first = futures.get(0).get();
+            for (Future<Object> future : futures) {
+                assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, SlowBean.INSTANCES.get());
+    }
+
+    @Test
+    void crossThreadCycleFailsInsteadOfSharingEarlyReferences() throws Exception {
+        DefaultSingletonBeanRegistry registry = new DefaultSingletonBeanRegistry();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // 两个线程各自创建并提前暴露循环中的一个bean，再去获取对方
+            Future<Object> a = executor.submit(() -> registry.getSingleton("a", () -> {
+                registry.addEarlySingleton("a", "early a");
+                bothStarted.countDown();
+                await(bothStarted);
+                return "a with " + registry.getSingleton("b", () -> "b");
+            }));
+            Future<Object> b = executor.submit(() -> registry.getSingleton("b", () -> {
+                registry.addEarlySingleton("b", "early b");
+                bothStarted.countDown();
+                await(bothStarted);
+                return "b with " + registry.getSingleton("a", () -> "a");
+            }));
+
+            for (Future<Object> future : Arrays.asList(a, b)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(BeanCurrentlyInCreationException.class, e.getCause());
+            }
+            assertNull(registry.getSingleton("a"));
+            assertNull(registry.getSingleton("b"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentFirstAccessToSetterCycleResolves() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 10; i++) {
+                XmlBeanFactory beanFactory = new XmlBeanFactory("circular-beans.xml");
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Object> a = executor.submit(() -> {
+                    start.await();
+                    return beanFactory.getBean("cycleA");
+                });
+                Future<Object> b = executor.submit(() -> {
+                    start.await();
+                    return beanFactory.getBean("cycleB");
+                });
+                start.countDown();
+
+                // 两个线程从循环的不同位置进入，后来的线程等待另一个线程创建完整个循环
+                CycleA cycleA = (CycleA) a.get(10, TimeUnit.SECONDS);
+                CycleB cycleB = (CycleB) b.get(10, TimeUnit.SECONDS);
+                assertSame(cycleB, cycleA.getCycleB());
+                assertSame(cycleA, cycleB.getCycleA());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void registerSingletonRejectsDuplicates() {
+        DefaultSingletonBeanRegistry registry = new DefaultSingletonBeanRegistry();
+        registry.registerSingleton("a", "first");
+        assertThrows(IllegalStateException.class, () -> registry.registerSingleton("a", "second"));
+        assertEquals("first", registry.getSingleton("a"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenBeanDefinitionRegistryTests {
+
+    @Test
+    void freezesDefinitionsAndSharesIds() {
+        Map<String, BeanDefinition> definitions = new LinkedHashMap<>();
+        BeanDefinition userDao = new BeanDefinition("userDao", "com.zhutouasan.simple_ioc.fixture.UserDao");
+        BeanDefinition userService = new BeanDefinition("userService", "com.zhutouasan.simple_ioc.fixture.UserService");
+        userService.getPropertyNames().add(new String("userDao"));
+        userService.setScope(new String("prototype"));
+        definitions.put("userDao", userDao);
+        definitions.put("userService", userService);
+
+        FrozenBeanDefinitionRegistry registry = FrozenBeanDefinitionRegistry.freeze(definitions);
+        assertEquals(2, registry.size());
+        assertSame(userService, registry.get("userService"));
+        assertNull(registry.get("orderService"));
+        assertEquals(Arrays.asList("userDao", "userService"), new ArrayList<>(registry.keySet()));
+
+        // 依赖名与被依赖bean的id是同一个实例，作用域换成常量
+        assertSame(userDao.getId(), userService.getPropertyNames().get(0));
+        assertSame(BeanDefinition.SCOPE_PROTOTYPE, userService.getScope());
+        assertTrue(userService.isFrozen());
+        assertThrows(IllegalStateException.class, () -> userService.setLazyInit(true));
+        assertThrows(UnsupportedOperationException.class, () -> userService.getPropertyNames().add("orderService"));
+        assertThrows(UnsupportedOperationException.class, () -> registry.put("userDao", userDao));
+    }
+
+    @Test
+    void findsEveryDefinitionInLargeRegistry() {
+        Map<String, BeanDefinition> definitions = new LinkedHashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            BeanDefinition beanDefinition = new BeanDefinition("bean" + i, "com.zhutouasan.simple_ioc.fixture.UserDao");
+            if (i > 0) {
+                beanDefinition.getConstructorArguments().add("bean" + (i - 1));
+            }
+            definitions.put(beanDefinition.getId(), beanDefinition);
+        }
+
+        FrozenBeanDefinitionRegistry registry = FrozenBeanDefinitionRegistry.freeze(definitions);
+        List<BeanDefinition> ordered = new ArrayList<>(registry.values());
+        for (int i = 0; i < 10000; i++) {
+            BeanDefinition beanDefinition = registry.get("bean" + i);
+            assertEquals("bean" + i, beanDefinition.getId());
+            assertSame(beanDefinition, ordered.get(i));
+        }
+        assertSame(registry.get("bean1").getBeanClassName(), registry.get("bean2").getBeanClassName());
+        assertSame(registry.get("bean1").getId(), registry.get("bean2").getConstructorArguments().get(0));
+    }
+
+    @Test
+    void containerDefinitionsAreFrozenAfterLoading() {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("beans.xml");
+        assertTrue(beanFactory.getBeanDefinition("orderService").isFrozen());
+        assertThrows(UnsupportedOperationException.class,
+                () -> beanFactory.getBeanDefinition("orderService").getPropertyNames().clear());
+    }
+}
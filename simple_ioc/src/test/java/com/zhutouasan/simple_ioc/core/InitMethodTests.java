@@ -0,0 +1,70 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.WarmedConsumer;
+import com.zhutouasan.simple_ioc.fixture.WarmingBean;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InitMethodTests {
+
+    @Test
+    void asyncInitMethodsRunConcurrentlyAfterDependencies() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("init-beans.xml", false);
+        context.setStartupPool(new ForkJoinPool(4));
+        context.refresh();
+
+        WarmingBean dependency = (WarmingBean) context.getBean("dependency");
+        WarmingBean cache = (WarmingBean) context.getBean("cache");
+        WarmingBean service = (WarmingBean) context.getBean("service");
+        assertTrue(dependency.isWarmed() && cache.isWarmed() && service.isWarmed());
+        // 两个async-init的bean同时初始化，依赖方在依赖初始化完成后才初始化
+        assertTrue(dependency.getStartNanos() < cache.getEndNanos() && cache.getStartNanos() < dependency.getEndNanos());
+        assertTrue(service.isDependencyWarmedAtInit());
+    }
+
+    @Test
+    void constructorDependentsSeeInitializedDependencies() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("init-beans.xml", false);
+        context.setStartupPool(new ForkJoinPool(4));
+        context.refresh();
+
+        WarmedConsumer consumer = context.getBean("consumer", WarmedConsumer.class);
+        assertSame(context.getBean("cache"), consumer.getCache());
+        // cache是async-init，构造consumer之前已经等待它的init-method执行完
+        assertTrue(consumer.isCacheWarmedAtConstruction());
+    }
+
+    @Test
+    void initFailuresAreReportedTogether() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("init-failure-beans.xml", false);
+        context.setStartupPool(new ForkJoinPool(4));
+
+        BeansException e = assertThrows(BeansException.class, context::refresh);
+        assertTrue(e.getMessage().contains("2 init-method(s) failed"), e.getMessage());
+        assertTrue(e.getMessage().contains("'dependency'") && e.getMessage().contains("'cache'"), e.getMessage());
+        assertEquals(2, e.getSuppressed().length);
+        assertTrue(e.getSuppressed()[0].getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void refreshFailsWhenInitMethodsExceedTimeout() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("init-beans.xml", false);
+        context.setStartupPool(new ForkJoinPool(4));
+        context.setInitTimeout(20, TimeUnit.MILLISECONDS);
+
+        BeansException e = assertThrows(BeansException.class, context::refresh);
+        assertTrue(e.getMessage().contains("did not finish within 20 ms"), e.getMessage());
+    }
+
+    @Test
+    void lazyContainersInvokeInitMethodOnCreation() {
+        XmlBeanFactory beanFactory = new XmlBeanFactory("init-beans.xml");
+        WarmingBean service = (WarmingBean) beanFactory.getBean("service");
+        assertTrue(service.isWarmed());
+        assertTrue(service.isDependencyWarmedAtInit());
+    }
+}
@@ -0,0 +1,42 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.GreetingService;
+import com.zhutouasan.simple_ioc.fixture.LazyGreeter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyInitTests {
+
+    @Test
+    void lazyInterfaceDependencyIsCreatedOnFirstCall() {
+        LazyGreeter.INSTANCES.set(0);
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("lazy-beans.xml");
+        assertEquals(0, LazyGreeter.INSTANCES.get());
+        assertNull(context.getSingleton("unusedGreeter"));
+
+        GreetingService service = (GreetingService) context.getBean("greetingService");
+        assertTrue(Proxy.isProxyClass(service.getGreeter().getClass()));
+        // 不是接口的依赖无法代理，启动时直接创建
+        assertSame(context.getBean("userDao"), service.getUserDao());
+
+        assertEquals("hello ioc", service.getGreeter().greet("ioc"));
+        assertEquals(1, LazyGreeter.INSTANCES.get());
+        assertSame(context.getSingleton("greeter"), context.getBean("greeter"));
+        service.getGreeter().greet("again");
+        assertEquals(1, LazyGreeter.INSTANCES.get());
+    }
+
+    @Test
+    void defaultLazyInitCanBeOverriddenByContext() {
+        LazyGreeter.INSTANCES.set(0);
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("beans.xml", false);
+        context.setDefaultLazyInit(true);
+        context.refresh();
+        assertTrue(context.getBeanDefinition("userService").isLazyInit());
+        assertNull(context.getSingleton("userService"));
+        assertNotNull(context.getBean("userService"));
+    }
+}
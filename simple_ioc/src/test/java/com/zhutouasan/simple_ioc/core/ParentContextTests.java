@@ -0,0 +1,47 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.fixture.OrderService;
+import com.zhutouasan.simple_ioc.fixture.UserDao;
+import com.zhutouasan.simple_ioc.fixture.UserService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParentContextTests {
+
+    @Test
+    void childContextsShareParentSingletons() {
+        ClassPathXmlApplicationContext parent = new ClassPathXmlApplicationContext("shared-beans.xml");
+        ClassPathXmlApplicationContext tenantA = new ClassPathXmlApplicationContext(parent, "tenant-beans.xml");
+        ClassPathXmlApplicationContext tenantB = new ClassPathXmlApplicationContext(parent, "tenant-beans.xml");
+
+        UserDao userDao = (UserDao) parent.getBean("userDao");
+        OrderService orderA = (OrderService) tenantA.getBean("orderService");
+        OrderService orderB = (OrderService) tenantB.getBean("orderService");
+        assertNotSame(orderA, orderB);
+        assertSame(userDao, orderA.getUserDao());
+        assertSame(userDao, orderB.getUserDao());
+        assertSame(userDao, tenantA.getBean(UserDao.class));
+        assertSame(userDao, tenantA.getBeanRef("userDao", UserDao.class).get());
+
+        // 子容器中的定义覆盖父容器中相同id的定义
+        assertNotSame(parent.getBean("userService"), tenantA.getBean("userService"));
+        assertSame(tenantA.getBean("userService"), orderA.getUserService());
+        assertSame(tenantA.getBean("userService"), tenantA.getBeansOfType(UserService.class).get("userService"));
+
+        assertSame(parent.getBeanDefinition("userDao"), tenantA.getBeanDefinition("userDao"));
+        assertNull(parent.getBeanDefinition("orderService"));
+        assertNull(tenantA.getSingleton("userDao"));
+    }
+
+    @Test
+    void closingChildKeepsParentSingletons() {
+        ClassPathXmlApplicationContext parent = new ClassPathXmlApplicationContext("shared-beans.xml");
+        ClassPathXmlApplicationContext tenant = new ClassPathXmlApplicationContext(parent, "tenant-beans.xml");
+        Object userDao = tenant.getBean("userDao");
+
+        tenant.close();
+        assertThrows(BeansException.class, () -> tenant.getBean("orderService"));
+        assertSame(userDao, parent.getBean("userDao"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.bean.InjectionPlan;
+import com.zhutouasan.simple_ioc.bean.ValueConverterRegistry;
+import com.zhutouasan.simple_ioc.fixture.ServerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyValueTests {
+
+    @Test
+    void literalValuesAreConvertedToSetterTypes() {
+        BeanContainer container = new BeanContainer("value-beans.xml");
+        ServerConfig config = (ServerConfig) container.getBean("serverConfig");
+        assertEquals("edge-1", config.getName());
+        assertEquals(8080, config.getPort());
+        assertEquals(10485760L, config.getMaxBytes());
+        assertTrue(config.isSecure());
+        assertEquals(0.75, config.getRatio());
+        assertEquals(ServerConfig.Mode.STANDBY, config.getMode());
+        assertEquals(Duration.ofSeconds(30), config.getTimeout());
+        assertEquals(Arrays.asList(8081, 8082), config.getBackupPorts());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("eu", "blue")), config.getTags());
+        assertSame(container.getBean("userDao"), config.getUserDao());
+
+        // 值只在编译注入计划时转换一次，prototype共享同一个不可修改的集合
+        ServerConfig other = (ServerConfig) container.getBean("serverConfig");
+        assertNotSame(config, other);
+        assertSame(config.getBackupPorts(), other.getBackupPorts());
+        assertThrows(UnsupportedOperationException.class, () -> other.getBackupPorts().add(9090));
+    }
+
+    @Test
+    void valuesAreInjectedByEveryContainer() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("value-beans.xml");
+        assertEquals(8080, context.getBean("serverConfig", ServerConfig.class).getPort());
+        XmlBeanFactory beanFactory = new XmlBeanFactory("value-beans.xml");
+        assertEquals(Duration.ofSeconds(30), beanFactory.getBean("serverConfig", ServerConfig.class).getTimeout());
+    }
+
+    @Test
+    void invalidValueFailsWhenPlanIsCompiled() {
+        BeanDefinition beanDefinition = new BeanDefinition("serverConfig", ServerConfig.class.getName());
+        beanDefinition.addPropertyValue("port", "http");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> InjectionPlan.compile(beanDefinition, ServerConfig.class));
+        assertTrue(e.getMessage().contains("property 'port' to int"), e.getMessage());
+
+        BeanDefinition unknown = new BeanDefinition("serverConfig", ServerConfig.class.getName());
+        unknown.addPropertyValue("hostName", "localhost");
+        assertThrows(IllegalStateException.class, () -> InjectionPlan.compile(unknown, ServerConfig.class));
+    }
+
+    @Test
+    void invalidValueFailsGetBeanInEveryContainer() {
+        BeansException e = assertThrows(BeansException.class, () -> new ClassPathXmlApplicationContext("bad-value-beans.xml"));
+        assertTrue(causedBy(e, "property 'port' to int"), e.getMessage());
+
+        XmlBeanFactory beanFactory = new XmlBeanFactory("bad-value-beans.xml");
+        e = assertThrows(BeansException.class, () -> beanFactory.getBean("serverConfig"));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+
+        BeanContainer container = new BeanContainer("bad-value-beans.xml");
+        e = assertThrows(BeansException.class, () -> container.getBean("serverConfig"));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void registryConvertsDurationsAndCustomTypes() throws Exception {
+        ValueConverterRegistry registry = new ValueConverterRegistry();
+        assertEquals(Duration.ofMillis(500), registry.convert("500ms", Duration.class));
+        assertEquals(Duration.ofMillis(250), registry.convert("250", Duration.class));
+        assertEquals(Duration.ofMinutes(2), registry.convert("PT2M", Duration.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.convert("yes", boolean.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.convert("x", StringBuilder.class));
+
+        registry.register(StringBuilder.class, StringBuilder::new);
+        assertEquals("x", registry.convert("x", StringBuilder.class).toString());
+    }
+
+    private static boolean causedBy(Throwable e, String message) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains(message)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
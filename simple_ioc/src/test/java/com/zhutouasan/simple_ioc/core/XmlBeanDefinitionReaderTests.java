@@ -0,0 +1,180 @@
+package com.zhutouasan.simple_ioc.core;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.fixture.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlBeanDefinitionReaderTests {
+
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<beans>\n"
+            + "  <!-- comment -->\n"
+            + "  <bean id=\"a\" class=\"x.A\" scope=\"pooled\" pool-size=\"4\">\n"
+            + "    <constructor-arg ref=\"b\"/>\n"
+            + "    <constructor-arg/>\n"
+            + "    <constructor-arg ref=\"ignored\"/>\n"
+            + "    <property name=\"c\"><property name=\"nested\"/></property>\n"
+            + "    <property name=\"d\"/>\n"
+            + "  </bean>\n"
+            + "  <bean id=\"b\" class=\"x.B\"/>\n"
+            + "  <bean id=\"b\" class=\"x.B2\"><property name=\"\"/><property name=\"e\"/></bean>\n"
+            + "</beans>\n";
+
+    @Test
+    void readsBeansWithDirectChildTagsAndLastDuplicateWins() throws Exception {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        int count = new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true)
+                .loadBeanDefinitions(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)), beanDefinitionMap);
+
+        assertEquals(3, count);
+        assertEquals(2, beanDefinitionMap.size());
+
+        BeanDefinition a = beanDefinitionMap.get("a");
+        assertEquals("x.A", a.getBeanClassName());
+        assertTrue(a.isPooled());
+        assertEquals(4, a.getPoolSize());
+        assertEquals(Arrays.asList("b"), a.getConstructorArguments());
+        assertEquals(Arrays.asList("c", "d"), a.getPropertyNames());
+
+        BeanDefinition b = beanDefinitionMap.get("b");
+        assertEquals("x.B2", b.getBeanClassName());
+        assertTrue(b.isSingleton());
+        assertTrue(b.getPropertyNames().isEmpty());
+    }
+
+    @Test
+    void rejectsEntitiesDeclaredInDtd() {
+        String xml = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE beans [<!ENTITY name \"x.Injected\">]>\n"
+                + "<beans><bean id=\"a\" class=\"&name;\"/></beans>\n";
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        assertThrows(XMLStreamException.class, () -> new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true)
+                .loadBeanDefinitions(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), beanDefinitionMap));
+        assertTrue(beanDefinitionMap.isEmpty());
+    }
+
+    @Test
+    void setterOnlyReaderSkipsConstructorArguments() throws Exception {
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        new XmlBeanDefinitionReader(BeanDefinition.SCOPE_PROTOTYPE, false)
+                .loadBeanDefinitions(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)), beanDefinitionMap);
+
+        assertTrue(beanDefinitionMap.get("a").getConstructorArguments().isEmpty());
+        assertTrue(beanDefinitionMap.get("b").isPrototype());
+    }
+
+    @TempDir
+    Path snapshotDirectory;
+
+    @Test
+    void mergesWildcardLocationsAndImportsInDeclarationOrder() {
+        Map<String, BeanDefinition> parallel = new LinkedHashMap<>();
+        int count = new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true)
+                .loadBeanDefinitions(new String[]{"classpath*:modules/service-*.xml"}, parallel);
+
+        assertEquals(4, count);
+        assertEquals(Arrays.asList("userDao", "userService", "greeter", "orderService"), new ArrayList<>(parallel.keySet()));
+        // service-b.xml在service-a.xml之后合并，重复的id以它为准
+        assertEquals("com.zhutouasan.simple_ioc.fixture.LazyGreeter", parallel.get("greeter").getBeanClassName());
+
+        Map<String, BeanDefinition> sequential = new LinkedHashMap<>();
+        new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true).setExecutor(null)
+                .loadBeanDefinitions(new String[]{"modules/service-a.xml", "modules/service-b.xml"}, sequential);
+        assertEquals(parallel.keySet(), sequential.keySet());
+        assertEquals(parallel.get("greeter").getBeanClassName(), sequential.get("greeter").getBeanClassName());
+    }
+
+    @Test
+    void snapshotKeepsImports() {
+        for (int i = 0; i < 2; i++) {
+            Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+            new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true).setSnapshotDirectory(snapshotDirectory)
+                    .loadBeanDefinitions("modules/service-b.xml", beanDefinitionMap);
+            // service-b.xml -> dao.xml -> service-a.xml，被引入的文件先合并
+            assertEquals(Arrays.asList("userService", "greeter", "userDao", "orderService"),
+                    new ArrayList<>(beanDefinitionMap.keySet()));
+        }
+    }
+
+    @Test
+    void classpathAllPrefixWithoutPatternLoadsEveryRoot() throws Exception {
+        Path[] roots = {snapshotDirectory.resolve("a"), snapshotDirectory.resolve("b")};
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            Files.createDirectories(roots[i]);
+            Files.write(roots[i].resolve("plugin-beans.xml"), ("<beans><bean id=\"dao" + i
+                    + "\" class=\"com.zhutouasan.simple_ioc.fixture.UserDao\"/></beans>").getBytes(StandardCharsets.UTF_8));
+            urls[i] = roots[i].toUri().toURL();
+        }
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(urls, previous)) {
+            thread.setContextClassLoader(classLoader);
+            Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+            new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true).setSnapshotDirectory(null)
+                    .loadBeanDefinitions("classpath*:plugin-beans.xml", beanDefinitionMap);
+            assertEquals(Arrays.asList("dao0", "dao1"), new ArrayList<>(beanDefinitionMap.keySet()));
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Test
+    void snapshotFailuresAreReportedAndDoNotStopLoading() throws Exception {
+        // 快照目录是一个普通文件，读写快照都会失败
+        Path notADirectory = Files.createFile(snapshotDirectory.resolve("not-a-directory"));
+        List<IOException> failures = new ArrayList<>();
+        BeanLifecycleRecorder recorder = new BeanLifecycleRecorder() {
+            @Override
+            public Object begin(Phase phase) {
+                return null;
+            }
+
+            @Override
+            public void commit(Object event, String beanId, String beanClassName, boolean cacheHit) {
+            }
+
+            @Override
+            public void snapshotFailed(URL resource, Path snapshot, IOException cause) {
+                assertTrue(snapshot.startsWith(notADirectory));
+                failures.add(cause);
+            }
+        };
+
+        Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true)
+                .setSnapshotDirectory(notADirectory).setRecorder(recorder).setExecutor(null);
+        assertEquals(3, reader.loadBeanDefinitions("beans.xml", beanDefinitionMap));
+        assertEquals(1, reader.getParsedCount());
+        assertFalse(failures.isEmpty());
+    }
+
+    @Test
+    void contextLoadsMultipleLocations() {
+        ClassPathXmlApplicationContext context =
+                new ClassPathXmlApplicationContext("modules/service-b.xml", "modules/service-a.xml");
+        OrderService orderService = context.getBean("orderService", OrderService.class);
+        assertNotNull(orderService);
+        // service-a.xml已经通过dao.xml在service-b.xml之前合并过，第二个位置不再合并
+        assertEquals("com.zhutouasan.simple_ioc.fixture.LazyGreeter", context.getBeanDefinition("greeter").getBeanClassName());
+        assertThrows(BeansException.class, () -> new XmlBeanFactory("modules/missing.xml"));
+    }
+}
@@ -0,0 +1,14 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public abstract class BaseService {
+
+    private UserDao userDao;
+
+    public UserDao getUserDao() {
+        return userDao;
+    }
+
+    public void setUserDao(UserDao userDao) {
+        this.userDao = userDao;
+    }
+}
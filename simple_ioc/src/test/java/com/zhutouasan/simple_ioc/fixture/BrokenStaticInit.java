@@ -0,0 +1,10 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class BrokenStaticInit {
+
+    static {
+        if (Boolean.TRUE) {
+            throw new IllegalStateException("broken static initializer");
+        }
+    }
+}
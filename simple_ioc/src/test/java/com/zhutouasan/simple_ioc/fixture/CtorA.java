@@ -0,0 +1,7 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class CtorA {
+
+    public CtorA(CtorB ctorB) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class CycleA {
+
+    private CycleB cycleB;
+
+    // 留出时间让并发获取的线程同时进入循环
+    public CycleA() throws InterruptedException {
+        Thread.sleep(20);
+    }
+
+    public CycleB getCycleB() {
+        return cycleB;
+    }
+
+    public void setCycleB(CycleB cycleB) {
+        this.cycleB = cycleB;
+    }
+}
@@ -0,0 +1,19 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class CycleB {
+
+    private CycleA cycleA;
+
+    // 留出时间让并发获取的线程同时进入循环
+    public CycleB() throws InterruptedException {
+        Thread.sleep(20);
+    }
+
+    public CycleA getCycleA() {
+        return cycleA;
+    }
+
+    public void setCycleA(CycleA cycleA) {
+        this.cycleA = cycleA;
+    }
+}
@@ -0,0 +1,6 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public interface Greeter {
+
+    String greet(String name);
+}
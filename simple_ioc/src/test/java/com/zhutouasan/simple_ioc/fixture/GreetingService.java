@@ -0,0 +1,24 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class GreetingService {
+
+    private final Greeter greeter;
+
+    private UserDao userDao;
+
+    public GreetingService(Greeter greeter) {
+        this.greeter = greeter;
+    }
+
+    public Greeter getGreeter() {
+        return greeter;
+    }
+
+    public UserDao getUserDao() {
+        return userDao;
+    }
+
+    public void setUserDao(UserDao userDao) {
+        this.userDao = userDao;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyGreeter implements Greeter {
+
+    public static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    public LazyGreeter() {
+        INSTANCES.incrementAndGet();
+    }
+
+    @Override
+    public String greet(String name) {
+        return "hello " + name;
+    }
+}
@@ -0,0 +1,24 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class OrderService {
+
+    private final UserDao userDao;
+
+    private UserService userService;
+
+    public OrderService(UserDao userDao) {
+        this.userDao = userDao;
+    }
+
+    public UserDao getUserDao() {
+        return userDao;
+    }
+
+    public UserService getUserService() {
+        return userService;
+    }
+
+    public void setUserService(UserService userService) {
+        this.userService = userService;
+    }
+}
@@ -0,0 +1,25 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class ScopedResource implements AutoCloseable {
+
+    private UserDao userDao;
+
+    private volatile boolean closed;
+
+    public UserDao getUserDao() {
+        return userDao;
+    }
+
+    public void setUserDao(UserDao userDao) {
+        this.userDao = userDao;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+}
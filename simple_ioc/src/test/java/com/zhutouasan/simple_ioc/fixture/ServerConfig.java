@@ -0,0 +1,112 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+public class ServerConfig {
+
+    public enum Mode {
+        ACTIVE, STANDBY
+    }
+
+    private String name;
+
+    private int port;
+
+    private long maxBytes;
+
+    private boolean secure;
+
+    private double ratio;
+
+    private Mode mode;
+
+    private Duration timeout;
+
+    private List<Integer> backupPorts;
+
+    private Set<String> tags;
+
+    private UserDao userDao;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isSecure() {
+        return secure;
+    }
+
+    public void setSecure(boolean secure) {
+        this.secure = secure;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public List<Integer> getBackupPorts() {
+        return backupPorts;
+    }
+
+    public void setBackupPorts(List<Integer> backupPorts) {
+        this.backupPorts = backupPorts;
+    }
+
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Set<String> tags) {
+        this.tags = tags;
+    }
+
+    public UserDao getUserDao() {
+        return userDao;
+    }
+
+    public void setUserDao(UserDao userDao) {
+        this.userDao = userDao;
+    }
+}
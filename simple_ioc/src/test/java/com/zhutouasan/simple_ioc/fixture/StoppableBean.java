@@ -0,0 +1,43 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class StoppableBean {
+
+    private StoppableBean dependency;
+
+    private volatile long stopStartNanos;
+
+    private volatile long stopEndNanos;
+
+    public void setDependency(StoppableBean dependency) {
+        this.dependency = dependency;
+    }
+
+    public void stop() throws InterruptedException {
+        this.stopStartNanos = System.nanoTime();
+        Thread.sleep(100);
+        this.stopEndNanos = System.nanoTime();
+    }
+
+    public void stopSlowly() throws InterruptedException {
+        this.stopStartNanos = System.nanoTime();
+        Thread.sleep(5000);
+        this.stopEndNanos = System.nanoTime();
+    }
+
+    public void failToStop() {
+        this.stopStartNanos = System.nanoTime();
+        throw new IllegalStateException("cannot stop");
+    }
+
+    public boolean isStopped() {
+        return stopEndNanos != 0;
+    }
+
+    public long getStopStartNanos() {
+        return stopStartNanos;
+    }
+
+    public long getStopEndNanos() {
+        return stopEndNanos;
+    }
+}
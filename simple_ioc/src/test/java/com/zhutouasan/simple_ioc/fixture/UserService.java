@@ -0,0 +1,4 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class UserService extends BaseService {
+}
@@ -0,0 +1,21 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class WarmedConsumer {
+
+    private final WarmingBean cache;
+
+    private final boolean cacheWarmedAtConstruction;
+
+    public WarmedConsumer(WarmingBean cache) {
+        this.cache = cache;
+        this.cacheWarmedAtConstruction = cache.isWarmed();
+    }
+
+    public WarmingBean getCache() {
+        return cache;
+    }
+
+    public boolean isCacheWarmedAtConstruction() {
+        return cacheWarmedAtConstruction;
+    }
+}
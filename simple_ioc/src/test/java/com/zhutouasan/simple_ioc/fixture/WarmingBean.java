@@ -0,0 +1,43 @@
+package com.zhutouasan.simple_ioc.fixture;
+
+public class WarmingBean {
+
+    private WarmingBean dependency;
+
+    private volatile long startNanos;
+
+    private volatile long endNanos;
+
+    private volatile boolean dependencyWarmedAtInit;
+
+    public void setDependency(WarmingBean dependency) {
+        this.dependency = dependency;
+    }
+
+    public void warmUp() throws InterruptedException {
+        this.startNanos = System.nanoTime();
+        this.dependencyWarmedAtInit = this.dependency != null && this.dependency.isWarmed();
+        Thread.sleep(200);
+        this.endNanos = System.nanoTime();
+    }
+
+    private void fail() {
+        throw new IllegalStateException("warm-up failed");
+    }
+
+    public boolean isWarmed() {
+        return endNanos != 0;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public boolean isDependencyWarmedAtInit() {
+        return dependencyWarmedAtInit;
+    }
+}
@@ -0,0 +1,27 @@
+package com.zhutouasan.simple_ioc.generated;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.core.BeanFactory;
+import com.zhutouasan.simple_ioc.core.BeanFactoryInitializer;
+
+import java.util.Map;
+
+public final class BrokenInitializerXmlBeanFactoryInitializer implements BeanFactoryInitializer {
+
+    public BrokenInitializerXmlBeanFactoryInitializer() {
+        throw new IllegalStateException("generated for another version");
+    }
+
+    @Override
+    public void registerBeanDefinitions(Map<String, BeanDefinition> beanDefinitionMap) {
+    }
+
+    @Override
+    public Object instantiate(String beanId, BeanFactory beanFactory) {
+        return null;
+    }
+
+    @Override
+    public void populate(String beanId, Object bean, BeanFactory beanFactory) {
+    }
+}
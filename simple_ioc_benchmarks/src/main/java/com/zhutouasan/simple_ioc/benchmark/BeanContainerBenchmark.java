@@ -0,0 +1,85 @@
+package com.zhutouasan.simple_ioc.benchmark;
+
+import com.zhutouasan.simple_ioc.core.BeanContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @desc： BeanContainer每次getBean都创建完整的prototype对象图
+ *          prototype不会复用依赖，根bean的对象图最多有 2^depth - 1 个对象，所以depth比其他基准测试小
+ * @author: zhutouasan
+ * @date： 2026/10/16 22:10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanContainerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Config {
+
+        @Param({"100", "1000", "10000"})
+        int size;
+
+        @Param({"1", "4", "8"})
+        int depth;
+
+        SyntheticConfig config;
+
+        BeanContainer container;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            config = SyntheticConfig.constructorGraph(size, depth, SyntheticConfig.MAX_FAN_OUT);
+            Thread thread = Thread.currentThread();
+            ClassLoader previous = thread.getContextClassLoader();
+            thread.setContextClassLoader(config.getClassLoader());
+            try {
+                container = new BeanContainer(config.getConfigFile());
+            } finally {
+                thread.setContextClassLoader(previous);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            config.delete();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ContextClassLoader {
+
+        @Setup(Level.Trial)
+        public void setUp(Config config) {
+            Thread.currentThread().setContextClassLoader(config.config.getClassLoader());
+        }
+    }
+
+    @Benchmark
+    public Object prototypeGraph(Config config, ContextClassLoader contextClassLoader) {
+        return config.container.getBean(config.config.getRootBeanId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object prototypeGraphContended(Config config, ContextClassLoader contextClassLoader) {
+        return config.container.getBean(config.config.getRootBeanId());
+    }
+}
@@ -0,0 +1,75 @@
+package com.zhutouasan.simple_ioc.benchmark;
+
+import com.zhutouasan.simple_ioc.core.ClassPathXmlApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @desc： ClassPathXmlApplicationContext从解析xml到创建完所有单例的耗时
+ *          contended版本多个线程同时启动各自的容器，共享ForkJoinPool.commonPool和类元数据缓存
+ * @author: zhutouasan
+ * @date： 2026/10/16 22:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContainerStartupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Config {
+
+        @Param({"100", "1000", "10000"})
+        int size;
+
+        @Param({"2", "8", "32"})
+        int depth;
+
+        SyntheticConfig config;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            config = SyntheticConfig.constructorGraph(size, depth, SyntheticConfig.MAX_FAN_OUT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            config.delete();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ContextClassLoader {
+
+        @Setup(Level.Trial)
+        public void setUp(Config config) {
+            Thread.currentThread().setContextClassLoader(config.config.getClassLoader());
+        }
+    }
+
+    @Benchmark
+    public ClassPathXmlApplicationContext startup(Config config, ContextClassLoader contextClassLoader) {
+        return new ClassPathXmlApplicationContext(config.config.getConfigFile());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ClassPathXmlApplicationContext startupContended(Config config, ContextClassLoader contextClassLoader) {
+        return new ClassPathXmlApplicationContext(config.config.getConfigFile());
+    }
+}
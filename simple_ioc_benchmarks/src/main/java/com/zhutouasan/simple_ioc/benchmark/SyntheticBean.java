@@ -0,0 +1,162 @@
+package com.zhutouasan.simple_ioc.benchmark;
+
+/**
+ * @desc： 合成配置使用的bean，构造器按参数个数匹配constructor-arg，
+ *          setter按名字匹配property，名为d0 ~ d31的bean都可以通过setter注入
+ * @author: zhutouasan
+ * @date： 2026/10/16 21:40
+ */
+public class SyntheticBean {
+
+    private Object dependency;
+
+    private Object other;
+
+    public SyntheticBean() {
+    }
+
+    public SyntheticBean(Object dependency) {
+        this.dependency = dependency;
+    }
+
+    public SyntheticBean(Object dependency, Object other) {
+        this.dependency = dependency;
+        this.other = other;
+    }
+
+    public Object getDependency() {
+        return dependency;
+    }
+
+    public Object getOther() {
+        return other;
+    }
+
+    public void setD0(Object d0) {
+        this.dependency = d0;
+    }
+
+    public void setD1(Object d1) {
+        this.dependency = d1;
+    }
+
+    public void setD2(Object d2) {
+        this.dependency = d2;
+    }
+
+    public void setD3(Object d3) {
+        this.dependency = d3;
+    }
+
+    public void setD4(Object d4) {
+        this.dependency = d4;
+    }
+
+    public void setD5(Object d5) {
+        this.dependency = d5;
+    }
+
+    public void setD6(Object d6) {
+        this.dependency = d6;
+    }
+
+    public void setD7(Object d7) {
+        this.dependency = d7;
+    }
+
+    public void setD8(Object d8) {
+        this.dependency = d8;
+    }
+
+    public void setD9(Object d9) {
+        this.dependency = d9;
+    }
+
+    public void setD10(Object d10) {
+        this.dependency = d10;
+    }
+
+    public void setD11(Object d11) {
+        this.dependency = d11;
+    }
+
+    public void setD12(Object d12) {
+        this.dependency = d12;
+    }
+
+    public void setD13(Object d13) {
+        this.dependency = d13;
+    }
+
+    public void setD14(Object d14) {
+        this.dependency = d14;
+    }
+
+    public void setD15(Object d15) {
+        this.dependency = d15;
+    }
+
+    public void setD16(Object d16) {
+        this.dependency = d16;
+    }
+
+    public void setD17(Object d17) {
+        this.dependency = d17;
+    }
+
+    public void setD18(Object d18) {
+        this.dependency = d18;
+    }
+
+    public void setD19(Object d19) {
+        this.dependency = d19;
+    }
+
+    public void setD20(Object d20) {
+        this.dependency = d20;
+    }
+
+    public void setD21(Object d21) {
+        this.dependency = d21;
+    }
+
+    public void setD22(Object d22) {
+        this.dependency = d22;
+    }
+
+    public void setD23(Object d23) {
+        this.dependency = d23;
+    }
+
+    public void setD24(Object d24) {
+        this.dependency = d24;
+    }
+
+    public void setD25(Object d25) {
+        this.dependency = d25;
+    }
+
+    public void setD26(Object d26) {
+        this.dependency = d26;
+    }
+
+    public void setD27(Object d27) {
+        this.dependency = d27;
+    }
+
+    public void setD28(Object d28) {
+        this.dependency = d28;
+    }
+
+    public void setD29(Object d29) {
+        this.dependency = d29;
+    }
+
+    public void setD30(Object d30) {
+        this.dependency = d30;
+    }
+
+    public void setD31(Object d31) {
+        this.dependency = d31;
+    }
+}
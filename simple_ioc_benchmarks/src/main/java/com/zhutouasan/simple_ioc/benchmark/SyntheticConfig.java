@@ -0,0 +1,169 @@
+package com.zhutouasan.simple_ioc.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * @desc： 基准测试使用的合成xml配置，写到临时目录中，通过线程上下文类加载器提供给容器
+ *          构造器注入：size个bean按顺序平均分成depth层，每个bean依赖上一层的fanOut个bean，最后一个bean是根；
+ *          setter注入（XmlBeanFactory只支持setter）：d0 ~ d(depth-1)组成一条依赖链，d(depth-1)是根，
+ *          其余bean各自依赖链上的一个bean，只增加配置的规模
+ *          配置完全由参数决定，同样的参数每次生成同样的文件
+ * @author: zhutouasan
+ * @date： 2026/10/16 21:45
+ */
+public final class SyntheticConfig {
+
+    // SyntheticBean的setter只有setD0 ~ setD31
+    public static final int MAX_SETTER_DEPTH = 32;
+
+    // SyntheticBean的构造器最多两个参数
+    public static final int MAX_FAN_OUT = 2;
+
+    private final Path directory;
+
+    private final String configFile;
+
+    private final String rootBeanId;
+
+    private final ClassLoader classLoader;
+
+    private SyntheticConfig(Path directory, String configFile, String rootBeanId) {
+        this.directory = directory;
+        this.configFile = configFile;
+        this.rootBeanId = rootBeanId;
+        this.classLoader = newClassLoader(directory);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  生成构造器注入的分层配置
+     * @Date 2026/10/16 21:48
+     * @param size bean的数量
+     * @param depth 层数
+     * @param fanOut 每个bean依赖上一层的bean数量
+     * @Return {@link SyntheticConfig}
+     **/
+    public static SyntheticConfig constructorGraph(int size, int depth, int fanOut) {
+        if (depth < 1 || depth > size || fanOut < 1 || fanOut > MAX_FAN_OUT) {
+            throw new IllegalArgumentException("invalid graph size=" + size + " depth=" + depth + " fanOut=" + fanOut);
+        }
+
+        // 第i个bean属于第 i * depth / size 层，start[l]为第l层第一个bean的下标
+        int[] start = new int[depth + 1];
+        for (int l = 0; l <= depth; l++) {
+            start[l] = (int) (((long) l * size + depth - 1) / depth);
+        }
+
+        StringBuilder xml = header();
+        for (int i = 0; i < size; i++) {
+            int level = (int) ((long) i * depth / size);
+            xml.append("    <bean id=\"b").append(i).append("\" class=\"").append(SyntheticBean.class.getName()).append('"');
+            if (level == 0) {
+                xml.append("/>\n");
+                continue;
+            }
+            xml.append(">\n");
+            int from = start[level - 1];
+            int width = start[level] - from;
+            int first = from + i % width;
+            xml.append("        <constructor-arg ref=\"b").append(first).append("\"/>\n");
+            int second = from + (i * 7 + 1) % width;
+            if (fanOut > 1 && second != first) {
+                xml.append("        <constructor-arg ref=\"b").append(second).append("\"/>\n");
+            }
+            xml.append("    </bean>\n");
+        }
+        return write("constructor-" + size + "-" + depth + "-" + fanOut + ".xml", xml, "b" + (size - 1));
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  生成setter注入的依赖链配置
+     * @Date 2026/10/16 21:52
+     * @param size bean的数量
+     * @param depth 依赖链的长度
+     * @Return {@link SyntheticConfig}
+     **/
+    public static SyntheticConfig setterChain(int size, int depth) {
+        if (depth < 1 || depth > size || depth > MAX_SETTER_DEPTH) {
+            throw new IllegalArgumentException("invalid chain size=" + size + " depth=" + depth);
+        }
+
+        StringBuilder xml = header();
+        for (int i = 0; i < depth; i++) {
+            xml.append("    <bean id=\"d").append(i).append("\" class=\"").append(SyntheticBean.class.getName()).append('"');
+            if (i == 0) {
+                xml.append("/>\n");
+            } else {
+                xml.append(">\n        <property name=\"d").append(i - 1).append("\"/>\n    </bean>\n");
+            }
+        }
+        for (int i = 0; i < size - depth; i++) {
+            xml.append("    <bean id=\"b").append(i).append("\" class=\"").append(SyntheticBean.class.getName()).append("\">\n")
+                    .append("        <property name=\"d").append(i % depth).append("\"/>\n    </bean>\n");
+        }
+        return write("setter-" + size + "-" + depth + ".xml", xml, "d" + (depth - 1));
+    }
+
+    public String getConfigFile() {
+        return configFile;
+    }
+
+    public String getRootBeanId() {
+        return rootBeanId;
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  删除生成的临时目录
+     * @Date 2026/10/16 21:55
+     * @Return
+     **/
+    public void delete() {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static StringBuilder header() {
+        return new StringBuilder(1 << 16).append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans>\n");
+    }
+
+    private static SyntheticConfig write(String configFile, StringBuilder xml, String rootBeanId) {
+        xml.append("</beans>\n");
+        try {
+            Path directory = Files.createTempDirectory("simple_ioc-benchmark");
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(configFile), StandardCharsets.UTF_8)) {
+                writer.append(xml);
+            }
+            return new SyntheticConfig(directory, configFile, rootBeanId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 容器通过线程上下文类加载器查找配置文件，SyntheticBean由父加载器加载
+    private static ClassLoader newClassLoader(Path directory) {
+        try {
+            return new URLClassLoader(new URL[]{directory.toUri().toURL()}, SyntheticConfig.class.getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
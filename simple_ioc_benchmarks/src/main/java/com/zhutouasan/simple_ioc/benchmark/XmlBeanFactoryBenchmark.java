@@ -0,0 +1,100 @@
+package com.zhutouasan.simple_ioc.benchmark;
+
+import com.zhutouasan.simple_ioc.core.XmlBeanFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @desc： XmlBeanFactory懒加载的两种路径
+ *          firstHit：新建的工厂第一次获取依赖链末端的bean，需要沿着依赖链创建depth个单例，
+ *          工厂在每次调用前创建（Level.Invocation），解析xml的时间不计入结果；
+ *          warmGetBean：单例已经创建后的获取，contended版本多个线程同时获取同一个bean
+ * @author: zhutouasan
+ * @date： 2026/10/16 22:05
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class XmlBeanFactoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Config {
+
+        @Param({"100", "1000", "10000"})
+        int size;
+
+        @Param({"2", "8", "32"})
+        int depth;
+
+        SyntheticConfig config;
+
+        XmlBeanFactory warmFactory;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            config = SyntheticConfig.setterChain(size, depth);
+            Thread thread = Thread.currentThread();
+            ClassLoader previous = thread.getContextClassLoader();
+            thread.setContextClassLoader(config.getClassLoader());
+            try {
+                warmFactory = new XmlBeanFactory(config.getConfigFile());
+                warmFactory.getBean(config.getRootBeanId());
+            } finally {
+                thread.setContextClassLoader(previous);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            config.delete();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FreshFactory {
+
+        XmlBeanFactory factory;
+
+        @Setup(Level.Trial)
+        public void setUpThread(Config config) {
+            Thread.currentThread().setContextClassLoader(config.config.getClassLoader());
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp(Config config) {
+            factory = new XmlBeanFactory(config.config.getConfigFile());
+        }
+    }
+
+    @Benchmark
+    public Object firstHit(Config config, FreshFactory freshFactory) {
+        return freshFactory.factory.getBean(config.config.getRootBeanId());
+    }
+
+    @Benchmark
+    public Object warmGetBean(Config config) {
+        return config.warmFactory.getBean(config.config.getRootBeanId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object warmGetBeanContended(Config config) {
+        return config.warmFactory.getBean(config.config.getRootBeanId());
+    }
+}
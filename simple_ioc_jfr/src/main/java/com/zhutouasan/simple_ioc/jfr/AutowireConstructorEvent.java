@@ -0,0 +1,16 @@
+package com.zhutouasan.simple_ioc.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @desc： 通过带参数的构造器实例化bean，包括获取构造器参数
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:14
+ */
+@Name("com.zhutouasan.simple_ioc.AutowireConstructor")
+@Label("Autowire Constructor")
+@Description("Instantiation through constructor arguments, including resolving them")
+class AutowireConstructorEvent extends BeanLifecycleEvent {
+}
@@ -0,0 +1,20 @@
+package com.zhutouasan.simple_ioc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * @desc： simple_ioc所有JFR事件的公共字段
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:10
+ */
+@Category("simple_ioc")
+abstract class BeanLifecycleEvent extends Event {
+
+    @Label("Bean Id")
+    String beanId;
+
+    @Label("Bean Class")
+    String beanClass;
+}
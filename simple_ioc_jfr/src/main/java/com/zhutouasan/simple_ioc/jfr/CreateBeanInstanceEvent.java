@@ -0,0 +1,16 @@
+package com.zhutouasan.simple_ioc.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @desc： 通过无参构造器实例化bean
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:13
+ */
+@Name("com.zhutouasan.simple_ioc.CreateBeanInstance")
+@Label("Create Bean Instance")
+@Description("Instantiation through the no-arg constructor")
+class CreateBeanInstanceEvent extends BeanLifecycleEvent {
+}
@@ -0,0 +1,23 @@
+package com.zhutouasan.simple_ioc.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @desc： 一次getBean，调用非常频繁，默认关闭，需要时在JFR配置中开启
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:12
+ */
+@Name("com.zhutouasan.simple_ioc.GetBean")
+@Label("Get Bean")
+@Description("A getBean call, cacheHit is true when the singleton already existed")
+@Enabled(false)
+@StackTrace(false)
+class GetBeanEvent extends BeanLifecycleEvent {
+
+    @Label("Cache Hit")
+    boolean cacheHit;
+}
@@ -0,0 +1,62 @@
+package com.zhutouasan.simple_ioc.jfr;
+
+import com.zhutouasan.simple_ioc.core.BeanLifecycleRecorder;
+import jdk.jfr.EventType;
+
+/**
+ * @desc： 把容器的生命周期事件记录为JFR事件，由simple_ioc通过ServiceLoader加载
+ *          每种事件可以在JFR配置中单独开启，没有开启时begin只读取一次EventType的状态，不创建事件对象
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:18
+ */
+public final class JfrBeanLifecycleRecorder implements BeanLifecycleRecorder {
+
+    private final EventType getBean = EventType.getEventType(GetBeanEvent.class);
+
+    private final EventType createBeanInstance = EventType.getEventType(CreateBeanInstanceEvent.class);
+
+    private final EventType autowireConstructor = EventType.getEventType(AutowireConstructorEvent.class);
+
+    private final EventType populateBean = EventType.getEventType(PopulateBeanEvent.class);
+
+    @Override
+    public Object begin(Phase phase) {
+        BeanLifecycleEvent event;
+        switch (phase) {
+            case GET_BEAN:
+                event = getBean.isEnabled() ? new GetBeanEvent() : null;
+                break;
+            case CREATE_BEAN_INSTANCE:
+                event = createBeanInstance.isEnabled() ? new CreateBeanInstanceEvent() : null;
+                break;
+            case AUTOWIRE_CONSTRUCTOR:
+                event = autowireConstructor.isEnabled() ? new AutowireConstructorEvent() : null;
+                break;
+            case POPULATE_BEAN:
+                event = populateBean.isEnabled() ? new PopulateBeanEvent() : null;
+                break;
+            default:
+                event = null;
+        }
+        if (event != null) {
+            event.begin();
+        }
+        return event;
+    }
+
+    @Override
+    public void commit(Object event, String beanId, String beanClassName, boolean cacheHit) {
+        BeanLifecycleEvent lifecycleEvent = (BeanLifecycleEvent) event;
+        lifecycleEvent.end();
+        // 低于阈值的事件不需要填充字段
+        if (!lifecycleEvent.shouldCommit()) {
+            return;
+        }
+        lifecycleEvent.beanId = beanId;
+        lifecycleEvent.beanClass = beanClassName;
+        if (lifecycleEvent instanceof GetBeanEvent) {
+            ((GetBeanEvent) lifecycleEvent).cacheHit = cacheHit;
+        }
+        lifecycleEvent.commit();
+    }
+}
@@ -0,0 +1,16 @@
+package com.zhutouasan.simple_ioc.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @desc： 通过setter注入属性，包括获取属性依赖
+ * @author: zhutouasan
+ * @date： 2026/10/16 23:15
+ */
+@Name("com.zhutouasan.simple_ioc.PopulateBean")
+@Label("Populate Bean")
+@Description("Setter injection, including resolving the injected beans")
+class PopulateBeanEvent extends BeanLifecycleEvent {
+}
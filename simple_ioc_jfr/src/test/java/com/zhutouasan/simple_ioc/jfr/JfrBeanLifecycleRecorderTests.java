@@ -0,0 +1,56 @@
+package com.zhutouasan.simple_ioc.jfr;
+
+import com.zhutouasan.simple_ioc.core.BeanLifecycleRecorder;
+import com.zhutouasan.simple_ioc.core.XmlBeanFactory;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrBeanLifecycleRecorderTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsGetBeanAndCreateBeanInstance() throws Exception {
+        assertTrue(BeanLifecycleRecorder.CURRENT instanceof JfrBeanLifecycleRecorder);
+
+        Path file = directory.resolve("simple_ioc.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.zhutouasan.simple_ioc.GetBean");
+            recording.enable("com.zhutouasan.simple_ioc.CreateBeanInstance");
+            recording.start();
+
+            XmlBeanFactory beanFactory = new XmlBeanFactory("jfr-beans.xml");
+            assertSame(beanFactory.getBean("names"), beanFactory.getBean("names"));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> getBean = events(file, "com.zhutouasan.simple_ioc.GetBean");
+        assertEquals(2, getBean.size());
+        assertEquals(1, getBean.stream().filter(event -> event.getBoolean("cacheHit")).count());
+        assertEquals("java.util.ArrayList", getBean.get(0).getString("beanClass"));
+
+        List<RecordedEvent> created = events(file, "com.zhutouasan.simple_ioc.CreateBeanInstance");
+        assertEquals(1, created.size());
+        assertEquals("names", created.get(0).getString("beanId"));
+        // 没有在recording中开启的事件按注解上的默认值记录
+        assertEquals(1, events(file, "com.zhutouasan.simple_ioc.PopulateBean").size());
+    }
+
+    private static List<RecordedEvent> events(Path file, String name) throws Exception {
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,332 @@
+package com.zhutouasan.simple_ioc.plugin;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.core.BeanFactoryInitializer;
+import com.zhutouasan.simple_ioc.core.XmlBeanDefinitionReader;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @desc： 根据simple_ioc的xml配置生成BeanFactoryInitializer源码
+ *          xml直接用容器的XmlBeanDefinitionReader解析，规则（包括禁止DTD和外部实体）与运行时相同，生成的代码直接调用构造器和setter，
+ *          依赖通过BeanFactoryInitializer.ref获取，参数类型由编译器推断，所以生成时不需要加载Bean的类；
+ *          property对应的setter不存在时生成的代码会编译失败，比运行时静默忽略更早暴露配置问题；
+ *          依赖了延迟初始化单例的bean只登记BeanDefinition，不生成构造和注入代码，由容器创建并注入LazyBeanProxy，
+ *          否则生成的代码直接getBean会让lazy-init失效；
+ *          带value的property只登记到BeanDefinition中，生成时不知道setter的参数类型，由容器按注入计划转换并注入；
+ *          类名和xml摘要使用simple_ioc中BeanFactoryInitializer的方法计算，与容器查找初始化器时的规则相同
+ * @author: zhutouasan
+ * @date： 2026/10/16 14:40
+ */
+public class BeanFactoryInitializerGenerator {
+
+    // 每个分发方法最多包含的Bean数量，避免超过单个方法64KB字节码的限制
+    static final int CHUNK_SIZE = 500;
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  解析xml中的所有bean，重复的id以后出现的为准
+     * @Date 2026/10/16 14:45
+     * @param inputStream
+     * @Return {@link Collection}
+     **/
+    public Collection<BeanDescriptor> parse(InputStream inputStream) throws XMLStreamException {
+        return parse(inputStream, new ArrayList<>());
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  解析xml中的所有bean，import标签的resource放入imports，不解析被引入的文件
+     * @Date 2026/10/17 00:15
+     * @param inputStream
+     * @param imports
+     * @Return {@link Collection}
+     **/
+    public Collection<BeanDescriptor> parse(InputStream inputStream, List<String> imports) throws XMLStreamException {
+        Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<>();
+        new XmlBeanDefinitionReader(BeanDefinition.SCOPE_SINGLETON, true).loadBeanDefinitions(inputStream, beanDefinitions, imports);
+
+        List<BeanDescriptor> beans = new ArrayList<>(beanDefinitions.size());
+        for (BeanDefinition beanDefinition : beanDefinitions.values()) {
+            BeanDescriptor bean = new BeanDescriptor(beanDefinition.getId(), beanDefinition.getBeanClassName());
+            // 使用初始化器的容器默认都是单例，不生成setScope
+            bean.scope = BeanDefinition.SCOPE_SINGLETON.equals(beanDefinition.getScope()) ? null : beanDefinition.getScope();
+            bean.poolSize = beanDefinition.getPoolSize() > 0 ? String.valueOf(beanDefinition.getPoolSize()) : null;
+            bean.lazyInit = beanDefinition.isLazyInit();
+            bean.initMethodName = beanDefinition.getInitMethodName();
+            bean.asyncInit = beanDefinition.isAsyncInit();
+            bean.destroyMethodName = beanDefinition.getDestroyMethodName();
+            bean.constructorArguments.addAll(beanDefinition.getConstructorArguments());
+            bean.propertyNames.addAll(beanDefinition.getPropertyNames());
+            bean.valuePropertyNames.addAll(beanDefinition.getValuePropertyNames());
+            bean.propertyValues.addAll(beanDefinition.getPropertyValues());
+            beans.add(bean);
+        }
+        return beans;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  生成初始化器源码，不记录xml摘要
+     * @Date 2026/10/16 14:50
+     * @param configFile 配置文件路径，用于推导类名
+     * @param beans
+     * @Return {@link String}
+     **/
+    public String generate(String configFile, Collection<BeanDescriptor> beans) {
+        return generate(configFile, null, beans);
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  生成初始化器源码，getConfigDigest返回configDigest，容器发现classpath上的xml与它不一致时退回到xml解析
+     * @Date 2026/10/17 09:20
+     * @param configFile 配置文件路径，用于推导类名
+     * @param configDigest BeanFactoryInitializer.configDigest计算的xml摘要，为null时不生成getConfigDigest
+     * @param beans
+     * @Return {@link String}
+     **/
+    public String generate(String configFile, String configDigest, Collection<BeanDescriptor> beans) {
+        String className = BeanFactoryInitializer.initializerSimpleName(configFile);
+        List<List<BeanDescriptor>> chunks = chunk(beans);
+        Set<String> lazySingletons = new HashSet<>();
+        for (BeanDescriptor bean : beans) {
+            if (bean.lazyInit && (bean.scope == null || bean.scope.isEmpty() || BeanDefinition.SCOPE_SINGLETON.equals(bean.scope))) {
+                lazySingletons.add(bean.id);
+            }
+        }
+
+        StringBuilder src = new StringBuilder(4096 + beans.size() * 256);
+        src.append("package ").append(BeanFactoryInitializer.GENERATED_PACKAGE).append(";\n\n");
+        src.append("import com.zhutouasan.simple_ioc.bean.BeanDefinition;\n");
+        src.append("import com.zhutouasan.simple_ioc.core.BeanFactory;\n");
+        src.append("import com.zhutouasan.simple_ioc.core.BeanFactoryInitializer;\n\n");
+        src.append("import java.util.Map;\n\n");
+        src.append("/**\n * 由simple_ioc-maven-plugin根据").append(configFile).append("生成，请勿手动修改\n */\n");
+        src.append("public final class ").append(className).append(" implements BeanFactoryInitializer {\n\n");
+        src.append("    private static final Object NO_MATCH = new Object();\n\n");
+
+        if (configDigest != null) {
+            src.append("    @Override\n");
+            src.append("    public String getConfigDigest() {\n");
+            src.append("        return ").append(literal(configDigest)).append(";\n");
+            src.append("    }\n\n");
+        }
+
+        // registerBeanDefinitions
+        src.append("    @Override\n");
+        src.append("    public void registerBeanDefinitions(Map<String, BeanDefinition> beanDefinitionMap) {\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            src.append("        registerBeanDefinitions").append(i).append("(beanDefinitionMap);\n");
+        }
+        src.append("    }\n\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            src.append("    private static void registerBeanDefinitions").append(i).append("(Map<String, BeanDefinition> beanDefinitionMap) {\n");
+            src.append("        BeanDefinition beanDefinition;\n");
+            for (BeanDescriptor bean : chunks.get(i)) {
+                src.append("        beanDefinition = new BeanDefinition(").append(literal(bean.id)).append(", ")
+                        .append(literal(bean.className)).append(");\n");
+                if (bean.scope != null && !bean.scope.isEmpty()) {
+                    src.append("        beanDefinition.setScope(").append(literal(bean.scope)).append(");\n");
+                }
+                if (bean.poolSize != null && !bean.poolSize.isEmpty()) {
+                    src.append("        beanDefinition.setPoolSize(").append(Integer.parseInt(bean.poolSize.trim())).append(");\n");
+                }
+                if (bean.lazyInit) {
+                    src.append("        beanDefinition.setLazyInit(true);\n");
+                }
+                if (bean.initMethodName != null) {
+                    src.append("        beanDefinition.setInitMethodName(").append(literal(bean.initMethodName)).append(");\n");
+                }
+                if (bean.asyncInit) {
+                    src.append("        beanDefinition.setAsyncInit(true);\n");
+                }
+                if (bean.destroyMethodName != null) {
+                    src.append("        beanDefinition.setDestroyMethodName(").append(literal(bean.destroyMethodName)).append(");\n");
+                }
+                for (String argument : bean.constructorArguments) {
+                    src.append("        beanDefinition.getConstructorArguments().add(").append(literal(argument)).append(");\n");
+                }
+                for (String propertyName : bean.propertyNames) {
+                    src.append("        beanDefinition.getPropertyNames().add(").append(literal(propertyName)).append(");\n");
+                }
+                for (int j = 0; j < bean.valuePropertyNames.size(); j++) {
+                    src.append("        beanDefinition.addPropertyValue(").append(literal(bean.valuePropertyNames.get(j))).append(", ")
+                            .append(literal(bean.propertyValues.get(j))).append(");\n");
+                }
+                src.append("        beanDefinitionMap.put(").append(literal(bean.id)).append(", beanDefinition);\n");
+            }
+            src.append("    }\n\n");
+        }
+
+        // instantiate
+        src.append("    @Override\n");
+        src.append("    public Object instantiate(String beanId, BeanFactory beanFactory) {\n");
+        src.append("        Object bean;\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            src.append("        if ((bean = instantiate").append(i).append("(beanId, beanFactory)) != NO_MATCH) {\n");
+            src.append("            return bean;\n");
+            src.append("        }\n");
+        }
+        src.append("        throw new IllegalArgumentException(\"no generated bean named \" + beanId);\n");
+        src.append("    }\n\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            src.append("    private static Object instantiate").append(i).append("(String beanId, BeanFactory beanFactory) {\n");
+            src.append("        switch (beanId) {\n");
+            for (BeanDescriptor bean : chunks.get(i)) {
+                if (dependsOnAny(bean, lazySingletons)) {
+                    continue;
+                }
+                src.append("            case ").append(literal(bean.id)).append(":\n");
+                src.append("                return new ").append(sourceName(bean.className)).append("(");
+                for (int j = 0; j < bean.constructorArguments.size(); j++) {
+                    if (j > 0) {
+                        src.append(", ");
+                    }
+                    src.append("BeanFactoryInitializer.ref(beanFactory, ").append(literal(bean.constructorArguments.get(j))).append(")");
+                }
+                src.append(");\n");
+            }
+            src.append("            default:\n");
+            src.append("                return NO_MATCH;\n");
+            src.append("        }\n");
+            src.append("    }\n\n");
+        }
+
+        // populate
+        src.append("    @Override\n");
+        src.append("    public void populate(String beanId, Object bean, BeanFactory beanFactory) {\n");
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            src.append("        if (populate").append(i).append("(beanId, bean, beanFactory)) {\n");
+            src.append("            return;\n");
+            src.append("        }\n");
+        }
+        src.append("        populate").append(chunks.size() - 1).append("(beanId, bean, beanFactory);\n");
+        src.append("    }\n\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            src.append("    private static boolean populate").append(i).append("(String beanId, Object bean, BeanFactory beanFactory) {\n");
+            src.append("        switch (beanId) {\n");
+            for (BeanDescriptor bean : chunks.get(i)) {
+                if (bean.propertyNames.isEmpty() || dependsOnAny(bean, lazySingletons)) {
+                    continue;
+                }
+                src.append("            case ").append(literal(bean.id)).append(":\n");
+                for (String propertyName : bean.propertyNames) {
+                    src.append("                ((").append(sourceName(bean.className)).append(") bean).")
+                            .append(setterName(propertyName)).append("(BeanFactoryInitializer.ref(beanFactory, ")
+                            .append(literal(propertyName)).append("));\n");
+                }
+                src.append("                return true;\n");
+            }
+            src.append("            default:\n");
+            src.append("                return false;\n");
+            src.append("        }\n");
+            src.append("    }\n\n");
+        }
+
+        src.setLength(src.length() - 1);
+        src.append("}\n");
+        return src.toString();
+    }
+
+    private static List<List<BeanDescriptor>> chunk(Collection<BeanDescriptor> beans) {
+        List<List<BeanDescriptor>> chunks = new ArrayList<>();
+        List<BeanDescriptor> current = new ArrayList<>(CHUNK_SIZE);
+        for (BeanDescriptor bean : beans) {
+            if (current.size() == CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(CHUNK_SIZE);
+            }
+            current.add(bean);
+        }
+        chunks.add(current);
+        return chunks;
+    }
+
+    // 构造器参数或属性是否引用了beanIds中的bean
+    private static boolean dependsOnAny(BeanDescriptor bean, Set<String> beanIds) {
+        for (String argument : bean.constructorArguments) {
+            if (beanIds.contains(argument)) {
+                return true;
+            }
+        }
+        for (String propertyName : bean.propertyNames) {
+            if (beanIds.contains(propertyName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String setterName(String propertyName) {
+        return "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+    }
+
+    // 内部类的二进制名Outer$Inner在源码中写作Outer.Inner
+    private static String sourceName(String className) {
+        return className.replace('$', '.');
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                // 字面值中可能有换行等控制字符，用八进制转义，unicode转义在词法分析之前就会被替换
+                sb.append(String.format("\\%03o", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * @desc： xml中一个bean标签的内容
+     */
+    public static class BeanDescriptor {
+
+        final String id;
+
+        final String className;
+
+        // 没有配置时为null，使用容器的默认作用域
+        String scope;
+
+        String poolSize;
+
+        boolean lazyInit;
+
+        // 没有配置init-method时为null
+        String initMethodName;
+
+        boolean asyncInit;
+
+        // 没有配置destroy-method时为null
+        String destroyMethodName;
+
+        final List<String> constructorArguments = new ArrayList<>();
+
+        final List<String> propertyNames = new ArrayList<>();
+
+        // 带value的property，与propertyValues一一对应
+        final List<String> valuePropertyNames = new ArrayList<>();
+
+        final List<String> propertyValues = new ArrayList<>();
+
+        BeanDescriptor(String id, String className) {
+            this.id = id;
+            this.className = className;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.zhutouasan.simple_ioc.plugin;
+
+import com.zhutouasan.simple_ioc.core.BeanFactoryInitializer;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @desc： 在generate-sources阶段根据xml配置生成BeanFactoryInitializer，生成的源码会加入编译路径
+ *          生成的初始化器记录xml的摘要，只更新xml而没有重新生成时，容器发现不一致会退回到xml解析
+ *          使用方式：
+ *          <pre>
+ *          &lt;plugin&gt;
+ *              &lt;groupId&gt;com.zhutouasan&lt;/groupId&gt;
+ *              &lt;artifactId&gt;simple_ioc-maven-plugin&lt;/artifactId&gt;
+ *              &lt;executions&gt;
+ *                  &lt;execution&gt;
+ *                      &lt;goals&gt;&lt;goal&gt;generate&lt;/goal&gt;&lt;/goals&gt;
+ *                      &lt;configuration&gt;
+ *                          &lt;configFiles&gt;&lt;configFile&gt;beans.xml&lt;/configFile&gt;&lt;/configFiles&gt;
+ *                      &lt;/configuration&gt;
+ *                  &lt;/execution&gt;
+ *              &lt;/executions&gt;
+ *          &lt;/plugin&gt;
+ *          </pre>
+ * @author: zhutouasan
+ * @date： 2026/10/16 15:10
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
+public class GenerateInitializerMojo extends AbstractMojo {
+
+    // 配置文件路径，与传给容器构造器的configFile相同，相对于resourceDirectory
+    @Parameter(required = true)
+    private List<String> configFiles = Collections.emptyList();
+
+    @Parameter(defaultValue = "${project.basedir}/src/main/resources", required = true)
+    private File resourceDirectory;
+
+    @Parameter(defaultValue = "${project.build.directory}/generated-sources/simple_ioc", required = true)
+    private File outputDirectory;
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        BeanFactoryInitializerGenerator generator = new BeanFactoryInitializerGenerator();
+        File packageDirectory = new File(outputDirectory,
+                BeanFactoryInitializer.GENERATED_PACKAGE.replace('.', File.separatorChar));
+
+        try {
+            Files.createDirectories(packageDirectory.toPath());
+            for (String configFile : configFiles) {
+                File source = new File(resourceDirectory, configFile);
+                File target = new File(packageDirectory, BeanFactoryInitializer.initializerSimpleName(configFile) + ".java");
+
+                // xml没有变化时不重新生成，避免触发增量编译
+                if (target.exists() && target.lastModified() >= source.lastModified()) {
+                    getLog().debug("initializer for " + configFile + " is up to date");
+                    continue;
+                }
+
+                // 生成的初始化器只包含这一个文件中的bean，引入了其他文件时由容器解析xml
+                List<String> imports = new ArrayList<>();
+                byte[] content = Files.readAllBytes(source.toPath());
+                String code = generator.generate(configFile, BeanFactoryInitializer.configDigest(new ByteArrayInputStream(content)),
+                        generator.parse(new ByteArrayInputStream(content), imports));
+                if (!imports.isEmpty()) {
+                    getLog().warn("skipping " + configFile + ", <import> is not supported by generated initializers: " + imports);
+                    Files.deleteIfExists(target.toPath());
+                    continue;
+                }
+                try (Writer writer = Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8)) {
+                    writer.write(code);
+                }
+                getLog().info("generated " + target + " from " + source);
+            }
+        } catch (Exception e) {
+            throw new MojoExecutionException("failed to generate bean factory initializer", e);
+        }
+
+        project.addCompileSourceRoot(outputDirectory.getAbsolutePath());
+    }
+}
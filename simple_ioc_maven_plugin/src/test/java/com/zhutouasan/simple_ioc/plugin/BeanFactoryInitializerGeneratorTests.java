@@ -0,0 +1,170 @@
+package com.zhutouasan.simple_ioc.plugin;
+
+import com.zhutouasan.simple_ioc.core.BeanFactoryInitializer;
+import com.zhutouasan.simple_ioc.core.ClassPathXmlApplicationContext;
+import com.zhutouasan.simple_ioc.core.XmlBeanFactory;
+import com.zhutouasan.simple_ioc.plugin.fixture.InventoryDao;
+import com.zhutouasan.simple_ioc.plugin.fixture.InventoryService;
+import com.zhutouasan.simple_ioc.plugin.fixture.StockLookup;
+import com.zhutouasan.simple_ioc.plugin.fixture.StockReport;
+import com.zhutouasan.simple_ioc.plugin.fixture.WarehouseStockLookup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanFactoryInitializerGeneratorTests {
+
+    private static final String CONFIG_FILE = "compiled-inventory-beans.xml";
+
+    private final BeanFactoryInitializerGenerator generator = new BeanFactoryInitializerGenerator();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void generatesDirectConstructorAndSetterCalls() throws Exception {
+        Collection<BeanFactoryInitializerGenerator.BeanDescriptor> beans;
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("beans.xml")) {
+            beans = generator.parse(inputStream);
+        }
+        assertEquals(3, beans.size());
+
+        String code = generator.generate("beans.xml", beans);
+        assertTrue(code.contains("public final class BeansXmlBeanFactoryInitializer implements BeanFactoryInitializer"));
+        assertTrue(code.contains("return new com.zhutouasan.simple_ioc.fixture.UserDao();"));
+        assertTrue(code.contains("return new com.zhutouasan.simple_ioc.fixture.OrderService(BeanFactoryInitializer.ref(beanFactory, \"userDao\"));"));
+        assertTrue(code.contains("((com.zhutouasan.simple_ioc.fixture.UserService) bean).setUserDao(BeanFactoryInitializer.ref(beanFactory, \"userDao\"));"));
+        assertTrue(code.contains("beanDefinition.getConstructorArguments().add(\"userDao\");"));
+        // 字面值只登记到BeanDefinition中，由容器转换后注入
+        assertTrue(code.contains("beanDefinition.addPropertyValue(\"tableName\", \"users\");"));
+        assertFalse(code.contains("setTableName"));
+        assertFalse(code.contains("getConfigDigest"));
+    }
+
+    @Test
+    void externalEntitiesAreNotResolved() {
+        // 与容器解析xml的规则相同，生成时也不读取外部实体
+        String xml = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE beans [<!ENTITY secret SYSTEM \"file:///etc/hostname\">]>\n"
+                + "<beans><bean id=\"userDao\" class=\"com.zhutouasan.simple_ioc.fixture.UserDao\">"
+                + "<property name=\"tableName\" value=\"&secret;\"/></bean></beans>";
+        assertThrows(XMLStreamException.class,
+                () -> generator.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void compiledInitializerReplacesXmlParsing() throws Exception {
+        byte[] xml = readResource("inventory-beans.xml");
+        try (URLClassLoader classLoader = compile(xml)) {
+            withContextClassLoader(classLoader, () -> {
+                BeanFactoryInitializer initializer = BeanFactoryInitializer.find(CONFIG_FILE);
+                assertNotNull(initializer);
+                assertEquals(BeanFactoryInitializer.initializerClassName(CONFIG_FILE), initializer.getClass().getName());
+
+                ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(CONFIG_FILE);
+                InventoryService inventoryService = (InventoryService) context.getBean("inventoryService");
+                assertSame(context.getBean("inventoryDao"), inventoryService.getInventoryDao());
+                assertSame(context.getBean("auditDao"), inventoryService.getAuditDao());
+                assertEquals("inventory", inventoryService.getInventoryDao().getTableName());
+                context.close();
+
+                XmlBeanFactory beanFactory = new XmlBeanFactory(CONFIG_FILE);
+                assertEquals(1, beanFactory.getBeanDefinition("inventoryService").getConstructorArguments().size());
+                assertNotNull(((InventoryService) beanFactory.getBean("inventoryService")).getAuditDao());
+            });
+        }
+    }
+
+    @Test
+    void lazyDependenciesOfCompiledBeansAreStillProxied() throws Exception {
+        byte[] xml = readResource("inventory-beans.xml");
+        String code = generator.generate(CONFIG_FILE, generator.parse(new ByteArrayInputStream(xml)));
+        // 依赖延迟初始化单例的bean不生成构造和注入代码，延迟初始化的bean本身照常生成
+        assertFalse(code.contains("new com.zhutouasan.simple_ioc.plugin.fixture.StockReport()"));
+        assertFalse(code.contains("setStockLookup"));
+        assertTrue(code.contains("new com.zhutouasan.simple_ioc.plugin.fixture.WarehouseStockLookup()"));
+
+        try (URLClassLoader classLoader = compile(xml)) {
+            withContextClassLoader(classLoader, () -> {
+                assertNotNull(BeanFactoryInitializer.find(CONFIG_FILE));
+                WarehouseStockLookup.INSTANCES.set(0);
+                ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(CONFIG_FILE);
+                StockLookup stockLookup = ((StockReport) context.getBean("stockReport")).getStockLookup();
+                assertTrue(Proxy.isProxyClass(stockLookup.getClass()));
+                assertEquals(0, WarehouseStockLookup.INSTANCES.get());
+
+                assertEquals(4, stockLookup.stock("A-01"));
+                assertEquals(1, WarehouseStockLookup.INSTANCES.get());
+                context.close();
+            });
+        }
+    }
+
+    @Test
+    void staleInitializerFallsBackToXml() throws Exception {
+        byte[] xml = readResource("inventory-beans.xml");
+        try (URLClassLoader classLoader = compile(xml)) {
+            // 修改xml后没有重新生成
+            String changed = new String(xml, StandardCharsets.UTF_8).replace("value=\"inventory\"", "value=\"inventory_v2\"");
+            Files.write(this.directory.resolve(CONFIG_FILE), changed.getBytes(StandardCharsets.UTF_8));
+
+            withContextClassLoader(classLoader, () -> {
+                assertNull(BeanFactoryInitializer.find(CONFIG_FILE));
+                ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(CONFIG_FILE);
+                assertEquals("inventory_v2", ((InventoryDao) context.getBean("inventoryDao")).getTableName());
+                context.close();
+            });
+        }
+    }
+
+    // 生成并编译初始化器，xml和编译结果都放在directory下，返回能同时加载它们的类加载器
+    private URLClassLoader compile(byte[] xml) throws Exception {
+        Files.write(this.directory.resolve(CONFIG_FILE), xml);
+        String code = generator.generate(CONFIG_FILE, BeanFactoryInitializer.configDigest(new ByteArrayInputStream(xml)),
+                generator.parse(new ByteArrayInputStream(xml)));
+        Path source = this.directory.resolve("src").resolve(BeanFactoryInitializer.initializerSimpleName(CONFIG_FILE) + ".java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, code.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int status = compiler.run(null, null, null, "-encoding", "UTF-8", "-d", this.directory.toString(),
+                "-classpath", System.getProperty("java.class.path"), source.toString());
+        assertEquals(0, status, code);
+        return new URLClassLoader(new URL[]{this.directory.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private byte[] readResource(String name) throws Exception {
+        return Files.readAllBytes(Paths.get(getClass().getClassLoader().getResource(name).toURI()));
+    }
+
+    private static void withContextClassLoader(ClassLoader classLoader, ThrowingRunnable runnable) throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            runnable.run();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private interface ThrowingRunnable {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,14 @@
+package com.zhutouasan.simple_ioc.plugin.fixture;
+
+public class InventoryDao {
+
+    private String tableName;
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+}
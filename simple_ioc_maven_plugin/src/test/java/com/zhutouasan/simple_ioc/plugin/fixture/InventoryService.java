@@ -0,0 +1,24 @@
+package com.zhutouasan.simple_ioc.plugin.fixture;
+
+public class InventoryService {
+
+    private final InventoryDao inventoryDao;
+
+    private InventoryDao auditDao;
+
+    public InventoryService(InventoryDao inventoryDao) {
+        this.inventoryDao = inventoryDao;
+    }
+
+    public InventoryDao getInventoryDao() {
+        return inventoryDao;
+    }
+
+    public InventoryDao getAuditDao() {
+        return auditDao;
+    }
+
+    public void setAuditDao(InventoryDao auditDao) {
+        this.auditDao = auditDao;
+    }
+}
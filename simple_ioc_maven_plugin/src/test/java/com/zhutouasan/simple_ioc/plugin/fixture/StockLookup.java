@@ -0,0 +1,6 @@
+package com.zhutouasan.simple_ioc.plugin.fixture;
+
+public interface StockLookup {
+
+    int stock(String sku);
+}
@@ -0,0 +1,14 @@
+package com.zhutouasan.simple_ioc.plugin.fixture;
+
+public class StockReport {
+
+    private StockLookup stockLookup;
+
+    public StockLookup getStockLookup() {
+        return stockLookup;
+    }
+
+    public void setStockLookup(StockLookup stockLookup) {
+        this.stockLookup = stockLookup;
+    }
+}
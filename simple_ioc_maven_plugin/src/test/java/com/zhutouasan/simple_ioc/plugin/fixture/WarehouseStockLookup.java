@@ -0,0 +1,17 @@
+package com.zhutouasan.simple_ioc.plugin.fixture;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WarehouseStockLookup implements StockLookup {
+
+    public static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    public WarehouseStockLookup() {
+        INSTANCES.incrementAndGet();
+    }
+
+    @Override
+    public int stock(String sku) {
+        return sku.length();
+    }
+}
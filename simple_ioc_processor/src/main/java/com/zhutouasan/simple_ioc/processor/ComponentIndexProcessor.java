@@ -0,0 +1,237 @@
+package com.zhutouasan.simple_ioc.processor;
+
+import com.zhutouasan.simple_ioc.annotation.Component;
+import com.zhutouasan.simple_ioc.annotation.Inject;
+import com.zhutouasan.simple_ioc.annotation.Named;
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.core.ComponentIndexReader;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * @desc： 编译期收集@Component类，写入META-INF/simple_ioc.components，格式见ComponentIndexReader
+ *          构造器参数和setter在这里解析成beanId，启动时容器只读取文本索引，不扫描classpath也不加载类；
+ *          所有轮次结束后一次写出，条目按beanId排序，同样的源码每次生成同样的文件；
+ *          索引只包含本次编译的类，增量编译只编译部分源码时需要完整重新编译
+ * @author: zhutouasan
+ * @date： 2026/10/17 00:50
+ */
+@SupportedAnnotationTypes("com.zhutouasan.simple_ioc.annotation.Component")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    // beanId -> 索引中的一行
+    private final Map<String, String> entries = new TreeMap<>();
+
+    // beanId -> 类名，用于报告重复的beanId
+    private final Map<String, String> classNames = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Component.class)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                error(element, "@Component can only be used on concrete classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                error(element, "@Component inner class must be static");
+                continue;
+            }
+            addEntry(type);
+        }
+
+        if (roundEnv.processingOver() && !this.entries.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * @Auther zhutouasan
+     * @Desc  把一个组件转换成索引中的一行
+     * @Date 2026/10/17 00:52
+     * @param type
+     * @Return
+     **/
+    private void addEntry(TypeElement type) {
+        Component component = type.getAnnotation(Component.class);
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String beanId = component.value().isEmpty() ? decapitalize(type.getSimpleName().toString()) : component.value();
+        String scope = component.scope();
+        if (!scope.isEmpty() && !BeanDefinition.isKnownScope(scope)) {
+            error(type, "unknown scope '" + scope + "'");
+            return;
+        }
+
+        List<String> constructorArguments = constructorArguments(type);
+        List<String> propertyNames = propertyNames(type);
+        if (constructorArguments == null || propertyNames == null) {
+            return;
+        }
+
+        List<String> ids = new ArrayList<>(constructorArguments);
+        ids.addAll(propertyNames);
+        ids.add(beanId);
+        for (String id : ids) {
+            if (!isValidId(id)) {
+                error(type, "bean id '" + id + "' must not be empty or contain tabs, commas or line breaks");
+                return;
+            }
+        }
+
+        String existing = this.classNames.putIfAbsent(beanId, className);
+        if (existing != null && !existing.equals(className)) {
+            error(type, "bean id '" + beanId + "' is already used by " + existing);
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(128);
+        line.append(beanId).append(ComponentIndexReader.FIELD_SEPARATOR)
+                .append(className).append(ComponentIndexReader.FIELD_SEPARATOR)
+                .append(scope).append(ComponentIndexReader.FIELD_SEPARATOR)
+                .append(component.lazyInit() ? "true" : "").append(ComponentIndexReader.FIELD_SEPARATOR)
+                .append(join(constructorArguments)).append(ComponentIndexReader.FIELD_SEPARATOR)
+                .append(join(propertyNames));
+        this.entries.put(beanId, line.toString());
+    }
+
+    // @Inject构造器的参数对应的beanId，没有@Inject构造器时要求有无参构造器；出错时返回null
+    private List<String> constructorArguments(TypeElement type) {
+        ExecutableElement injected = null;
+        boolean noArgs = false;
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.CONSTRUCTOR) {
+                continue;
+            }
+            ExecutableElement constructor = (ExecutableElement) member;
+            noArgs |= constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE);
+            if (constructor.getAnnotation(Inject.class) != null) {
+                if (injected != null) {
+                    error(constructor, "only one constructor can be annotated with @Inject");
+                    return null;
+                }
+                injected = constructor;
+            }
+        }
+        if (injected == null) {
+            if (!noArgs) {
+                error(type, "@Component class needs a no-arg constructor or an @Inject constructor");
+                return null;
+            }
+            return new ArrayList<>();
+        }
+
+        List<String> arguments = new ArrayList<>(injected.getParameters().size());
+        for (VariableElement parameter : injected.getParameters()) {
+            Named named = parameter.getAnnotation(Named.class);
+            arguments.add(named == null ? parameter.getSimpleName().toString() : named.value());
+        }
+        return arguments;
+    }
+
+    // 类和所有父类中@Inject的setter对应的属性名；出错时返回null
+    private List<String> propertyNames(TypeElement type) {
+        Set<String> propertyNames = new LinkedHashSet<>();
+        boolean valid = true;
+        for (TypeElement current = type; current != null; current = superclass(current)) {
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind() != ElementKind.METHOD || member.getAnnotation(Inject.class) == null) {
+                    continue;
+                }
+                ExecutableElement method = (ExecutableElement) member;
+                String name = method.getSimpleName().toString();
+                if (!name.startsWith("set") || name.length() == 3 || method.getParameters().size() != 1
+                        || method.getModifiers().contains(Modifier.STATIC)) {
+                    error(method, "@Inject method must be a non-static setter with one parameter");
+                    valid = false;
+                    continue;
+                }
+                propertyNames.add(decapitalize(name.substring(3)));
+            }
+        }
+        return valid ? new ArrayList<>(propertyNames) : null;
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndexReader.COMPONENT_INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# generated by simple_ioc-processor, do not edit\n");
+                for (String line : this.entries.values()) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "failed to write " + ComponentIndexReader.COMPONENT_INDEX_LOCATION + ": " + e);
+        }
+    }
+
+    // 与InjectionPlan中 "set" + 首字母大写 相反
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static boolean isValidId(String id) {
+        if (id.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c == ComponentIndexReader.FIELD_SEPARATOR || c == ComponentIndexReader.LIST_SEPARATOR || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String join(List<String> values) {
+        return String.join(String.valueOf(ComponentIndexReader.LIST_SEPARATOR), values);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
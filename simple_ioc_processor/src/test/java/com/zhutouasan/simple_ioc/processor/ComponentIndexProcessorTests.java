@@ -0,0 +1,63 @@
+package com.zhutouasan.simple_ioc.processor;
+
+import com.zhutouasan.simple_ioc.bean.BeanDefinition;
+import com.zhutouasan.simple_ioc.core.ClassPathXmlApplicationContext;
+import com.zhutouasan.simple_ioc.core.ComponentIndexReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentIndexProcessorTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void contextReadsIndexGeneratedForTestSources() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(new String[0], false);
+        context.setComponentIndexEnabled(true);
+        context.refresh();
+
+        BeanDefinition service = context.getBeanDefinition("service");
+        assertEquals(IndexedService.class.getName(), service.getBeanClassName());
+        assertTrue(service.isLazyInit());
+        assertEquals(Arrays.asList("indexedRepository"), service.getConstructorArguments());
+        assertEquals(Arrays.asList("clock"), service.getPropertyNames());
+        assertTrue(context.getBeanDefinition("clock").isPrototype());
+        assertNull(context.getSingleton("service"));
+
+        IndexedService bean = context.getBean(IndexedService.class);
+        assertSame(context.getBean("indexedRepository"), bean.getRepository());
+        assertNotNull(bean.getClock());
+    }
+
+    @Test
+    void rejectsSecondInjectConstructor() throws Exception {
+        Path source = directory.resolve("Broken.java");
+        Files.write(source, ("import com.zhutouasan.simple_ioc.annotation.*;\n"
+                + "@Component public class Broken {\n"
+                + "  @Inject public Broken(Object a) {}\n"
+                + "  @Inject public Broken(Object a, Object b) {}\n"
+                + "}\n").getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int result = compiler.run(null, null, errors, "-proc:only",
+                "-processor", ComponentIndexProcessor.class.getName(),
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", directory.toString(), source.toString());
+
+        assertNotEquals(0, result);
+        assertTrue(errors.toString("UTF-8").contains("only one constructor"));
+        assertFalse(Files.exists(directory.resolve(ComponentIndexReader.COMPONENT_INDEX_LOCATION)));
+    }
+}
@@ -0,0 +1,7 @@
+package com.zhutouasan.simple_ioc.processor;
+
+import com.zhutouasan.simple_ioc.annotation.Component;
+
+@Component
+public class IndexedRepository {
+}
@@ -0,0 +1,31 @@
+package com.zhutouasan.simple_ioc.processor;
+
+import com.zhutouasan.simple_ioc.annotation.Component;
+import com.zhutouasan.simple_ioc.annotation.Inject;
+import com.zhutouasan.simple_ioc.annotation.Named;
+
+@Component(value = "service", lazyInit = true)
+public class IndexedService {
+
+    private final IndexedRepository repository;
+
+    private IndexedClock clock;
+
+    @Inject
+    public IndexedService(@Named("indexedRepository") IndexedRepository repository) {
+        this.repository = repository;
+    }
+
+    public IndexedRepository getRepository() {
+        return repository;
+    }
+
+    public IndexedClock getClock() {
+        return clock;
+    }
+
+    @Inject
+    public void setClock(IndexedClock clock) {
+        this.clock = clock;
+    }
+}